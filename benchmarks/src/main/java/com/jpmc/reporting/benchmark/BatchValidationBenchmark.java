@@ -0,0 +1,67 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.InstructionBatchValidator;
+import com.jpmc.reporting.model.InstructionField;
+import com.jpmc.reporting.model.RawInstructionBatch;
+import com.jpmc.reporting.model.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Currency;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link InstructionBatchValidator}, in field checks per second. Every invocation
+ * validates a raw batch of {@value #ROWS} rows, {@link InstructionField} checks per row, where
+ * the given share of rows has one bad field.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchValidationBenchmark {
+
+    private static final int ROWS = 1 << 16;
+    private static final int FIELDS = 7;
+
+    @Param({"0", "0.01"})
+    public double rejectRatio;
+
+    private final InstructionBatchValidator validator = new InstructionBatchValidator();
+    private RawInstructionBatch batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        Random random = new Random(42L);
+        short currency = CurrencyDictionary.idOf(Currency.getInstance("EUR"));
+        batch = new RawInstructionBatch(new EntityDictionary(), ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            int units = random.nextDouble() < rejectRatio ? 0 : 1 + random.nextInt(1000);
+            batch.add(random.nextInt(1000), (byte) random.nextInt(2), 1 + random.nextInt(20000), 4, currency,
+                    16800 + random.nextInt(366), RawInstructionBatch.NO_DAY, units, random.nextInt(1000000), 2);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * FIELDS)
+    public ValidationResult validate() {
+        return validator.validate(batch);
+    }
+}
@@ -0,0 +1,93 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ChannelReportWriter;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.output.ReportWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link ConsoleReportWriter#writeReport} and {@link ChannelReportWriter#writeReport}
+ * for ranking and daily settled sections of growing size. Output is discarded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsoleReportWriterBenchmark {
+
+    @Param({"1000", "100000", "500000"})
+    public int rows;
+
+    @Param({"console", "channel"})
+    public String writerType;
+
+    private Map<String, BigDecimal> ranking;
+    private Map<LocalDate, BigDecimal> settledAmount;
+    private ReportWriter writer;
+    private Currency usd;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42L);
+        LocalDate firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+        ranking = new LinkedHashMap<>();
+        settledAmount = new LinkedHashMap<>();
+
+        for (int i = 0; i < rows; i++) {
+            ranking.put("entity" + i, BigDecimal.valueOf(random.nextInt(Integer.MAX_VALUE), 2));
+            settledAmount.put(firstDate.plusDays(i), BigDecimal.valueOf(random.nextInt(Integer.MAX_VALUE), 2));
+        }
+
+        if ("channel".equals(writerType))
+            writer = new ChannelReportWriter(Channels.newChannel(new NullOutputStream()), Locale.US);
+        else
+            writer = new ConsoleReportWriter(new PrintWriter(new NullOutputStream()), Locale.US);
+        usd = Currency.getInstance("USD");
+    }
+
+    @Benchmark
+    public void writeRanking() throws IOException {
+        writer.writeReport(ranking, usd, "ranking", Operation.BUY);
+        flush();
+    }
+
+    @Benchmark
+    public void writeSettledAmount() throws IOException {
+        writer.writeReport(settledAmount, usd, "amountSettled", Operation.SELL);
+        flush();
+    }
+
+    private void flush() throws IOException {
+
+        if (writer instanceof Flushable)
+            ((Flushable) writer).flush();
+    }
+}
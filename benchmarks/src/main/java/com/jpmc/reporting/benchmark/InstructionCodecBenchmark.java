@@ -0,0 +1,102 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.codec.InstructionDecoder;
+import com.jpmc.reporting.codec.InstructionEncoder;
+import com.jpmc.reporting.engine.ColumnarAggregator;
+import com.jpmc.reporting.engine.InstructionBatchLoader;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the binary instruction codec, in instructions per second. Every invocation
+ * either encodes a batch of {@value #BATCH} instructions, aggregates the batch from
+ * {@link Instruction} objects, or aggregates it straight from its encoded form through an
+ * {@link InstructionDecoder}. Run with {@code -prof gc} to compare allocation rates of the two
+ * aggregation paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstructionCodecBenchmark {
+
+    private static final int BATCH = 10000;
+
+    @Param({"1000", "100000"})
+    public int entityCount;
+
+    private final InstructionEncoder encoder = new InstructionEncoder();
+    private final InstructionDecoder decoder = new InstructionDecoder();
+    private final InstructionBatchLoader loader = new InstructionBatchLoader(new SimpleTradeOperationsProvider());
+    private final EntityDictionary entities = new EntityDictionary();
+    private final InstructionBatch batch = new InstructionBatch(entities, BATCH);
+    private List<Instruction> instructions;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        instructions = new TestDataUtil().generateInstructions(BATCH, entityCount, InstructionData.currencies("MIXED"), 42L);
+        int length = 0;
+        for (Instruction instruction : instructions)
+            length += encoder.encodedLength(instruction);
+        encoded = ByteBuffer.allocateDirect(length);
+        encode();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int encode() {
+
+        encoder.wrap(encoded, 0);
+        for (Instruction instruction : instructions)
+            encoder.encode(instruction);
+        return encoder.offset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ColumnarAggregator aggregateInstructions() {
+
+        ColumnarAggregator aggregator = new ColumnarAggregator(entities);
+        batch.clear();
+        for (Instruction instruction : instructions)
+            loader.add(batch, instruction);
+        aggregator.accept(batch);
+        return aggregator;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ColumnarAggregator aggregateDecoded() {
+
+        ColumnarAggregator aggregator = new ColumnarAggregator(entities);
+        batch.clear();
+        for (int offset = 0; offset < encoded.capacity(); offset = decoder.limit())
+            loader.add(batch, decoder.wrap(encoded, offset));
+        aggregator.accept(batch);
+        return aggregator;
+    }
+}
@@ -0,0 +1,49 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Synthetic instruction data shared by benchmarks. Instructions are generated once per trial by
+ * {@link TestDataUtil} with a fixed seed, so every run works on the same data set.
+ * Instructions count, entity cardinality and currency mix can be overridden from command line
+ * with the -p option of JMH.
+ */
+@State(Scope.Benchmark)
+public class InstructionData {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int instructionCount;
+
+    @Param({"100", "100000"})
+    public int entityCount;
+
+    @Param({"SINGLE", "MIXED"})
+    public String currencyMix;
+
+    public List<Instruction> instructions;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        instructions = new TestDataUtil().generateInstructions(instructionCount, entityCount, currencies(currencyMix), 42L);
+    }
+
+    static List<Currency> currencies(String currencyMix) {
+
+        if ("SINGLE".equals(currencyMix))
+            return Collections.singletonList(Currency.getInstance("EUR"));
+        else
+            return Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("GBP"), Currency.getInstance("SGD"),
+                    Currency.getInstance("AED"), Currency.getInstance("SAR"));
+    }
+}
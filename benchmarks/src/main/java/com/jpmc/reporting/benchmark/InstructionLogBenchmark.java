@@ -0,0 +1,94 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.log.InstructionLog;
+import com.jpmc.reporting.log.InstructionLogProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append and replay throughput of {@link InstructionLog}, in instructions per second. Every
+ * invocation appends a batch of {@value #BATCH} instructions to a log in the temp directory,
+ * which rolls over to new segments as it grows, and reads the same number of records back from
+ * the log through an {@link InstructionLogProvider}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstructionLogBenchmark {
+
+    private static final int BATCH = 10000;
+
+    @Param({"1000", "100000"})
+    public int entityCount;
+
+    private List<Instruction> instructions;
+    private Path directory;
+    private InstructionLog log;
+    private InstructionLogProvider provider;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        instructions = new TestDataUtil().generateInstructions(BATCH, entityCount, InstructionData.currencies("MIXED"), 42L);
+        directory = Files.createTempDirectory("instruction-log");
+        log = new InstructionLog(directory);
+        provider = new InstructionLogProvider(directory, "benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        log.close();
+        provider.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long append() {
+
+        long offset = 0;
+        for (Instruction instruction : instructions)
+            offset = log.append(instruction);
+        return offset;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void appendAndTail(Blackhole bh) {
+
+        for (Instruction instruction : instructions)
+            log.append(instruction);
+        try (Stream<Instruction> tail = provider.streamInstructions()) {
+            tail.forEach(bh::consume);
+        }
+    }
+}
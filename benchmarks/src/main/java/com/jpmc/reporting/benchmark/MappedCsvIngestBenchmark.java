@@ -0,0 +1,98 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.input.MappedCsvInputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Currency;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ingest throughput of {@link MappedCsvInputDataProvider}. A CSV file with the requested number of
+ * rows is generated once per trial in the temp directory (about 60 bytes per row, so 50000000 rows
+ * make a 3GB file) and streamed on every invocation. Rows read are reported as the rows
+ * secondary result in rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedCsvIngestBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"100000"})
+    public int entityCount;
+
+    private Path file;
+    private MappedCsvInputDataProvider provider;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class RowCounter {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+
+        file = Files.createTempFile("instructions", ".csv");
+        Random random = new Random(42L);
+        List<Currency> currencies = InstructionData.currencies("MIXED");
+        LocalDate firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write("entity,operation,agreedFx,currency,instructionDate,settlementDate,units,unitPrice\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("entity" + random.nextInt(entityCount) + (random.nextBoolean() ? ",B," : ",S,")
+                        + "0." + (1000 + random.nextInt(9000)) + ","
+                        + currencies.get(random.nextInt(currencies.size())).getCurrencyCode() + ","
+                        + firstDate.plusDays(random.nextInt(366)) + ",,"
+                        + (1 + random.nextInt(1000)) + "," + random.nextInt(10000) + "." + (10 + random.nextInt(90)) + "\n");
+            }
+        }
+        provider = new MappedCsvInputDataProvider(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void streamInstructions(RowCounter counter, Blackhole bh) {
+        try (Stream<Instruction> instructions = provider.streamInstructions()) {
+            instructions.forEach(instruction -> {
+                bh.consume(instruction);
+                counter.rows++;
+            });
+        }
+    }
+}
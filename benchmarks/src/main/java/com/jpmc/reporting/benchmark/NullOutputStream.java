@@ -0,0 +1,18 @@
+package com.jpmc.reporting.benchmark;
+
+import java.io.OutputStream;
+
+/**
+ * Output stream discarding everything written to it, so that writer benchmarks measure
+ * formatting rather than I/O
+ */
+final class NullOutputStream extends OutputStream {
+
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.engine.ColumnarReportingEngine;
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.ParallelReportingEngine;
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.ReportingEngine;
+import com.jpmc.reporting.engine.SimpleReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.StreamingReportingEngine;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmark of report generation, from instruction retrieval to a discarded
+ * console report
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ReportingEngineBenchmark {
+
+    @Param({"simple", "fused", "streaming", "parallel", "columnar", "columnarOffHeap"})
+    public String engineType;
+
+    private ReportingEngine engine;
+    private TradeOperationsProvider top;
+
+    @Setup
+    public void setup() {
+
+        if ("fused".equals(engineType))
+            engine = new FusedReportingEngine();
+        else if ("streaming".equals(engineType))
+            engine = new StreamingReportingEngine();
+        else if ("parallel".equals(engineType))
+            engine = new ParallelReportingEngine();
+        else if ("columnar".equals(engineType))
+            engine = new ColumnarReportingEngine();
+        else if ("columnarOffHeap".equals(engineType))
+            engine = new ColumnarReportingEngine(64 * 1024, ReportFigures.FULL_RANKING, null, true);
+        else
+            engine = new SimpleReportingEngine();
+
+        top = new SimpleTradeOperationsProvider();
+    }
+
+    @Benchmark
+    public void generateReport(InstructionData data) {
+        engine.generateReport(() -> data.instructions, top,
+                new ConsoleReportWriter(new PrintWriter(new NullOutputStream()), Locale.US));
+    }
+}
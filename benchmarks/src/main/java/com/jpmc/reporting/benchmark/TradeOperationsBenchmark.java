@@ -0,0 +1,82 @@
+package com.jpmc.reporting.benchmark;
+
+import com.jpmc.reporting.calendar.SettlementDateTable;
+import com.jpmc.reporting.calendar.WeekendSettlementCalendar;
+import com.jpmc.reporting.engine.CachingTradeOperationsProvider;
+import com.jpmc.reporting.engine.FixedPointTradeOperationsProvider;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link TradeOperationsProvider} hot paths. Each benchmark processes the whole
+ * generated data set, so reported time is per data set rather than per instruction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class TradeOperationsBenchmark {
+
+    @Param({"simple", "fixedPoint", "settlementTable", "cached"})
+    public String provider;
+
+    private TradeOperationsProvider top;
+
+    @Setup
+    public void setup() {
+
+        if ("fixedPoint".equals(provider))
+            top = new FixedPointTradeOperationsProvider();
+        else if ("settlementTable".equals(provider))
+            top = new SimpleTradeOperationsProvider(
+                    new SettlementDateTable(new WeekendSettlementCalendar(), LocalDate.of(2016, Month.JANUARY, 1), 2 * 366));
+        else if ("cached".equals(provider))
+            top = new CachingTradeOperationsProvider(new SimpleTradeOperationsProvider());
+        else
+            top = new SimpleTradeOperationsProvider();
+    }
+
+    @Benchmark
+    public void calculateSettlementDate(InstructionData data, Blackhole bh) {
+        for (Instruction instruction : data.instructions)
+            bh.consume(top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency()));
+    }
+
+    @Benchmark
+    public void calculateInstructionTradeAmount(InstructionData data, Blackhole bh) {
+        for (Instruction instruction : data.instructions)
+            bh.consume(top.calculateInstructionTradeAmount(instruction));
+    }
+
+    @Benchmark
+    public Map<LocalDate, BigDecimal> calculateDailySettledAmount(InstructionData data) {
+        return top.calculateDailySettledAmount(data.instructions, Operation.BUY);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> rankEntitiesByInstructionAmount(InstructionData data) {
+        return top.rankEntitiesByInstructionAmount(data.instructions, Operation.BUY);
+    }
+}
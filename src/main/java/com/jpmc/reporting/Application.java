@@ -6,10 +6,10 @@ import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
 import com.jpmc.reporting.engine.TradeOperationsProvider;
 import com.jpmc.reporting.input.InputDataProvider;
 import com.jpmc.reporting.input.SimpleInputDataProvider;
-import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.output.ChannelReportWriter;
 import com.jpmc.reporting.output.ReportWriter;
 
-import java.io.PrintWriter;
+import java.nio.channels.Channels;
 import java.util.Locale;
 
 /**
@@ -25,7 +25,7 @@ public class Application {
 
             InputDataProvider dataIn = new SimpleInputDataProvider();
             TradeOperationsProvider top = new SimpleTradeOperationsProvider();
-            ReportWriter dataOut = new ConsoleReportWriter(new PrintWriter(System.out, true), Locale.US);
+            ReportWriter dataOut = new ChannelReportWriter(Channels.newChannel(System.out), Locale.US);
             ReportingEngine engine = new SimpleReportingEngine();
             engine.generateReport(dataIn, top, dataOut);
 
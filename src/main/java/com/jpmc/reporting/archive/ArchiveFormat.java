@@ -0,0 +1,59 @@
+package com.jpmc.reporting.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Layout of instruction archives written by {@link InstructionArchiveWriter}. An archive is a
+ * sequence of blocks followed by a footer:
+ * <pre>
+ * file:    int magic, short version, blocks, footer, long footer offset
+ * block:   deflated columns of up to block size instructions
+ * footer:  int block count, per block: long offset, int compressed length, int row count,
+ *          int min/max instruction epoch day, short min/max currency code, byte operation mask
+ * columns: int entity name count, entity names, int[] entity index, byte[] operation,
+ *          short[] currency code, int[] instruction day, int[] settlement day, int[] units,
+ *          decimal[] agreed fx, decimal[] unit price
+ * </pre>
+ * Currencies are encoded as the base 26 value of their three letter code, so archives do not
+ * depend on the currencies known to the JVM that wrote them.
+ */
+final class ArchiveFormat {
+
+    static final int MAGIC = 0x4A504D41;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 6;
+    static final int NO_SETTLEMENT_DAY = Integer.MIN_VALUE;
+
+    private ArchiveFormat() {
+    }
+
+    static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+
+        BigInteger unscaled = value.unscaledValue();
+        out.writeInt(value.scale());
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(0);
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static BigDecimal readDecimal(DataInput in) throws IOException {
+
+        int scale = in.readInt();
+        int length = in.readUnsignedByte();
+        if (length == 0)
+            return BigDecimal.valueOf(in.readLong(), scale);
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+}
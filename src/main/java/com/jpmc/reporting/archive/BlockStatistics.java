@@ -0,0 +1,70 @@
+package com.jpmc.reporting.archive;
+
+import com.jpmc.reporting.model.Operation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Location and min/max statistics of an archive block, used to skip blocks that can not hold
+ * instructions matching a query.
+ */
+final class BlockStatistics {
+
+    static final int ANY_CURRENCY = -1;
+
+    final long offset;
+    final int length;
+    final int rowCount;
+    final int minDay;
+    final int maxDay;
+    final short minCurrency;
+    final short maxCurrency;
+    final byte operations;
+
+    BlockStatistics(long offset, int length, int rowCount, int minDay, int maxDay,
+                    short minCurrency, short maxCurrency, byte operations) {
+
+        this.offset = offset;
+        this.length = length;
+        this.rowCount = rowCount;
+        this.minDay = minDay;
+        this.maxDay = maxDay;
+        this.minCurrency = minCurrency;
+        this.maxCurrency = maxCurrency;
+        this.operations = operations;
+    }
+
+    static byte maskOf(Operation op) {
+        return (byte) (1 << op.ordinal());
+    }
+
+    /**
+     * @param currencyCode - base 26 currency code, or {@link #ANY_CURRENCY}
+     * @return - false if no instruction of block can be dated between the given days, have one
+     * of the operations in mask and be in the given currency
+     */
+    boolean mayMatch(int fromDay, int toDay, byte operationMask, int currencyCode) {
+
+        return minDay <= toDay && maxDay >= fromDay && (operations & operationMask) != 0
+                && (currencyCode == ANY_CURRENCY || (minCurrency <= currencyCode && maxCurrency >= currencyCode));
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+
+        out.writeLong(offset);
+        out.writeInt(length);
+        out.writeInt(rowCount);
+        out.writeInt(minDay);
+        out.writeInt(maxDay);
+        out.writeShort(minCurrency);
+        out.writeShort(maxCurrency);
+        out.writeByte(operations);
+    }
+
+    static BlockStatistics readFrom(DataInput in) throws IOException {
+        return new BlockStatistics(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                in.readShort(), in.readShort(), in.readByte());
+    }
+}
@@ -0,0 +1,274 @@
+package com.jpmc.reporting.archive;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Implementation of {@link InputDataProvider} reading instructions back from an archive written
+ * by {@link InstructionArchiveWriter}. Only instructions dated within a range of instruction
+ * dates and, optionally, for a single operation and currency are provided. Block statistics in the archive
+ * footer are checked first, so blocks that can not hold any matching instruction are never read
+ * nor decompressed; instructions of the remaining blocks are filtered one by one.
+ */
+public class InstructionArchiveProvider implements InputDataProvider {
+
+    private final Path file;
+    private final int fromDay;
+    private final int toDay;
+    private final byte operationMask;
+    private final int currencyCode;
+
+    public InstructionArchiveProvider(Path file) {
+        this(file, LocalDate.MIN, LocalDate.MAX, null);
+    }
+
+    public InstructionArchiveProvider(Path file, LocalDate fromDate, LocalDate toDate) {
+        this(file, fromDate, toDate, null);
+    }
+
+    /**
+     * @param file - archive file
+     * @param fromDate - first instruction date provided
+     * @param toDate - last instruction date provided
+     * @param op - operation of instructions provided, or null for every operation
+     */
+    public InstructionArchiveProvider(Path file, LocalDate fromDate, LocalDate toDate, Operation op) {
+        this(file, fromDate, toDate, op, null);
+    }
+
+    /**
+     * @param file - archive file
+     * @param fromDate - first instruction date provided
+     * @param toDate - last instruction date provided
+     * @param op - operation of instructions provided, or null for every operation
+     * @param currency - currency of instructions provided, or null for every currency
+     */
+    public InstructionArchiveProvider(Path file, LocalDate fromDate, LocalDate toDate, Operation op, Currency currency) {
+
+        if (file == null || fromDate == null || toDate == null || fromDate.isAfter(toDate))
+            throw new IllegalArgumentException("A valid file and date range are required for instruction archive input");
+        if (currency != null && CurrencyDictionary.codeOf(currency) < 0)
+            throw new IllegalArgumentException("Currency " + currency + " can not be held by instruction archives");
+
+        this.file = file;
+        this.fromDay = (int) Math.max(fromDate.toEpochDay(), Integer.MIN_VALUE + 1L);
+        this.toDay = (int) Math.min(toDate.toEpochDay(), Integer.MAX_VALUE);
+        this.operationMask = op == null ? (byte) -1 : BlockStatistics.maskOf(op);
+        this.currencyCode = currency == null ? BlockStatistics.ANY_CURRENCY : CurrencyDictionary.codeOf(currency);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Instruction> retrieveInstructions() {
+
+        try (Stream<Instruction> instructions = streamInstructions()) {
+            return instructions.collect(toList());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Instruction> streamInstructions() {
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            ArchiveSpliterator spliterator = new ArchiveSpliterator(channel, matchingBlocks(channel));
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (IOException ex) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Unable to read instruction archive " + file, ex);
+        } catch (RuntimeException ex) {
+            closeQuietly(channel);
+            throw ex;
+        }
+    }
+
+    /**
+     * @return - number of blocks of the archive that need to be read for the requested instructions
+     */
+    public int countBlocksToRead() {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return matchingBlocks(channel).size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read instruction archive " + file, ex);
+        }
+    }
+
+    private List<BlockStatistics> matchingBlocks(FileChannel channel) throws IOException {
+
+        long size = channel.size();
+        ByteBuffer header = read(channel, 0, ArchiveFormat.HEADER_SIZE);
+        if (size < ArchiveFormat.HEADER_SIZE + 12 || header.getInt() != ArchiveFormat.MAGIC
+                || header.getShort() != ArchiveFormat.VERSION)
+            throw new IllegalArgumentException("File " + file + " is not an instruction archive of a supported version");
+
+        long footerOffset = read(channel, size - 8, 8).getLong();
+        if (footerOffset < ArchiveFormat.HEADER_SIZE || footerOffset > size - 12)
+            throw new IllegalArgumentException("Instruction archive " + file + " has a corrupted footer");
+
+        ByteBuffer footer = read(channel, footerOffset, (int) (size - 8 - footerOffset));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()));
+        int blockCount = in.readInt();
+        List<BlockStatistics> blocks = new ArrayList<>();
+        for (int i = 0; i < blockCount; i++) {
+            BlockStatistics block = BlockStatistics.readFrom(in);
+            if (block.mayMatch(fromDay, toDay, operationMask, currencyCode))
+                blocks.add(block);
+        }
+        return blocks;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of instruction archive");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+
+        try {
+            if (channel != null)
+                channel.close();
+        } catch (IOException ex) {
+            // already failing, original exception is more relevant
+        }
+    }
+
+    private final class ArchiveSpliterator extends Spliterators.AbstractSpliterator<Instruction> {
+
+        private final FileChannel channel;
+        private final List<BlockStatistics> blocks;
+        private final Inflater inflater = new Inflater();
+        private List<Instruction> instructions = Collections.emptyList();
+        private int nextBlock;
+        private int next;
+
+        ArchiveSpliterator(FileChannel channel, List<BlockStatistics> blocks) {
+
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.channel = channel;
+            this.blocks = blocks;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Instruction> action) {
+
+            while (next == instructions.size()) {
+                if (nextBlock == blocks.size())
+                    return false;
+                instructions = readBlock(blocks.get(nextBlock++));
+                next = 0;
+            }
+            action.accept(instructions.get(next++));
+            return true;
+        }
+
+        void close() {
+
+            inflater.end();
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to close instruction archive " + file, ex);
+            }
+        }
+
+        private List<Instruction> readBlock(BlockStatistics block) {
+
+            try {
+                inflater.reset();
+                DataInputStream columns = new DataInputStream(new InflaterInputStream(
+                        new ByteArrayInputStream(read(channel, block.offset, block.length).array()), inflater, 1 << 16));
+                int rows = block.rowCount;
+
+                String[] names = new String[columns.readInt()];
+                for (int i = 0; i < names.length; i++)
+                    names[i] = columns.readUTF();
+                int[] entities = new int[rows];
+                for (int row = 0; row < rows; row++)
+                    entities[row] = columns.readInt();
+                byte[] operations = new byte[rows];
+                columns.readFully(operations);
+                short[] currencies = new short[rows];
+                for (int row = 0; row < rows; row++)
+                    currencies[row] = columns.readShort();
+                int[] instructionDays = new int[rows];
+                for (int row = 0; row < rows; row++)
+                    instructionDays[row] = columns.readInt();
+                int[] settlementDays = new int[rows];
+                for (int row = 0; row < rows; row++)
+                    settlementDays[row] = columns.readInt();
+                int[] units = new int[rows];
+                for (int row = 0; row < rows; row++)
+                    units[row] = columns.readInt();
+
+                BigDecimal[] agreedFx = new BigDecimal[rows];
+                for (int row = 0; row < rows; row++)
+                    agreedFx[row] = ArchiveFormat.readDecimal(columns);
+
+                List<Instruction> matching = new ArrayList<>();
+                Operation[] ops = Operation.values();
+                LocalDate lastDate = null;
+                for (int row = 0; row < rows; row++) {
+                    BigDecimal unitPrice = ArchiveFormat.readDecimal(columns);
+                    int day = instructionDays[row];
+                    if (day < fromDay || day > toDay || (BlockStatistics.maskOf(ops[operations[row]]) & operationMask) == 0
+                            || (currencyCode != BlockStatistics.ANY_CURRENCY && currencies[row] != currencyCode))
+                        continue;
+                    if (lastDate == null || lastDate.toEpochDay() != day)
+                        lastDate = LocalDate.ofEpochDay(day);
+                    matching.add(new Instruction.Builder()
+                            .entity(names[entities[row]])
+                            .tradeOperation(ops[operations[row]])
+                            .agreedFx(agreedFx[row])
+                            .currency(CurrencyDictionary.currencyOfCode(currencies[row]))
+                            .instructionDate(lastDate)
+                            .settlementDate(settlementDays[row] == ArchiveFormat.NO_SETTLEMENT_DAY ? null : LocalDate.ofEpochDay(settlementDays[row]))
+                            .units(units[row])
+                            .unitPrice(unitPrice)
+                            .build());
+                }
+                return matching;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to read block of instruction archive " + file, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.jpmc.reporting.archive;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes instructions to a columnar, deflate compressed archive laid out as described in
+ * {@link ArchiveFormat}. Instructions are buffered until a block is full, then every field is
+ * written as a column of the block together with min/max statistics of instruction date,
+ * currency and operation. Instructions appended in date order, as daily flows are, give blocks
+ * covering a few days each, so {@link InstructionArchiveProvider} can skip most of them when
+ * reading a date range. Footer is written when the writer is closed.
+ * Not thread safe.
+ */
+public class InstructionArchiveWriter implements Closeable {
+
+    private static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final int blockSize;
+    private final CountingOutputStream out;
+    private final List<Instruction> block;
+    private final List<BlockStatistics> blocks = new ArrayList<>();
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private boolean closed;
+
+    public InstructionArchiveWriter(Path file) {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param file - archive file, replaced if it exists
+     * @param blockSize - number of instructions per block
+     */
+    public InstructionArchiveWriter(Path file, int blockSize) {
+
+        if (file == null || blockSize <= 0)
+            throw new IllegalArgumentException("A valid file and block size are required for instruction archive");
+
+        this.file = file;
+        this.blockSize = blockSize;
+        this.block = new ArrayList<>(Math.min(blockSize, DEFAULT_BLOCK_SIZE));
+        try {
+            this.out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(ArchiveFormat.MAGIC);
+            header.writeShort(ArchiveFormat.VERSION);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to create instruction archive " + file, ex);
+        }
+    }
+
+    /**
+     * Appends an instruction to the archive
+     * @param instruction - instruction to be archived
+     */
+    public void write(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for instruction archive");
+        if (closed)
+            throw new IllegalStateException("Instruction archive " + file + " is closed");
+
+        block.add(instruction);
+        if (block.size() == blockSize)
+            writeBlock();
+    }
+
+    /**
+     * Writes pending instructions and the footer, then closes the file
+     */
+    @Override
+    public void close() {
+
+        if (closed)
+            return;
+        closed = true;
+
+        try {
+            writeBlock();
+            long footerOffset = out.count;
+            DataOutputStream footer = new DataOutputStream(out);
+            footer.writeInt(blocks.size());
+            for (BlockStatistics statistics : blocks)
+                statistics.writeTo(footer);
+            footer.writeLong(footerOffset);
+            footer.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write instruction archive " + file, ex);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeBlock() {
+
+        if (block.isEmpty())
+            return;
+
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        short minCurrency = Short.MAX_VALUE;
+        short maxCurrency = Short.MIN_VALUE;
+        byte operations = 0;
+        Map<String, Integer> entities = new LinkedHashMap<>();
+
+        try {
+            blockBytes.reset();
+            deflater.reset();
+            DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(blockBytes, deflater, 1 << 16));
+
+            for (Instruction instruction : block)
+                entities.putIfAbsent(instruction.getEntity(), entities.size());
+            columns.writeInt(entities.size());
+            for (String entity : entities.keySet())
+                columns.writeUTF(entity);
+            for (Instruction instruction : block)
+                columns.writeInt(entities.get(instruction.getEntity()));
+
+            for (Instruction instruction : block) {
+                columns.writeByte(instruction.getTradeOperation().ordinal());
+                operations |= BlockStatistics.maskOf(instruction.getTradeOperation());
+            }
+            for (Instruction instruction : block) {
+                short currency = (short) CurrencyDictionary.codeOf(instruction.getCurrency());
+                columns.writeShort(currency);
+                minCurrency = (short) Math.min(minCurrency, currency);
+                maxCurrency = (short) Math.max(maxCurrency, currency);
+            }
+            for (Instruction instruction : block) {
+                int day = Math.toIntExact(instruction.getInstructionDate().toEpochDay());
+                columns.writeInt(day);
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+            for (Instruction instruction : block)
+                columns.writeInt(instruction.getSettlementDate() == null ? ArchiveFormat.NO_SETTLEMENT_DAY
+                        : Math.toIntExact(instruction.getSettlementDate().toEpochDay()));
+            for (Instruction instruction : block)
+                columns.writeInt(instruction.getUnits());
+            for (Instruction instruction : block)
+                ArchiveFormat.writeDecimal(columns, instruction.getAgreedFx());
+            for (Instruction instruction : block)
+                ArchiveFormat.writeDecimal(columns, instruction.getUnitPrice());
+            columns.close();
+
+            blocks.add(new BlockStatistics(out.count, blockBytes.size(), block.size(), minDay, maxDay,
+                    minCurrency, maxCurrency, operations));
+            blockBytes.writeTo(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write instruction archive " + file, ex);
+        }
+        block.clear();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.jpmc.reporting.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Settlement calendar that takes into account both the {@link WorkingWeek} and the public
+ * holidays of each currency market. Within the configured date range working days of a currency
+ * are indexed by a {@link BitSet} over epoch days, so the next working day is found by scanning
+ * whole words with {@link BitSet#nextSetBit(int)} rather than checking one day at a time.
+ * Indexes are built the first time a currency is seen and are safe to share between threads.
+ * Dates outside the range fall back to checking one day at a time.
+ */
+public class HolidaySettlementCalendar implements SettlementCalendar {
+
+    private final Map<Currency, Set<LocalDate>> holidays;
+    private final long firstEpochDay;
+    private final int days;
+    private final Map<Currency, BitSet> workingDays;
+
+    public HolidaySettlementCalendar(Map<Currency, Set<LocalDate>> holidays, LocalDate firstDate, LocalDate lastDate) {
+
+        if (holidays == null || firstDate == null || lastDate == null || lastDate.isBefore(firstDate))
+            throw new IllegalArgumentException("Holidays and a valid date range are required for holiday calendar");
+
+        Map<Currency, Set<LocalDate>> copy = new HashMap<>();
+        holidays.forEach((currency, dates) -> copy.put(currency, Collections.unmodifiableSet(new HashSet<>(dates))));
+
+        this.holidays = Collections.unmodifiableMap(copy);
+        this.firstEpochDay = firstDate.toEpochDay();
+        this.days = Math.toIntExact(lastDate.toEpochDay() - firstEpochDay + 1);
+        this.workingDays = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads per currency holidays from a local file where each line holds an ISO 4217 currency
+     * code and an ISO yyyy-MM-dd date separated by a comma. Blank lines and lines starting
+     * with # are ignored.
+     * @param file - holiday file
+     * @param firstDate - first date indexed by the calendar
+     * @param lastDate - last date indexed by the calendar
+     * @return - calendar with holidays read from file
+     */
+    public static HolidaySettlementCalendar load(Path file, LocalDate firstDate, LocalDate lastDate) {
+
+        Map<Currency, Set<LocalDate>> holidays = new HashMap<>();
+        int lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] fields = line.split(",");
+                if (fields.length != 2)
+                    throw new IllegalArgumentException("Malformed holiday at line " + lineNumber + " of " + file);
+
+                holidays.computeIfAbsent(Currency.getInstance(fields[0].trim()), k -> new HashSet<>())
+                        .add(LocalDate.parse(fields[1].trim()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read holiday file " + file, ex);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Malformed holiday at line " + lineNumber + " of " + file, ex);
+        }
+
+        return new HolidaySettlementCalendar(holidays, firstDate, lastDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate settlementDate(LocalDate instructionDate, Currency currency) {
+
+        long index = instructionDate.toEpochDay() + 1 - firstEpochDay;
+        if (index >= 0 && index < days) {
+            int next = workingDaysOf(currency).nextSetBit((int) index);
+            if (next >= 0 && next < days)
+                return LocalDate.ofEpochDay(firstEpochDay + next);
+        }
+
+        LocalDate settlementDate = instructionDate.plusDays(1);
+        while (!isWorkingDay(settlementDate, currency))
+            settlementDate = settlementDate.plusDays(1);
+
+        return settlementDate;
+    }
+
+    /**
+     * Checks whether the currency market is open on the given date
+     * @param date - date to check
+     * @param currency - currency type of market
+     * @return - true if date is neither a weekend day nor a holiday for the currency market
+     */
+    public boolean isWorkingDay(LocalDate date, Currency currency) {
+
+        return WorkingWeek.forCurrency(currency).isWorkingDay(date.getDayOfWeek())
+                && !holidays.getOrDefault(currency, Collections.emptySet()).contains(date);
+    }
+
+    private BitSet workingDaysOf(Currency currency) {
+
+        BitSet bits = workingDays.get(currency);
+        if (bits == null)
+            bits = workingDays.computeIfAbsent(currency, this::buildIndex);
+        return bits;
+    }
+
+    private BitSet buildIndex(Currency currency) {
+
+        WorkingWeek workingWeek = WorkingWeek.forCurrency(currency);
+        BitSet bits = new BitSet(days);
+
+        for (int i = 0; i < days; i++) {
+            if (workingWeek.isWorkingDay(firstEpochDay + i))
+                bits.set(i);
+        }
+        for (LocalDate holiday : holidays.getOrDefault(currency, Collections.emptySet())) {
+            long index = holiday.toEpochDay() - firstEpochDay;
+            if (index >= 0 && index < days)
+                bits.clear((int) index);
+        }
+        return bits;
+    }
+}
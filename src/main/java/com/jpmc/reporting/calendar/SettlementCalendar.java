@@ -0,0 +1,15 @@
+package com.jpmc.reporting.calendar;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+public interface SettlementCalendar {
+    /**
+     * Returns the day an instruction created on the given date settles on, that is the first
+     * working day of the currency market after instruction date
+     * @param instructionDate - date of creation of instruction
+     * @param currency - currency type for instruction
+     * @return - Effective settlement date
+     */
+    LocalDate settlementDate(LocalDate instructionDate, Currency currency);
+}
@@ -0,0 +1,65 @@
+package com.jpmc.reporting.calendar;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Settlement calendar backed by lookup tables precomputed from another calendar. For each
+ * currency a table indexed by instruction epoch day holds the settlement date of every
+ * instruction date within the configured horizon. Consecutive instruction dates settling on the
+ * same day share one {@link LocalDate} instance, so a lookup is a single array access and never
+ * allocates. Tables are built the first time a currency is seen and are safe to share between
+ * threads. Dates outside the horizon are delegated to the source calendar.
+ */
+public class SettlementDateTable implements SettlementCalendar {
+
+    private final SettlementCalendar source;
+    private final long firstEpochDay;
+    private final int horizonDays;
+    private final Map<Currency, LocalDate[]> tables;
+
+    public SettlementDateTable(SettlementCalendar source, LocalDate firstDate, int horizonDays) {
+
+        if (source == null || firstDate == null || horizonDays <= 0)
+            throw new IllegalArgumentException("A source calendar, first date and positive horizon are required for settlement table");
+
+        this.source = source;
+        this.firstEpochDay = firstDate.toEpochDay();
+        this.horizonDays = horizonDays;
+        this.tables = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate settlementDate(LocalDate instructionDate, Currency currency) {
+
+        long index = instructionDate.toEpochDay() - firstEpochDay;
+        if (index < 0 || index >= horizonDays)
+            return source.settlementDate(instructionDate, currency);
+
+        LocalDate[] table = tables.get(currency);
+        if (table == null)
+            table = tables.computeIfAbsent(currency, this::buildTable);
+
+        return table[(int) index];
+    }
+
+    private LocalDate[] buildTable(Currency currency) {
+
+        LocalDate[] table = new LocalDate[horizonDays];
+        LocalDate previous = null;
+
+        for (int i = 0; i < horizonDays; i++) {
+            LocalDate settlementDate = source.settlementDate(LocalDate.ofEpochDay(firstEpochDay + i), currency);
+            if (settlementDate.equals(previous))
+                settlementDate = previous;
+            table[i] = settlementDate;
+            previous = settlementDate;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,26 @@
+package com.jpmc.reporting.calendar;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+/**
+ * Settlement calendar that only takes into account the {@link WorkingWeek} of each currency
+ * market. Settlement date is found by checking one day at a time after instruction date.
+ */
+public class WeekendSettlementCalendar implements SettlementCalendar {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate settlementDate(LocalDate instructionDate, Currency currency) {
+
+        WorkingWeek workingWeek = WorkingWeek.forCurrency(currency);
+        LocalDate settlementDate = instructionDate.plusDays(1);
+
+        while (!workingWeek.isWorkingDay(settlementDate.getDayOfWeek()))
+            settlementDate = settlementDate.plusDays(1);
+
+        return settlementDate;
+    }
+}
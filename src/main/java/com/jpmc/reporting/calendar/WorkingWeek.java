@@ -0,0 +1,54 @@
+package com.jpmc.reporting.calendar;
+
+import java.time.DayOfWeek;
+import java.util.Currency;
+
+/**
+ * Standard working weeks of currency markets. Working days are kept as a bit mask indexed by
+ * {@link DayOfWeek} ordinal, so checking a day neither allocates nor compares currency codes
+ * once the working week of a currency is known.
+ */
+public enum WorkingWeek {
+
+    MONDAY_TO_FRIDAY(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+    THURSDAY_TO_SUNDAY(DayOfWeek.THURSDAY, DayOfWeek.SUNDAY);
+
+    private final int workingDays;
+
+    WorkingWeek(DayOfWeek first, DayOfWeek last) {
+
+        int mask = 0;
+        for (int day = first.ordinal(); day <= last.ordinal(); day++)
+            mask |= 1 << day;
+        this.workingDays = mask;
+    }
+
+    public boolean isWorkingDay(DayOfWeek day) {
+        return (workingDays & (1 << day.ordinal())) != 0;
+    }
+
+    /**
+     * Same as {@link #isWorkingDay(DayOfWeek)} for a day given as count of days from 1970-01-01,
+     * which was a Thursday
+     * @param epochDay - day to check
+     * @return - true if day is part of this working week
+     */
+    public boolean isWorkingDay(long epochDay) {
+        return (workingDays & (1 << (int) Math.floorMod(epochDay + 3, 7L))) != 0;
+    }
+
+    /**
+     * Returns working week of the market trading the given currency. AED and SAR markets work
+     * from Thursday to Sunday, every other market works from Monday to Friday
+     * @param currency - currency type for instruction
+     * @return - working week of currency market
+     */
+    public static WorkingWeek forCurrency(Currency currency) {
+
+        String code = currency.getCurrencyCode();
+        if ("AED".equals(code) || "SAR".equals(code))
+            return THURSDAY_TO_SUNDAY;
+        else
+            return MONDAY_TO_FRIDAY;
+    }
+}
@@ -0,0 +1,228 @@
+package com.jpmc.reporting.codec;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Currency;
+
+import static com.jpmc.reporting.codec.InstructionLayout.*;
+
+/**
+ * Flyweight reading instructions encoded by {@link InstructionEncoder} in place. A decoder is
+ * wrapped around a buffer and the offset of an encoded instruction, and every accessor reads its
+ * field straight from the buffer, so walking a buffer of instructions creates no object per
+ * instruction: entities are resolved to dictionary ids from their bytes, currencies to
+ * {@link CurrencyDictionary} ids and dates are given as epoch days. Decimals are given as
+ * unscaled long and scale unless they were too long for it, see {@link #hasCompactDecimals()}.
+ * {@link #toInstruction()} is available where an {@link Instruction} object is really needed.
+ * Not thread safe.
+ */
+public final class InstructionDecoder {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private ByteBuffer source;
+    private ByteBuffer buffer;
+    private int offset;
+    private int block;
+    private int var;
+
+    /**
+     * @param encoded - buffer holding encoded instructions
+     * @param offset - index of the first byte of an encoded instruction
+     * @return - this decoder
+     */
+    public InstructionDecoder wrap(ByteBuffer encoded, int offset) {
+
+        if (encoded == null || offset < 0 || offset > encoded.capacity() - HEADER_LENGTH)
+            throw new IllegalArgumentException("A buffer and a valid offset are required for instruction decoding");
+
+        if (encoded != source) {
+            source = encoded;
+            buffer = encoded.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int blockLength = buffer.getShort(offset + BLOCK_LENGTH_OFFSET) & 0xFFFF;
+        if (buffer.getShort(offset + TEMPLATE_ID_OFFSET) != TEMPLATE_ID || buffer.getShort(offset + SCHEMA_ID_OFFSET) != SCHEMA_ID
+                || blockLength < BLOCK_LENGTH || offset + HEADER_LENGTH + blockLength + VAR_LENGTH_HEADER > buffer.capacity())
+            throw new IllegalArgumentException("Buffer does not hold an encoded instruction at offset " + offset);
+
+        this.offset = offset;
+        this.block = offset + HEADER_LENGTH;
+        this.var = block + blockLength;
+        if (varLimit() > buffer.capacity())
+            throw new IllegalArgumentException("Buffer does not hold an encoded instruction at offset " + offset);
+        return this;
+    }
+
+    /**
+     * @return - number of bytes taken by the encoded instruction
+     */
+    public int encodedLength() {
+        return varLimit() - offset;
+    }
+
+    /**
+     * @return - index of the byte following the encoded instruction, where the next one would start
+     */
+    public int limit() {
+        return offset + encodedLength();
+    }
+
+    public Operation operation() {
+        return OPERATIONS[buffer.get(block + OPERATION_OFFSET)];
+    }
+
+    /**
+     * @return - id of currency in {@link CurrencyDictionary}
+     */
+    public short currencyId() {
+
+        short id = CurrencyDictionary.idOfCode(buffer.getShort(block + CURRENCY_OFFSET));
+        if (id < 0)
+            throw new IllegalArgumentException("Unknown currency code " + buffer.getShort(block + CURRENCY_OFFSET) + " at offset " + offset);
+        return id;
+    }
+
+    public Currency currency() {
+        return CurrencyDictionary.currencyOf(currencyId());
+    }
+
+    /**
+     * @return - instruction date as epoch day
+     */
+    public int instructionDay() {
+        return buffer.getInt(block + INSTRUCTION_DAY_OFFSET);
+    }
+
+    public boolean hasSettlementDay() {
+        return settlementDay() != NO_SETTLEMENT_DAY;
+    }
+
+    /**
+     * @return - settlement date given with the instruction as epoch day, meaningful only if {@link #hasSettlementDay()}
+     */
+    public int settlementDay() {
+        return buffer.getInt(block + SETTLEMENT_DAY_OFFSET);
+    }
+
+    public int units() {
+        return buffer.getInt(block + UNITS_OFFSET);
+    }
+
+    /**
+     * @return - whether agreed fx and unit price are both given by their unscaled long and scale
+     */
+    public boolean hasCompactDecimals() {
+        return decimalFlags() == 0;
+    }
+
+    /**
+     * @return - unscaled agreed fx, meaningful only if {@link #hasCompactDecimals()}
+     */
+    public long agreedFxUnscaled() {
+        return buffer.getLong(block + AGREED_FX_OFFSET);
+    }
+
+    public int agreedFxScale() {
+        return buffer.get(block + AGREED_FX_SCALE_OFFSET) & 0xFF;
+    }
+
+    /**
+     * @return - unscaled unit price, meaningful only if {@link #hasCompactDecimals()}
+     */
+    public long unitPriceUnscaled() {
+        return buffer.getLong(block + UNIT_PRICE_OFFSET);
+    }
+
+    public int unitPriceScale() {
+        return buffer.get(block + UNIT_PRICE_SCALE_OFFSET) & 0xFF;
+    }
+
+    public BigDecimal agreedFx() {
+        return decimal(AGREED_FX_EXTENDED, agreedFxUnscaled(), agreedFxScale());
+    }
+
+    public BigDecimal unitPrice() {
+        return decimal(UNIT_PRICE_EXTENDED, unitPriceUnscaled(), unitPriceScale());
+    }
+
+    /**
+     * @param entities - dictionary entity names are encoded with
+     * @return - id of entity in the given dictionary, resolved from the encoded bytes
+     */
+    public int entityId(EntityDictionary entities) {
+
+        int start = var + VAR_LENGTH_HEADER;
+        return entities.idOf(buffer, start, start + entityLength());
+    }
+
+    /**
+     * @return - a new instruction holding the decoded fields
+     */
+    public Instruction toInstruction() {
+
+        byte[] entity = new byte[entityLength()];
+        for (int i = 0; i < entity.length; i++)
+            entity[i] = buffer.get(var + VAR_LENGTH_HEADER + i);
+
+        return new Instruction.Builder()
+                .entity(new String(entity, StandardCharsets.UTF_8))
+                .tradeOperation(operation())
+                .agreedFx(agreedFx())
+                .currency(currency())
+                .instructionDate(LocalDate.ofEpochDay(instructionDay()))
+                .settlementDate(hasSettlementDay() ? LocalDate.ofEpochDay(settlementDay()) : null)
+                .units(units())
+                .unitPrice(unitPrice())
+                .build();
+    }
+
+    private int entityLength() {
+        return buffer.getShort(var) & 0xFFFF;
+    }
+
+    private int decimalFlags() {
+        return buffer.get(block + DECIMAL_FLAGS_OFFSET) & (AGREED_FX_EXTENDED | UNIT_PRICE_EXTENDED);
+    }
+
+    private BigDecimal decimal(int flag, long unscaled, int scale) {
+
+        int flags = decimalFlags();
+        if ((flags & flag) == 0)
+            return BigDecimal.valueOf(unscaled, scale);
+
+        int start = varFieldStart(flag == UNIT_PRICE_EXTENDED && (flags & AGREED_FX_EXTENDED) != 0 ? 2 : 1);
+        byte[] bytes = new byte[buffer.getShort(start) & 0xFFFF];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buffer.get(start + VAR_LENGTH_HEADER + i);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    /**
+     * @param field - position of the field in variable length data, the entity being 0
+     * @return - index of the field, or {@link Integer#MAX_VALUE} if it lies beyond the buffer
+     */
+    private int varFieldStart(int field) {
+
+        int index = var;
+        for (int i = 0; i < field; i++) {
+            if (index > buffer.capacity() - VAR_LENGTH_HEADER)
+                return Integer.MAX_VALUE;
+            index += VAR_LENGTH_HEADER + (buffer.getShort(index) & 0xFFFF);
+        }
+        return index;
+    }
+
+    private int varLimit() {
+        return varFieldStart(1 + Integer.bitCount(decimalFlags()));
+    }
+}
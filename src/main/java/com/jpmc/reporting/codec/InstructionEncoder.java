@@ -0,0 +1,156 @@
+package com.jpmc.reporting.codec;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.jpmc.reporting.codec.InstructionLayout.*;
+
+/**
+ * Flyweight writing instructions in the fixed binary layout described in
+ * {@link InstructionLayout}. An encoder is wrapped around a buffer and an offset, and writes
+ * fields in place without copying them through intermediate objects; the same encoder is meant
+ * to be reused for every instruction. Decimals must have a scale below 256.
+ * Not thread safe.
+ */
+public final class InstructionEncoder {
+
+    private static final int MAX_CACHED_ENTITIES = 1 << 16;
+
+    private final Map<String, byte[]> entityBytes = new HashMap<>();
+    private ByteBuffer source;
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * @param target - buffer instructions are written to
+     * @param offset - index of the first byte of the next instruction
+     * @return - this encoder
+     */
+    public InstructionEncoder wrap(ByteBuffer target, int offset) {
+
+        if (target == null || offset < 0 || offset > target.capacity())
+            throw new IllegalArgumentException("A buffer and a valid offset are required for instruction encoding");
+
+        if (target != source) {
+            source = target;
+            buffer = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * @param instruction - instruction to be encoded
+     * @return - number of bytes taken by the encoded instruction
+     */
+    public int encodedLength(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for instruction encoding");
+
+        return HEADER_LENGTH + BLOCK_LENGTH + VAR_LENGTH_HEADER + entityBytesOf(instruction.getEntity()).length
+                + extendedLength(fixedScale(instruction.getAgreedFx(), "agreed fx"))
+                + extendedLength(fixedScale(instruction.getUnitPrice(), "unit price"));
+    }
+
+    /**
+     * Writes an instruction at the offset of the encoder and moves the offset past it
+     * @param instruction - instruction to be encoded
+     * @return - number of bytes written
+     */
+    public int encode(Instruction instruction) {
+
+        if (buffer == null)
+            throw new IllegalStateException("Encoder must be wrapped around a buffer before encoding");
+
+        int length = encodedLength(instruction);
+        if (length > buffer.capacity() - offset)
+            throw new IllegalArgumentException("Buffer has no room for instruction at offset " + offset);
+
+        BigDecimal agreedFx = fixedScale(instruction.getAgreedFx(), "agreed fx");
+        BigDecimal unitPrice = fixedScale(instruction.getUnitPrice(), "unit price");
+        int currency = CurrencyDictionary.codeOf(instruction.getCurrency());
+        if (currency < 0)
+            throw new IllegalArgumentException("Currency " + instruction.getCurrency() + " does not fit in binary instruction layout");
+
+        buffer.putShort(offset + BLOCK_LENGTH_OFFSET, (short) BLOCK_LENGTH);
+        buffer.putShort(offset + TEMPLATE_ID_OFFSET, (short) TEMPLATE_ID);
+        buffer.putShort(offset + SCHEMA_ID_OFFSET, (short) SCHEMA_ID);
+        buffer.putShort(offset + VERSION_OFFSET, (short) SCHEMA_VERSION);
+
+        int block = offset + HEADER_LENGTH;
+        buffer.put(block + OPERATION_OFFSET, (byte) instruction.getTradeOperation().ordinal());
+        buffer.put(block + AGREED_FX_SCALE_OFFSET, (byte) agreedFx.scale());
+        buffer.put(block + UNIT_PRICE_SCALE_OFFSET, (byte) unitPrice.scale());
+        buffer.put(block + DECIMAL_FLAGS_OFFSET, (byte) ((isCompact(agreedFx) ? 0 : AGREED_FX_EXTENDED)
+                | (isCompact(unitPrice) ? 0 : UNIT_PRICE_EXTENDED)));
+        buffer.putShort(block + CURRENCY_OFFSET, (short) currency);
+        buffer.putInt(block + INSTRUCTION_DAY_OFFSET, Math.toIntExact(instruction.getInstructionDate().toEpochDay()));
+        buffer.putInt(block + SETTLEMENT_DAY_OFFSET, instruction.getSettlementDate() == null
+                ? NO_SETTLEMENT_DAY : Math.toIntExact(instruction.getSettlementDate().toEpochDay()));
+        buffer.putInt(block + UNITS_OFFSET, instruction.getUnits());
+        buffer.putLong(block + AGREED_FX_OFFSET, isCompact(agreedFx) ? agreedFx.unscaledValue().longValue() : 0);
+        buffer.putLong(block + UNIT_PRICE_OFFSET, isCompact(unitPrice) ? unitPrice.unscaledValue().longValue() : 0);
+
+        int var = putBytes(block + BLOCK_LENGTH, entityBytesOf(instruction.getEntity()));
+        if (!isCompact(agreedFx))
+            var = putBytes(var, agreedFx.unscaledValue().toByteArray());
+        if (!isCompact(unitPrice))
+            putBytes(var, unitPrice.unscaledValue().toByteArray());
+
+        offset += length;
+        return length;
+    }
+
+    /**
+     * @return - index of the byte following the last encoded instruction
+     */
+    public int offset() {
+        return offset;
+    }
+
+    private int putBytes(int index, byte[] bytes) {
+
+        buffer.putShort(index, (short) bytes.length);
+        for (int i = 0; i < bytes.length; i++)
+            buffer.put(index + VAR_LENGTH_HEADER + i, bytes[i]);
+        return index + VAR_LENGTH_HEADER + bytes.length;
+    }
+
+    private static BigDecimal fixedScale(BigDecimal value, String field) {
+
+        BigDecimal scaled = value.scale() < 0 ? value.setScale(0) : value;
+        if (scaled.scale() > MAX_SCALE || scaled.unscaledValue().bitLength() / 8 + 1 > 0xFFFF)
+            throw new IllegalArgumentException("Value of " + field + " does not fit in binary instruction layout: " + value);
+        return scaled;
+    }
+
+    private static boolean isCompact(BigDecimal value) {
+        return value.precision() <= MAX_COMPACT_DIGITS;
+    }
+
+    private static int extendedLength(BigDecimal value) {
+        return isCompact(value) ? 0 : VAR_LENGTH_HEADER + value.unscaledValue().bitLength() / 8 + 1;
+    }
+
+    private byte[] entityBytesOf(String entity) {
+
+        byte[] bytes = entityBytes.get(entity);
+        if (bytes == null) {
+            bytes = entity.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF)
+                throw new IllegalArgumentException("Entity name does not fit in binary instruction layout");
+            if (entityBytes.size() == MAX_CACHED_ENTITIES)
+                entityBytes.clear();
+            entityBytes.put(entity, bytes);
+        }
+        return bytes;
+    }
+}
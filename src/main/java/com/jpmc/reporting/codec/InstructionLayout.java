@@ -0,0 +1,57 @@
+package com.jpmc.reporting.codec;
+
+/**
+ * Fixed binary layout of an encoded {@link com.jpmc.reporting.model.Instruction}, in the style of
+ * Simple Binary Encoding. Every field is little endian and sits at a fixed offset, so it can be
+ * read in place:
+ * <pre>
+ * header:  u16 block length, u16 template id, u16 schema id, u16 schema version
+ * block:   0 u8 operation, 1 u8 agreed fx scale, 2 u8 unit price scale, 3 u8 decimal flags,
+ *          4 u16 currency code, 6 padding, 8 i32 instruction epoch day,
+ *          12 i32 settlement epoch day or {@link #NO_SETTLEMENT_DAY}, 16 i32 units, 20 padding,
+ *          24 i64 agreed fx unscaled, 32 i64 unit price unscaled
+ * var:     u16 entity length, entity UTF-8 bytes,
+ *          then for each extended decimal: u16 length, unscaled big endian two's complement bytes
+ * </pre>
+ * Decimals are held as unscaled long and scale. Decimals with more than 18 digits are flagged as
+ * extended: their unscaled value is left zero in the block and written exactly in the variable
+ * length data instead, agreed fx first.
+ * Variable length data starts right after the block length given in the header, so decoders
+ * skip fields appended to the block by later schema versions. Currencies are encoded as the base
+ * 26 value of their three letter code, see {@link com.jpmc.reporting.model.CurrencyDictionary#codeOf},
+ * so encoded instructions do not depend on the currency ids of the JVM that wrote them.
+ */
+final class InstructionLayout {
+
+    static final int TEMPLATE_ID = 1;
+    static final int SCHEMA_ID = 0x4A50;
+    static final int SCHEMA_VERSION = 1;
+
+    static final int HEADER_LENGTH = 8;
+    static final int BLOCK_LENGTH = 40;
+    static final int VAR_LENGTH_HEADER = 2;
+    static final int NO_SETTLEMENT_DAY = Integer.MIN_VALUE;
+    static final int MAX_SCALE = 0xFF;
+    static final int MAX_COMPACT_DIGITS = 18;
+    static final int AGREED_FX_EXTENDED = 1;
+    static final int UNIT_PRICE_EXTENDED = 2;
+
+    static final int BLOCK_LENGTH_OFFSET = 0;
+    static final int TEMPLATE_ID_OFFSET = 2;
+    static final int SCHEMA_ID_OFFSET = 4;
+    static final int VERSION_OFFSET = 6;
+
+    static final int OPERATION_OFFSET = 0;
+    static final int AGREED_FX_SCALE_OFFSET = 1;
+    static final int UNIT_PRICE_SCALE_OFFSET = 2;
+    static final int DECIMAL_FLAGS_OFFSET = 3;
+    static final int CURRENCY_OFFSET = 4;
+    static final int INSTRUCTION_DAY_OFFSET = 8;
+    static final int SETTLEMENT_DAY_OFFSET = 12;
+    static final int UNITS_OFFSET = 16;
+    static final int AGREED_FX_OFFSET = 24;
+    static final int UNIT_PRICE_OFFSET = 32;
+
+    private InstructionLayout() {
+    }
+}
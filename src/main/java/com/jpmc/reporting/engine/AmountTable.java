@@ -0,0 +1,41 @@
+package com.jpmc.reporting.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of {@link FixedPoint} amounts keyed by int, such as an entity id or an epoch
+ * day. Keys are remembered in the order they were first seen.
+ */
+interface AmountTable {
+
+    /**
+     * Adds an amount to the total of a key
+     */
+    void add(int key, long amount);
+
+    /**
+     * Adds an amount that does not fit in a {@link FixedPoint} long to the total of a key
+     */
+    void add(int key, BigDecimal amount);
+
+    /**
+     * @return - total of a key that has been added before
+     */
+    BigDecimal get(int key);
+
+    /**
+     * Compares totals of two keys that have been added before
+     */
+    int compare(int key1, int key2);
+
+    /**
+     * @return - number of distinct keys
+     */
+    int size();
+
+    /**
+     * @param position - position in first seen order
+     * @return - key first seen at the given position
+     */
+    int keyAt(int position);
+}
@@ -0,0 +1,210 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator of {@link TradeOperationsProvider} memoizing settlement dates. Instructions of a day
+ * only have a few hundred distinct instruction date and currency pairs, so most settlement dates
+ * are found in a cache rather than calculated again by the underlying provider.
+ * The cache is a fixed size, two way set associative table of immutable entries keyed by
+ * <code>epochDay &lt;&lt; 16 | currencyId</code>: a key may be held in either slot of its pair and,
+ * once both are taken, a new entry simply replaces the one in its first slot. Lookups and updates
+ * take no lock, so the provider can be shared by threads aggregating in parallel, and memory use is
+ * bounded whatever the number of distinct keys.
+ * Daily settled amounts are summed by the delegate, looking settlement dates up through the cache
+ * when the delegate is a {@link SimpleTradeOperationsProvider}; trade amounts and rankings are
+ * delegated as they are. Cache hits and misses are counted and can be read through JMX once the
+ * provider is registered as a {@link SettlementDateCacheMXBean}.
+ */
+public class CachingTradeOperationsProvider implements TradeOperationsProvider, SettlementDateCacheMXBean {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final String DOMAIN = "com.jpmc.reporting";
+
+    private final TradeOperationsProvider delegate;
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingTradeOperationsProvider(TradeOperationsProvider delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param delegate - provider calculating settlement dates missing from the cache
+     * @param capacity - number of slots of the cache, a power of two of at least 2
+     */
+    public CachingTradeOperationsProvider(TradeOperationsProvider delegate, int capacity) {
+
+        if (delegate == null || capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("A delegate and a power of two capacity of at least 2 are required for settlement date cache");
+
+        this.delegate = delegate;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate calculateSettlementDate(LocalDate instructionDate, Currency currency) {
+
+        if (instructionDate == null || currency == null)
+            throw new IllegalArgumentException("A valid date and currency symbol are required for settlement date calculation");
+
+        long key = instructionDate.toEpochDay() << 16 | CurrencyDictionary.idOf(currency);
+        int slot = slotOf(key);
+        Entry first = entries.get(slot);
+        if (first != null && first.key == key) {
+            hits.increment();
+            return first.settlementDate;
+        }
+        Entry second = entries.get(slot ^ 1);
+        if (second != null && second.key == key) {
+            hits.increment();
+            return second.settlementDate;
+        }
+
+        misses.increment();
+        LocalDate settlementDate = delegate.calculateSettlementDate(instructionDate, currency);
+        entries.lazySet(first == null || second != null ? slot : slot ^ 1, new Entry(key, settlementDate));
+        return settlementDate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> calculateDailySettledAmount(List<Instruction> instructions, Operation op) {
+
+        if (delegate instanceof SimpleTradeOperationsProvider)
+            return ((SimpleTradeOperationsProvider) delegate).calculateDailySettledAmount(instructions, op, this::calculateSettlementDate);
+        return delegate.calculateDailySettledAmount(instructions, op);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BigDecimal calculateInstructionTradeAmount(Instruction instruction) {
+        return delegate.calculateInstructionTradeAmount(instruction);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> rankEntitiesByInstructionAmount(List<Instruction> instructions, Operation op) {
+        return delegate.rankEntitiesByInstructionAmount(instructions, op);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getHitRate() {
+
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Registers this cache with the platform MBean server
+     * @param name - name distinguishing this cache from other registered ones
+     * @return - object name the cache is registered with
+     */
+    public ObjectName register(String name) {
+
+        try {
+            ObjectName objectName = objectNameOf(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException ex) {
+            throw new IllegalArgumentException("Settlement date cache is already registered with name " + name, ex);
+        } catch (JMException ex) {
+            throw new IllegalStateException("Unable to register settlement date cache with name " + name, ex);
+        }
+    }
+
+    /**
+     * Removes this cache from the platform MBean server, if registered
+     * @param name - name the cache was registered with
+     */
+    public void unregister(String name) {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectNameOf(name));
+        } catch (InstanceNotFoundException ex) {
+            // not registered
+        } catch (JMException ex) {
+            throw new IllegalStateException("Unable to unregister settlement date cache with name " + name, ex);
+        }
+    }
+
+    private int slotOf(long key) {
+
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private static ObjectName objectNameOf(String name) throws JMException {
+
+        if (name == null || name.isEmpty())
+            throw new IllegalArgumentException("A name is required for settlement date cache registration");
+        return new ObjectName(DOMAIN + ":type=SettlementDateCache,name=" + ObjectName.quote(name));
+    }
+
+    private static final class Entry {
+
+        private final long key;
+        private final LocalDate settlementDate;
+
+        Entry(long key, LocalDate settlementDate) {
+            this.key = key;
+            this.settlementDate = settlementDate;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregates {@link InstructionBatch} rows straight from their primitive columns. Daily settled
+ * amounts are indexed by settlement epoch day and entity totals by entity id, so no key is
+ * compared while aggregating. Totals are held either in dense on heap arrays or, for very many
+ * entities, in off heap hash tables whose heap usage does not grow with the number of keys.
+ * Entity names are only resolved when the ranking is requested. Batches must share the entity
+ * dictionary of the aggregator.
+ * Not thread safe.
+ */
+public class ColumnarAggregator implements ReportFigures {
+
+    private final EntityDictionary entities;
+    private final AmountTable[] settledAmounts;
+    private final AmountTable[] entityAmounts;
+
+    public ColumnarAggregator(EntityDictionary entities) {
+        this(entities, false);
+    }
+
+    /**
+     * @param entities - dictionary shared with the batches to be aggregated
+     * @param offHeap - whether totals are held in off heap hash tables rather than in dense on heap arrays
+     */
+    public ColumnarAggregator(EntityDictionary entities, boolean offHeap) {
+
+        if (entities == null)
+            throw new IllegalArgumentException("An entity dictionary is required for columnar aggregation");
+
+        this.entities = entities;
+        this.settledAmounts = new AmountTable[Operation.values().length];
+        this.entityAmounts = new AmountTable[Operation.values().length];
+
+        for (int op = 0; op < settledAmounts.length; op++) {
+            settledAmounts[op] = offHeap ? new OffHeapAmountTable() : new DenseAmountTable();
+            entityAmounts[op] = offHeap ? new OffHeapAmountTable() : new DenseAmountTable();
+        }
+    }
+
+    /**
+     * Adds every row of a batch to daily settled amount and entity ranking of its operation
+     * @param batch - rows to be aggregated
+     */
+    public void accept(InstructionBatch batch) {
+
+        if (batch == null || batch.getEntities() != entities)
+            throw new IllegalArgumentException("Batch must share the entity dictionary of the aggregator");
+
+        for (int row = 0, size = batch.size(); row < size; row++) {
+            int op = batch.operation(row);
+            long amount = batch.amount(row);
+            if (amount != InstructionBatch.LONG_AMOUNT) {
+                settledAmounts[op].add(batch.settlementDay(row), amount);
+                entityAmounts[op].add(batch.entityId(row), amount);
+            } else {
+                settledAmounts[op].add(batch.settlementDay(row), batch.longAmount(row));
+                entityAmounts[op].add(batch.entityId(row), batch.longAmount(row));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> getDailySettledAmount(Operation op) {
+
+        AmountTable table = settledAmounts[op.ordinal()];
+        int[] days = new int[table.size()];
+        for (int i = 0; i < days.length; i++)
+            days[i] = table.keyAt(i);
+        Arrays.sort(days);
+
+        Map<LocalDate, BigDecimal> settled = new LinkedHashMap<>();
+        for (int day : days)
+            settled.put(LocalDate.ofEpochDay(day), table.get(day));
+        return settled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op) {
+
+        AmountTable table = entityAmounts[op.ordinal()];
+        Integer[] ids = new Integer[table.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = table.keyAt(i);
+        Arrays.sort(ids, (id1, id2) -> table.compare(id2, id1));
+
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        for (int id : ids)
+            ranking.put(entities.nameOf(id), table.get(id));
+        return ranking;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Top ranked entities are selected with a bounded {@link TopKRanking}.
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op, int limit) {
+
+        if (limit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        AmountTable table = entityAmounts[op.ordinal()];
+        if (limit >= table.size())
+            return getEntityRanking(op);
+
+        TopKRanking<Integer> topRanking = new TopKRanking<>(limit, (id1, id2) -> table.compare(id2, id1));
+        for (int i = 0; i < table.size(); i++)
+            topRanking.offer(table.keyAt(i), i);
+
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        for (int id : topRanking.toList())
+            ranking.put(entities.nameOf(id), table.get(id));
+        return ranking;
+    }
+}
@@ -0,0 +1,105 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of reporting engine that converts streamed instructions to columnar
+ * {@link InstructionBatch} rows and aggregates them with a {@link ColumnarAggregator}. A single
+ * batch of fixed capacity is reused, so memory is bounded by batch size plus the number of
+ * distinct settlement dates and entities.
+ * Entity names are encoded with a new {@link EntityDictionary} for every report, unless one is
+ * given on construction. Sharing the dictionary used on ingest, for instance by
+ * {@link com.jpmc.reporting.input.MappedCsvInputDataProvider}, means names arrive already encoded.
+ */
+public class ColumnarReportingEngine implements ReportingEngine {
+
+    private static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+
+    private final int batchSize;
+    private final int rankingLimit;
+    private final EntityDictionary entities;
+    private final boolean offHeap;
+
+    public ColumnarReportingEngine() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public ColumnarReportingEngine(int batchSize) {
+        this(batchSize, ReportFigures.FULL_RANKING);
+    }
+
+    /**
+     * @param batchSize - number of instructions converted to columns before being aggregated
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     */
+    public ColumnarReportingEngine(int batchSize, int rankingLimit) {
+        this(batchSize, rankingLimit, null);
+    }
+
+    /**
+     * @param batchSize - number of instructions converted to columns before being aggregated
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     * @param entities - dictionary shared with instruction ingest, or null to use a new one for every report
+     */
+    public ColumnarReportingEngine(int batchSize, int rankingLimit, EntityDictionary entities) {
+        this(batchSize, rankingLimit, entities, false);
+    }
+
+    /**
+     * @param batchSize - number of instructions converted to columns before being aggregated
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     * @param entities - dictionary shared with instruction ingest, or null to use a new one for every report
+     * @param offHeap - whether totals are aggregated off heap, see {@link ColumnarAggregator}
+     */
+    public ColumnarReportingEngine(int batchSize, int rankingLimit, EntityDictionary entities, boolean offHeap) {
+
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive for columnar reporting");
+        if (rankingLimit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        this.batchSize = batchSize;
+        this.rankingLimit = rankingLimit;
+        this.entities = entities;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+
+        EntityDictionary entities = this.entities != null ? this.entities : new EntityDictionary();
+        InstructionBatch batch = new InstructionBatch(entities, batchSize);
+        InstructionBatchLoader loader = new InstructionBatchLoader(top);
+        ColumnarAggregator aggregator = new ColumnarAggregator(entities, offHeap);
+        long instructionCount = 0;
+
+        try (Stream<Instruction> instructions = inProvider.streamInstructions()) {
+            Iterator<Instruction> iterator = instructions.iterator();
+            while (iterator.hasNext()) {
+                loader.add(batch, iterator.next());
+                instructionCount++;
+                if (batch.size() == batchSize) {
+                    aggregator.accept(batch);
+                    batch.clear();
+                }
+            }
+        }
+        aggregator.accept(batch);
+
+        if (instructionCount == 0)
+            throw new IllegalArgumentException("Instructions must not be null/empty for report generation");
+
+        aggregator.writeReport(out, Currency.getInstance("USD"), rankingLimit);
+    }
+}
@@ -0,0 +1,126 @@
+package com.jpmc.reporting.engine;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Running totals of {@link FixedPoint} amounts indexed by a dense int key, such as an entity id
+ * or an epoch day. Totals live in a primitive array starting at the lowest key seen, which is
+ * grown in either direction as new keys arrive. A total that no longer fits in a long is carried
+ * on as a {@link BigDecimal}. Keys are also remembered in the order they were first seen.
+ * Not thread safe.
+ */
+final class DenseAmountTable implements AmountTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int origin;
+    private long[] sums = new long[0];
+    private boolean[] present = new boolean[0];
+    private BigDecimal[] overflow;
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int count;
+
+    @Override
+    public void add(int key, long amount) {
+
+        int index = register(key);
+        if (overflow == null || overflow[index] == null) {
+            long sum = FixedPoint.add(sums[index], amount);
+            if (sum != FixedPoint.NOT_REPRESENTABLE) {
+                sums[index] = sum;
+                return;
+            }
+            if (overflow == null)
+                overflow = new BigDecimal[sums.length];
+            overflow[index] = FixedPoint.toBigDecimal(sums[index]);
+        }
+        overflow[index] = overflow[index].add(FixedPoint.toBigDecimal(amount));
+    }
+
+    @Override
+    public void add(int key, BigDecimal amount) {
+
+        int index = register(key);
+        if (overflow == null)
+            overflow = new BigDecimal[sums.length];
+        if (overflow[index] == null)
+            overflow[index] = FixedPoint.toBigDecimal(sums[index]);
+        overflow[index] = overflow[index].add(amount);
+    }
+
+    @Override
+    public BigDecimal get(int key) {
+
+        int index = key - origin;
+        if (overflow != null && overflow[index] != null)
+            return overflow[index];
+        return FixedPoint.toBigDecimal(sums[index]);
+    }
+
+    @Override
+    public int compare(int key1, int key2) {
+
+        int index1 = key1 - origin;
+        int index2 = key2 - origin;
+        if (overflow == null || (overflow[index1] == null && overflow[index2] == null))
+            return Long.compare(sums[index1], sums[index2]);
+        return get(key1).compareTo(get(key2));
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int keyAt(int position) {
+        return keys[position];
+    }
+
+    private int register(int key) {
+
+        int index = indexOf(key);
+        if (!present[index]) {
+            present[index] = true;
+            if (count == keys.length)
+                keys = Arrays.copyOf(keys, count * 2);
+            keys[count++] = key;
+        }
+        return index;
+    }
+
+    private int indexOf(int key) {
+
+        if (sums.length == 0) {
+            origin = key;
+            resize(0, INITIAL_CAPACITY);
+        }
+
+        long index = (long) key - origin;
+        if (index < 0) {
+            int shift = (int) Math.max(-index, sums.length);
+            resize(shift, sums.length + shift);
+            origin -= shift;
+        } else if (index >= sums.length) {
+            resize(0, (int) Math.max(index + 1, sums.length * 2L));
+        }
+        return key - origin;
+    }
+
+    private void resize(int shift, int capacity) {
+
+        long[] newSums = new long[capacity];
+        boolean[] newPresent = new boolean[capacity];
+        System.arraycopy(sums, 0, newSums, shift, sums.length);
+        System.arraycopy(present, 0, newPresent, shift, present.length);
+
+        if (overflow != null) {
+            BigDecimal[] newOverflow = new BigDecimal[capacity];
+            System.arraycopy(overflow, 0, newOverflow, shift, overflow.length);
+            overflow = newOverflow;
+        }
+        sums = newSums;
+        present = newPresent;
+    }
+}
@@ -0,0 +1,132 @@
+package com.jpmc.reporting.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed point arithmetic for trade amounts. Amounts are represented as unscaled longs with
+ * {@link #AMOUNT_SCALE} decimal digits and are rounded HALF_EVEN exactly like
+ * {@link SimpleTradeOperationsProvider#calculateInstructionTradeAmount}. Every operation detects
+ * overflow and returns {@link #NOT_REPRESENTABLE} instead, in which case callers are expected to
+ * fall back to {@link BigDecimal} arithmetic.
+ */
+public final class FixedPoint {
+
+    public static final int AMOUNT_SCALE = 2;
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Calculates trade value by the formula Price per unit * Units * Agreed Fx rate
+     * @param unitPrice - price per unit
+     * @param units - number of units
+     * @param agreedFx - agreed fx rate
+     * @return - unscaled trade amount or {@link #NOT_REPRESENTABLE}
+     */
+    public static long tradeAmount(BigDecimal unitPrice, int units, BigDecimal agreedFx) {
+
+        if (unitPrice.precision() > MAX_LONG_DIGITS || agreedFx.precision() > MAX_LONG_DIGITS)
+            return NOT_REPRESENTABLE;
+
+        return tradeAmount(unitPrice.unscaledValue().longValue(), unitPrice.scale(), units,
+                agreedFx.unscaledValue().longValue(), agreedFx.scale());
+    }
+
+    /**
+     * Same as {@link #tradeAmount(BigDecimal, int, BigDecimal)} for price and fx rate given as
+     * unscaled values and scales
+     * @return - unscaled trade amount or {@link #NOT_REPRESENTABLE}
+     */
+    public static long tradeAmount(long unitPriceUnscaled, int unitPriceScale, int units, long agreedFxUnscaled, int agreedFxScale) {
+
+        long product;
+        try {
+            product = Math.multiplyExact(Math.multiplyExact(unitPriceUnscaled, units), agreedFxUnscaled);
+        } catch (ArithmeticException ex) {
+            return NOT_REPRESENTABLE;
+        }
+
+        return rescale(product, unitPriceScale + agreedFxScale);
+    }
+
+    /**
+     * Rounds an unscaled value HALF_EVEN to {@link #AMOUNT_SCALE} decimal digits
+     * @param unscaled - unscaled value
+     * @param scale - scale of unscaled value
+     * @return - unscaled amount or {@link #NOT_REPRESENTABLE}
+     */
+    public static long rescale(long unscaled, int scale) {
+
+        if (unscaled == NOT_REPRESENTABLE)
+            return NOT_REPRESENTABLE;
+
+        if (scale <= AMOUNT_SCALE) {
+            int shift = AMOUNT_SCALE - scale;
+            if (shift > MAX_LONG_DIGITS)
+                return unscaled == 0 ? 0 : NOT_REPRESENTABLE;
+            try {
+                return Math.multiplyExact(unscaled, POWERS_OF_TEN[shift]);
+            } catch (ArithmeticException ex) {
+                return NOT_REPRESENTABLE;
+            }
+        }
+
+        int shift = scale - AMOUNT_SCALE;
+        if (shift > MAX_LONG_DIGITS)
+            return NOT_REPRESENTABLE;
+
+        long divisor = POWERS_OF_TEN[shift];
+        long quotient = unscaled / divisor;
+        long remainder = Math.abs(unscaled % divisor);
+        long twice = remainder << 1;
+
+        if (twice > divisor || (twice == divisor && (quotient & 1) != 0))
+            quotient += Long.signum(unscaled);
+
+        return quotient;
+    }
+
+    /**
+     * Adds two unscaled amounts
+     * @return - unscaled sum or {@link #NOT_REPRESENTABLE}
+     */
+    public static long add(long a, long b) {
+
+        if (a == NOT_REPRESENTABLE || b == NOT_REPRESENTABLE)
+            return NOT_REPRESENTABLE;
+
+        long sum = a + b;
+        return (((a ^ sum) & (b ^ sum)) < 0 || sum == NOT_REPRESENTABLE) ? NOT_REPRESENTABLE : sum;
+    }
+
+    /**
+     * Converts an amount to an unscaled long, rounding HALF_EVEN to {@link #AMOUNT_SCALE} decimal digits
+     * @param amount - amount to convert
+     * @return - unscaled amount or {@link #NOT_REPRESENTABLE}
+     */
+    public static long fromBigDecimal(BigDecimal amount) {
+
+        BigInteger unscaled = amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN).unscaledValue();
+        return unscaled.bitLength() > 63 ? NOT_REPRESENTABLE : unscaled.longValue();
+    }
+
+    /**
+     * @param unscaled - unscaled amount
+     * @return - amount as BigDecimal with {@link #AMOUNT_SCALE} decimal digits
+     */
+    public static BigDecimal toBigDecimal(long unscaled) {
+        return BigDecimal.valueOf(unscaled, AMOUNT_SCALE);
+    }
+}
@@ -0,0 +1,37 @@
+package com.jpmc.reporting.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total of trade amounts kept as a {@link FixedPoint} unscaled long. Once the
+ * total no longer fits in a long it is carried on as a {@link BigDecimal}.
+ */
+final class FixedPointSum {
+
+    private long unscaled;
+    private BigDecimal overflow;
+
+    void add(long amountUnscaled) {
+
+        if (overflow == null) {
+            long sum = FixedPoint.add(unscaled, amountUnscaled);
+            if (sum != FixedPoint.NOT_REPRESENTABLE) {
+                unscaled = sum;
+                return;
+            }
+            overflow = FixedPoint.toBigDecimal(unscaled);
+        }
+        overflow = overflow.add(FixedPoint.toBigDecimal(amountUnscaled));
+    }
+
+    void add(BigDecimal amount) {
+
+        if (overflow == null)
+            overflow = FixedPoint.toBigDecimal(unscaled);
+        overflow = overflow.add(amount);
+    }
+
+    BigDecimal toBigDecimal() {
+        return overflow != null ? overflow : FixedPoint.toBigDecimal(unscaled);
+    }
+}
@@ -0,0 +1,103 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.calendar.SettlementCalendar;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static java.util.Map.Entry.comparingByKey;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Opt-in implementation of {@link TradeOperationsProvider} that calculates and sums trade amounts
+ * as {@link FixedPoint} unscaled longs instead of {@link BigDecimal}. Whenever an amount or a
+ * total does not fit in a long, calculation falls back to BigDecimal, so results are always
+ * identical to {@link SimpleTradeOperationsProvider}.
+ */
+public class FixedPointTradeOperationsProvider extends SimpleTradeOperationsProvider {
+
+    public FixedPointTradeOperationsProvider() {
+        super();
+    }
+
+    public FixedPointTradeOperationsProvider(SettlementCalendar calendar) {
+        super(calendar);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> calculateDailySettledAmount(List<Instruction> instructions, Operation op,
+                                                                  BiFunction<LocalDate, Currency, LocalDate> settlementDates) {
+
+        if (instructions == null || instructions.isEmpty() || op == null)
+            throw new IllegalArgumentException("Instructions and operations must not be null/empty for amount settled calculation");
+
+        return sumByKey(instructions, op, instruction -> settlementDates.apply(instruction.getInstructionDate(), instruction.getCurrency()))
+                .entrySet().stream()
+                .sorted(comparingByKey())
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BigDecimal calculateInstructionTradeAmount(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for trade amount calculation");
+
+        long amount = FixedPoint.tradeAmount(instruction.getUnitPrice(), instruction.getUnits(), instruction.getAgreedFx());
+        if (amount == FixedPoint.NOT_REPRESENTABLE)
+            return super.calculateInstructionTradeAmount(instruction);
+
+        return FixedPoint.toBigDecimal(amount);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> rankEntitiesByInstructionAmount(List<Instruction> instructions, Operation op) {
+
+        if (instructions == null || instructions.isEmpty() || op == null)
+            throw new IllegalArgumentException("Instructions and operations must not be null/empty for entity ranking");
+
+        return sumByKey(instructions, op, Instruction::getEntity)
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    private <K> Map<K, BigDecimal> sumByKey(List<Instruction> instructions, Operation op, Function<Instruction, K> keyMapper) {
+
+        Map<K, FixedPointSum> sums = new HashMap<>();
+
+        for (Instruction instruction : instructions) {
+            if (!instruction.getTradeOperation().equals(op))
+                continue;
+
+            FixedPointSum sum = sums.computeIfAbsent(keyMapper.apply(instruction), k -> new FixedPointSum());
+            long amount = FixedPoint.tradeAmount(instruction.getUnitPrice(), instruction.getUnits(), instruction.getAgreedFx());
+            if (amount != FixedPoint.NOT_REPRESENTABLE)
+                sum.add(amount);
+            else
+                sum.add(super.calculateInstructionTradeAmount(instruction));
+        }
+
+        Map<K, BigDecimal> totals = new HashMap<>();
+        sums.forEach((k, v) -> totals.put(k, v.toBigDecimal()));
+        return totals;
+    }
+}
@@ -0,0 +1,51 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Implementation of reporting engine that walks instruction data only once. Unlike
+ * {@link SimpleReportingEngine}, which runs a separate pass for each of the four report sections,
+ * settlement date and trade amount of each instruction are calculated a single time and
+ * all report sections are filled together by a {@link ReportAggregator}
+ */
+public class FusedReportingEngine implements ReportingEngine {
+
+    private final int rankingLimit;
+
+    public FusedReportingEngine() {
+        this(ReportFigures.FULL_RANKING);
+    }
+
+    /**
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     */
+    public FusedReportingEngine(int rankingLimit) {
+
+        if (rankingLimit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        this.rankingLimit = rankingLimit;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+
+        List<Instruction> instructions = inProvider.retrieveInstructions();
+
+        if (instructions == null || instructions.isEmpty())
+            throw new IllegalArgumentException("Instructions must not be null/empty for report generation");
+
+        ReportAggregator aggregator = new ReportAggregator(top);
+        instructions.forEach(aggregator::accept);
+
+        aggregator.writeReport(out, Currency.getInstance("USD"), rankingLimit);
+    }
+}
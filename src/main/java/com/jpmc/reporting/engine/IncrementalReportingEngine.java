@@ -0,0 +1,275 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reporting engine for intraday use that keeps running daily settled amounts and entity totals
+ * across batches of instructions. Submitting, retracting or amending instructions only touches
+ * the figures of the instructions in the batch, so an updated report costs time proportional to
+ * the batch plus the size of the report itself, rather than to the whole day volume. Entities
+ * are kept in ranking order, by amount and then by the order they were first seen, in a sorted
+ * index that is only updated for the entities of the batch, so rankings are read without sorting.
+ * Every figure also keeps count of the instructions contributing to it, so that dates and
+ * entities disappear from the report once all their instructions have been retracted.
+ * Figures of submitted instructions are kept as a multiset, so that only instructions matching
+ * a submitted one on operation, settlement date, entity and amount can be retracted.
+ * All methods are synchronized, so batches may arrive from different threads.
+ */
+public class IncrementalReportingEngine implements ReportFigures {
+
+    private final TradeOperationsProvider top;
+    private final Map<Operation, TreeMap<LocalDate, Total>> settledAmounts;
+    private final Map<Operation, Map<String, EntityTotal>> entityAmounts;
+    private final Map<Operation, TreeSet<EntityTotal>> rankings;
+    private final Map<Figure, Long> submitted = new HashMap<>();
+    private long entitySequence;
+
+    public IncrementalReportingEngine(TradeOperationsProvider top) {
+
+        if (top == null)
+            throw new IllegalArgumentException("A trade operations provider is required for incremental reporting");
+
+        this.top = top;
+        this.settledAmounts = new EnumMap<>(Operation.class);
+        this.entityAmounts = new EnumMap<>(Operation.class);
+        this.rankings = new EnumMap<>(Operation.class);
+
+        for (Operation op : Operation.values()) {
+            settledAmounts.put(op, new TreeMap<>());
+            entityAmounts.put(op, new HashMap<>());
+            rankings.put(op, new TreeSet<>(EntityTotal.RANKING_ORDER));
+        }
+    }
+
+    /**
+     * Adds a batch of new instructions to the running figures
+     * @param instructions - instructions received since last update
+     */
+    public synchronized void submit(Collection<Instruction> instructions) {
+        apply(toFigures(instructions), Collections.emptyList());
+    }
+
+    /**
+     * Removes a batch of previously submitted instructions from the running figures. The batch
+     * is rejected as a whole if any of its instructions does not match the submitted ones.
+     * @param instructions - instructions to be retracted
+     */
+    public synchronized void retract(Collection<Instruction> instructions) {
+        apply(Collections.emptyList(), toFigures(instructions));
+    }
+
+    /**
+     * Replaces a previously submitted instruction with its amended version
+     * @param original - instruction as previously submitted
+     * @param amended - amended instruction
+     */
+    public synchronized void amend(Instruction original, Instruction amended) {
+        apply(toFigures(Collections.singletonList(amended)), toFigures(Collections.singletonList(original)));
+    }
+
+    /**
+     * Sends the current figures to the output channel
+     * @param out - desired channel for output data
+     */
+    public synchronized void writeReport(ReportWriter out) {
+        writeReport(out, Currency.getInstance("USD"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Map<LocalDate, BigDecimal> getDailySettledAmount(Operation op) {
+
+        Map<LocalDate, BigDecimal> settled = new LinkedHashMap<>();
+        settledAmounts.get(op).forEach((k, v) -> settled.put(k, v.amount));
+        return settled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Map<String, BigDecimal> getEntityRanking(Operation op) {
+        return getEntityRanking(op, FULL_RANKING);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Top ranked entities are read from the head of the ranking index.
+     */
+    @Override
+    public synchronized Map<String, BigDecimal> getEntityRanking(Operation op, int limit) {
+
+        if (limit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        for (EntityTotal total : rankings.get(op)) {
+            if (ranking.size() == limit)
+                break;
+            ranking.put(total.entity, total.amount);
+        }
+        return ranking;
+    }
+
+    private List<Figure> toFigures(Collection<Instruction> instructions) {
+
+        if (instructions == null)
+            throw new IllegalArgumentException("Instructions must not be null for incremental reporting");
+
+        List<Figure> figures = new ArrayList<>(instructions.size());
+        for (Instruction instruction : instructions) {
+            if (instruction == null)
+                throw new IllegalArgumentException("Instructions must not be null for incremental reporting");
+            figures.add(new Figure(instruction.getTradeOperation(),
+                    top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency()),
+                    instruction.getEntity(),
+                    top.calculateInstructionTradeAmount(instruction)));
+        }
+        return figures;
+    }
+
+    private void apply(List<Figure> additions, List<Figure> removals) {
+
+        checkRetractable(removals);
+
+        for (Figure figure : removals) {
+            submitted.computeIfPresent(figure, (k, count) -> count == 1 ? null : count - 1);
+            remove(settledAmounts.get(figure.op), figure.settlementDate, figure.amount);
+            removeEntity(figure);
+        }
+        for (Figure figure : additions) {
+            submitted.merge(figure, 1L, Long::sum);
+            settledAmounts.get(figure.op).computeIfAbsent(figure.settlementDate, k -> new Total()).add(figure.amount);
+            addEntity(figure);
+        }
+    }
+
+    private void addEntity(Figure figure) {
+
+        TreeSet<EntityTotal> ranking = rankings.get(figure.op);
+        EntityTotal total = entityAmounts.get(figure.op).get(figure.entity);
+        if (total == null) {
+            total = new EntityTotal(figure.entity, entitySequence++);
+            entityAmounts.get(figure.op).put(figure.entity, total);
+        } else {
+            ranking.remove(total);
+        }
+        total.add(figure.amount);
+        ranking.add(total);
+    }
+
+    private void removeEntity(Figure figure) {
+
+        TreeSet<EntityTotal> ranking = rankings.get(figure.op);
+        EntityTotal total = entityAmounts.get(figure.op).get(figure.entity);
+        ranking.remove(total);
+        total.subtract(figure.amount);
+        if (total.count == 0 && total.amount.signum() == 0)
+            entityAmounts.get(figure.op).remove(figure.entity);
+        else
+            ranking.add(total);
+    }
+
+    private void checkRetractable(List<Figure> removals) {
+
+        Map<Figure, Long> counts = new HashMap<>();
+        for (Figure figure : removals) {
+            if (counts.merge(figure, 1L, Long::sum) > submitted.getOrDefault(figure, 0L))
+                throw new IllegalArgumentException("Retracted instructions must have been submitted before: " + figure.entity);
+        }
+    }
+
+    private static <K> void remove(Map<K, Total> totals, K key, BigDecimal amount) {
+
+        Total total = totals.get(key);
+        total.subtract(amount);
+        if (total.count == 0 && total.amount.signum() == 0)
+            totals.remove(key);
+    }
+
+    private static final class Figure {
+
+        private final Operation op;
+        private final LocalDate settlementDate;
+        private final String entity;
+        private final BigDecimal amount;
+
+        Figure(Operation op, LocalDate settlementDate, String entity, BigDecimal amount) {
+            this.op = op;
+            this.settlementDate = settlementDate;
+            this.entity = entity;
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+                return true;
+            if (!(o instanceof Figure))
+                return false;
+            Figure other = (Figure) o;
+            return op == other.op && settlementDate.equals(other.settlementDate) && entity.equals(other.entity)
+                    && amount.compareTo(other.amount) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(op, settlementDate, entity, amount.stripTrailingZeros());
+        }
+    }
+
+    private static class Total {
+
+        BigDecimal amount = BigDecimal.ZERO;
+        long count;
+
+        void add(BigDecimal value) {
+            amount = amount.add(value);
+            count++;
+        }
+
+        void subtract(BigDecimal value) {
+            amount = amount.subtract(value);
+            count--;
+        }
+    }
+
+    /**
+     * Total of an entity, ordered in the ranking index by amount and then by first seen sequence
+     */
+    private static final class EntityTotal extends Total {
+
+        static final Comparator<EntityTotal> RANKING_ORDER = Comparator
+                .comparing((EntityTotal total) -> total.amount, Comparator.reverseOrder())
+                .thenComparingLong(total -> total.sequence);
+
+        private final String entity;
+        private final long sequence;
+
+        EntityTotal(String entity, long sequence) {
+            this.entity = entity;
+            this.sequence = sequence;
+        }
+    }
+}
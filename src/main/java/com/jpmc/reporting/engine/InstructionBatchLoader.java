@@ -0,0 +1,197 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.codec.InstructionDecoder;
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.model.RawInstructionBatch;
+import com.jpmc.reporting.model.ValidationResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Converts instructions to {@link InstructionBatch} rows. Settlement date and trade amount are
+ * calculated once, by means of {@link TradeOperationsProvider}, when the row is added.
+ * Instructions can also be added straight from an {@link InstructionDecoder} without creating
+ * any object per instruction: the trade amount is calculated in fixed point from the encoded
+ * unscaled values, falling back to decimals only for values too long for a long, and settlement
+ * days are remembered per instruction day and currency in an open addressing table. Rows of a
+ * validated {@link RawInstructionBatch} are added the same way. Trade amounts that do not fit in
+ * a long are kept in the batch as decimals, see {@link InstructionBatch#LONG_AMOUNT}.
+ * Not thread safe.
+ */
+public class InstructionBatchLoader {
+
+    private static final int INITIAL_SETTLEMENT_SLOTS = 1 << 10;
+    private static final long NO_KEY = -1;
+
+    private final TradeOperationsProvider top;
+    private long[] settlementKeys = new long[INITIAL_SETTLEMENT_SLOTS];
+    private int[] settlementDays = new int[INITIAL_SETTLEMENT_SLOTS];
+    private int settlementCount;
+
+    public InstructionBatchLoader(TradeOperationsProvider top) {
+
+        if (top == null)
+            throw new IllegalArgumentException("A trade operations provider is required for instruction batch loading");
+
+        this.top = top;
+        Arrays.fill(settlementKeys, NO_KEY);
+    }
+
+    /**
+     * Appends an instruction to the batch
+     * @param batch - batch to append to
+     * @param instruction - instruction to be appended
+     */
+    public void add(InstructionBatch batch, Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for instruction batch loading");
+
+        BigDecimal tradeAmount = top.calculateInstructionTradeAmount(instruction);
+        long amount = FixedPoint.fromBigDecimal(tradeAmount);
+        batch.add(batch.getEntities().idOf(instruction.getEntity()),
+                instruction.getTradeOperation(),
+                CurrencyDictionary.idOf(instruction.getCurrency()),
+                Math.toIntExact(instruction.getInstructionDate().toEpochDay()),
+                Math.toIntExact(top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency()).toEpochDay()),
+                amount);
+        if (amount == FixedPoint.NOT_REPRESENTABLE)
+            batch.setLongAmount(batch.size() - 1, tradeAmount);
+    }
+
+    /**
+     * Appends the instruction a decoder is wrapped around to the batch. As with instructions, the
+     * settlement date given with the encoded instruction is ignored in favour of the one calculated
+     * by {@link TradeOperationsProvider}.
+     * @param batch - batch to append to
+     * @param decoder - decoder wrapped around an encoded instruction
+     */
+    public void add(InstructionBatch batch, InstructionDecoder decoder) {
+
+        if (decoder == null)
+            throw new IllegalArgumentException("Decoder must not be null for instruction batch loading");
+
+        long amount;
+        if (decoder.hasCompactDecimals()) {
+            amount = tradeAmount(decoder.unitPriceUnscaled(), decoder.unitPriceScale(), decoder.units(),
+                    decoder.agreedFxUnscaled(), decoder.agreedFxScale());
+        } else {
+            amount = tradeAmount(decoder.unitPrice(), decoder.units(), decoder.agreedFx());
+        }
+
+        short currencyId = decoder.currencyId();
+        int instructionDay = decoder.instructionDay();
+        batch.add(decoder.entityId(batch.getEntities()),
+                decoder.operation(),
+                currencyId,
+                instructionDay,
+                settlementDay(instructionDay, currencyId),
+                amount);
+        if (amount == FixedPoint.NOT_REPRESENTABLE)
+            batch.setLongAmount(batch.size() - 1, decimalTradeAmount(decoder.unitPrice(), decoder.units(), decoder.agreedFx()));
+    }
+
+    /**
+     * Appends the rows of a raw batch found valid by {@link com.jpmc.reporting.model.InstructionBatchValidator}
+     * to the batch. As with instructions, settlement days of the raw batch are ignored in favour
+     * of the ones calculated by {@link TradeOperationsProvider}.
+     * @param batch - batch to append to
+     * @param raw - raw batch sharing the entity dictionary of the batch
+     * @param validation - result of validating the raw batch
+     */
+    public void add(InstructionBatch batch, RawInstructionBatch raw, ValidationResult validation) {
+
+        if (raw == null || validation == null || raw.getEntities() != batch.getEntities() || validation.size() != raw.size())
+            throw new IllegalArgumentException("A raw batch sharing the entity dictionary and its validation are required for instruction batch loading");
+
+        Operation[] ops = Operation.values();
+        long[] validity = validation.getValidity();
+        for (int word = 0; word < validity.length; word++) {
+            for (long bits = validity[word]; bits != 0; bits &= bits - 1) {
+                int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                long amount = raw.unitPriceUnscaled(row) == RawInstructionBatch.LONG_DECIMAL || raw.agreedFxUnscaled(row) == RawInstructionBatch.LONG_DECIMAL
+                        ? tradeAmount(raw.unitPrice(row), raw.units(row), raw.agreedFx(row))
+                        : tradeAmount(raw.unitPriceUnscaled(row), raw.unitPriceScale(row), raw.units(row), raw.agreedFxUnscaled(row), raw.agreedFxScale(row));
+
+                short currencyId = raw.currencyId(row);
+                int instructionDay = raw.instructionDay(row);
+                batch.add(raw.entityId(row), ops[raw.operation(row)], currencyId, instructionDay,
+                        settlementDay(instructionDay, currencyId), amount);
+                if (amount == FixedPoint.NOT_REPRESENTABLE)
+                    batch.setLongAmount(batch.size() - 1, decimalTradeAmount(raw.unitPrice(row), raw.units(row), raw.agreedFx(row)));
+            }
+        }
+    }
+
+    /**
+     * Same as {@link FixedPoint#tradeAmount(long, int, int, long, int)}, falling back to decimals
+     * for products that overflow a long but whose rounded amount may still fit
+     */
+    private static long tradeAmount(long unitPriceUnscaled, int unitPriceScale, int units, long agreedFxUnscaled, int agreedFxScale) {
+
+        long amount = FixedPoint.tradeAmount(unitPriceUnscaled, unitPriceScale, units, agreedFxUnscaled, agreedFxScale);
+        if (amount != FixedPoint.NOT_REPRESENTABLE)
+            return amount;
+
+        return tradeAmount(BigDecimal.valueOf(unitPriceUnscaled, unitPriceScale), units, BigDecimal.valueOf(agreedFxUnscaled, agreedFxScale));
+    }
+
+    private static long tradeAmount(BigDecimal unitPrice, int units, BigDecimal agreedFx) {
+        return FixedPoint.fromBigDecimal(decimalTradeAmount(unitPrice, units, agreedFx));
+    }
+
+    private static BigDecimal decimalTradeAmount(BigDecimal unitPrice, int units, BigDecimal agreedFx) {
+
+        return unitPrice
+                .multiply(BigDecimal.valueOf(units))
+                .multiply(agreedFx)
+                .setScale(FixedPoint.AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private int settlementDay(int instructionDay, short currencyId) {
+
+        long key = (long) instructionDay << 16 | currencyId;
+        int slot = slotOf(settlementKeys, key);
+        if (settlementKeys[slot] == key)
+            return settlementDays[slot];
+
+        LocalDate settlementDate = top.calculateSettlementDate(LocalDate.ofEpochDay(instructionDay), CurrencyDictionary.currencyOf(currencyId));
+        int settlementDay = Math.toIntExact(settlementDate.toEpochDay());
+        settlementKeys[slot] = key;
+        settlementDays[slot] = settlementDay;
+        if (++settlementCount * 2 > settlementKeys.length)
+            growSettlementDays();
+        return settlementDay;
+    }
+
+    private void growSettlementDays() {
+
+        long[] keys = settlementKeys;
+        int[] days = settlementDays;
+        settlementKeys = new long[keys.length * 2];
+        settlementDays = new int[keys.length * 2];
+        Arrays.fill(settlementKeys, NO_KEY);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != NO_KEY) {
+                int slot = slotOf(settlementKeys, keys[i]);
+                settlementKeys[slot] = keys[i];
+                settlementDays[slot] = days[i];
+            }
+        }
+    }
+
+    private static int slotOf(long[] keys, long key) {
+
+        int mask = keys.length - 1;
+        int slot = (int) ((key ^ key >>> 32) * 0x9E3779B97F4A7C15L >>> 40) & mask;
+        while (keys[slot] != NO_KEY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+}
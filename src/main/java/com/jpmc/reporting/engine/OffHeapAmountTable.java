@@ -0,0 +1,167 @@
+package com.jpmc.reporting.engine;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Open addressing hash table of {@link FixedPoint} totals held in direct {@link ByteBuffer}s, so
+ * that heap usage does not grow with the number of keys. Each slot holds the key, its first seen
+ * position plus one, zero meaning empty, and its long total; first seen keys are kept in a second
+ * direct buffer. Slots are probed linearly and the table is doubled once half full. Only totals
+ * that no longer fit in a long are carried on the heap, as {@link BigDecimal}.
+ * Not thread safe.
+ */
+final class OffHeapAmountTable implements AmountTable {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int POSITION_OFFSET = 4;
+    private static final int SUM_OFFSET = 8;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private ByteBuffer slots;
+    private ByteBuffer keys;
+    private int mask;
+    private int count;
+    private Map<Integer, BigDecimal> overflow;
+
+    OffHeapAmountTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedKeys - number of keys the table is sized for before growing
+     */
+    OffHeapAmountTable(int expectedKeys) {
+
+        if (expectedKeys <= 0)
+            throw new IllegalArgumentException("Expected number of keys must be positive for off heap amount table");
+
+        int capacity = 16;
+        while (capacity < expectedKeys * 2L && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        slots = allocate(capacity * SLOT_SIZE);
+        keys = allocate(capacity / 2 * 4);
+        mask = capacity - 1;
+    }
+
+    @Override
+    public void add(int key, long amount) {
+
+        int slot = register(key);
+        if (overflow == null || !overflow.containsKey(key)) {
+            long sum = FixedPoint.add(slots.getLong(slot + SUM_OFFSET), amount);
+            if (sum != FixedPoint.NOT_REPRESENTABLE) {
+                slots.putLong(slot + SUM_OFFSET, sum);
+                return;
+            }
+            if (overflow == null)
+                overflow = new HashMap<>();
+            overflow.put(key, FixedPoint.toBigDecimal(slots.getLong(slot + SUM_OFFSET)));
+        }
+        overflow.put(key, overflow.get(key).add(FixedPoint.toBigDecimal(amount)));
+    }
+
+    @Override
+    public void add(int key, BigDecimal amount) {
+
+        int slot = register(key);
+        if (overflow == null)
+            overflow = new HashMap<>();
+        BigDecimal total = overflow.get(key);
+        if (total == null)
+            total = FixedPoint.toBigDecimal(slots.getLong(slot + SUM_OFFSET));
+        overflow.put(key, total.add(amount));
+    }
+
+    @Override
+    public BigDecimal get(int key) {
+
+        if (overflow != null && overflow.containsKey(key))
+            return overflow.get(key);
+        return FixedPoint.toBigDecimal(slots.getLong(find(key) + SUM_OFFSET));
+    }
+
+    @Override
+    public int compare(int key1, int key2) {
+
+        if (overflow == null || (!overflow.containsKey(key1) && !overflow.containsKey(key2)))
+            return Long.compare(slots.getLong(find(key1) + SUM_OFFSET), slots.getLong(find(key2) + SUM_OFFSET));
+        return get(key1).compareTo(get(key2));
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int keyAt(int position) {
+        return keys.getInt(position * 4);
+    }
+
+    /**
+     * @return - byte offset of the slot holding key, taken for it if first seen
+     */
+    private int register(int key) {
+
+        int slot = find(key);
+        if (slots.getInt(slot + POSITION_OFFSET) == 0) {
+            if (count == (mask + 1) / 2) {
+                grow();
+                slot = find(key);
+            }
+            slots.putInt(slot, key);
+            slots.putInt(slot + POSITION_OFFSET, count + 1);
+            keys.putInt(count * 4, key);
+            count++;
+        }
+        return slot;
+    }
+
+    /**
+     * @return - byte offset of the slot holding key, or of the empty slot where it belongs
+     */
+    private int find(int key) {
+
+        int slot = key * 0x9E3779B9;
+        slot ^= slot >>> 16;
+        while (true) {
+            int offset = (slot & mask) * SLOT_SIZE;
+            if (slots.getInt(offset + POSITION_OFFSET) == 0 || slots.getInt(offset) == key)
+                return offset;
+            slot++;
+        }
+    }
+
+    private void grow() {
+
+        int capacity = (mask + 1) * 2;
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Off heap amount table can not hold more than " + MAX_CAPACITY / 2 + " keys");
+
+        ByteBuffer oldSlots = slots;
+        ByteBuffer oldKeys = keys;
+        slots = allocate(capacity * SLOT_SIZE);
+        keys = allocate(capacity / 2 * 4);
+        mask = capacity - 1;
+
+        for (int position = 0; position < count; position++)
+            keys.putInt(position * 4, oldKeys.getInt(position * 4));
+        for (int offset = 0; offset < oldSlots.capacity(); offset += SLOT_SIZE) {
+            if (oldSlots.getInt(offset + POSITION_OFFSET) == 0)
+                continue;
+            int slot = find(oldSlots.getInt(offset));
+            slots.putInt(slot, oldSlots.getInt(offset));
+            slots.putInt(slot + POSITION_OFFSET, oldSlots.getInt(offset + POSITION_OFFSET));
+            slots.putLong(slot + SUM_OFFSET, oldSlots.getLong(offset + SUM_OFFSET));
+        }
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
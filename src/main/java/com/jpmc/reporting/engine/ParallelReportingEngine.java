@@ -0,0 +1,106 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Implementation of reporting engine that aggregates instructions on all available cores.
+ * Instruction data is recursively split into chunks on a {@link ForkJoinPool}; each chunk is
+ * aggregated into its own {@link ReportAggregator} and partial aggregators are combined in input
+ * order, so the final report is the same as the one produced by {@link FusedReportingEngine}.
+ * The {@link TradeOperationsProvider} given to this engine is shared across worker threads and
+ * must therefore be thread safe.
+ */
+public class ParallelReportingEngine implements ReportingEngine {
+
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int rankingLimit;
+
+    public ParallelReportingEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelReportingEngine(ForkJoinPool pool, int chunkSize) {
+        this(pool, chunkSize, ReportFigures.FULL_RANKING);
+    }
+
+    /**
+     * @param pool - pool running aggregation tasks
+     * @param chunkSize - maximum number of instructions aggregated by a single task
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     */
+    public ParallelReportingEngine(ForkJoinPool pool, int chunkSize, int rankingLimit) {
+
+        if (pool == null || chunkSize <= 0)
+            throw new IllegalArgumentException("A valid pool and chunk size are required for parallel reporting");
+        if (rankingLimit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.rankingLimit = rankingLimit;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+
+        List<Instruction> instructions = inProvider.retrieveInstructions();
+
+        if (instructions == null || instructions.isEmpty())
+            throw new IllegalArgumentException("Instructions must not be null/empty for report generation");
+        if (!(instructions instanceof RandomAccess))
+            instructions = new ArrayList<>(instructions);
+
+        ReportAggregator aggregator = pool.invoke(new AggregationTask(instructions, 0, instructions.size(), top));
+
+        aggregator.writeReport(out, Currency.getInstance("USD"), rankingLimit);
+    }
+
+    private final class AggregationTask extends RecursiveTask<ReportAggregator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Instruction> instructions;
+        private final int from;
+        private final int to;
+        private final TradeOperationsProvider top;
+
+        AggregationTask(List<Instruction> instructions, int from, int to, TradeOperationsProvider top) {
+            this.instructions = instructions;
+            this.from = from;
+            this.to = to;
+            this.top = top;
+        }
+
+        @Override
+        protected ReportAggregator compute() {
+
+            if (to - from <= chunkSize) {
+                ReportAggregator aggregator = new ReportAggregator(top);
+                for (int i = from; i < to; i++)
+                    aggregator.accept(instructions.get(i));
+                return aggregator;
+            }
+
+            int middle = (from + to) >>> 1;
+            AggregationTask right = new AggregationTask(instructions, middle, to, top);
+            right.fork();
+            ReportAggregator left = new AggregationTask(instructions, from, middle, top).compute();
+            return left.combine(right.join());
+        }
+    }
+}
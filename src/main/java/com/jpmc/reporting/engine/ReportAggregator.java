@@ -0,0 +1,145 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Map.Entry.comparingByKey;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Accumulates all the figures needed by the daily report in a single visit of each
+ * instruction. Settlement date and trade amount are calculated once per instruction by means
+ * of {@link TradeOperationsProvider} and added both to the daily settled amount and to the
+ * entity ranking of the instruction operation.
+ * Aggregators are not thread safe. Concurrent callers should use one aggregator each and
+ * {@link #combine(ReportAggregator)} them at the end.
+ */
+public class ReportAggregator implements ReportFigures {
+
+    private final TradeOperationsProvider top;
+    private final Map<Operation, Map<LocalDate, BigDecimal>> settledAmounts;
+    private final Map<Operation, Map<String, BigDecimal>> entityAmounts;
+    private long instructionCount;
+
+    public ReportAggregator(TradeOperationsProvider top) {
+
+        if (top == null)
+            throw new IllegalArgumentException("A trade operations provider is required for report aggregation");
+
+        this.top = top;
+        this.settledAmounts = new EnumMap<>(Operation.class);
+        this.entityAmounts = new EnumMap<>(Operation.class);
+
+        for (Operation op : Operation.values()) {
+            settledAmounts.put(op, new HashMap<>());
+            entityAmounts.put(op, new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Adds a single instruction to daily settled amount and entity ranking of its operation
+     * @param instruction - instruction to be aggregated
+     */
+    public void accept(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for report aggregation");
+
+        LocalDate settlementDate = top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+        BigDecimal amount = top.calculateInstructionTradeAmount(instruction);
+        add(instruction.getTradeOperation(), settlementDate, instruction.getEntity(), amount);
+    }
+
+    /**
+     * Adds the figures of a single instruction whose settlement date and amount were already
+     * calculated, e.g. converted to another reporting currency
+     * @param op - operation of instruction
+     * @param settlementDate - effective settlement date of instruction
+     * @param entity - entity of instruction
+     * @param amount - trade amount of instruction
+     */
+    public void add(Operation op, LocalDate settlementDate, String entity, BigDecimal amount) {
+
+        settledAmounts.get(op).merge(settlementDate, amount, BigDecimal::add);
+        entityAmounts.get(op).merge(entity, amount, BigDecimal::add);
+        instructionCount++;
+    }
+
+    /**
+     * Merges figures accumulated by another aggregator into this one. Entities first seen by
+     * the other aggregator are appended after the ones already known, so combining partial
+     * aggregators in input order preserves the order in which entities were first seen.
+     * @param other - aggregator to merge into this one
+     * @return - this aggregator
+     */
+    public ReportAggregator combine(ReportAggregator other) {
+
+        for (Operation op : Operation.values()) {
+            Map<LocalDate, BigDecimal> settled = settledAmounts.get(op);
+            other.settledAmounts.get(op).forEach((k, v) -> settled.merge(k, v, BigDecimal::add));
+            Map<String, BigDecimal> entities = entityAmounts.get(op);
+            other.entityAmounts.get(op).forEach((k, v) -> entities.merge(k, v, BigDecimal::add));
+        }
+        instructionCount += other.instructionCount;
+        return this;
+    }
+
+    /**
+     * @return - number of instructions aggregated so far
+     */
+    public long getInstructionCount() {
+        return instructionCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> getDailySettledAmount(Operation op) {
+
+        return settledAmounts.get(op).entrySet().stream()
+                .sorted(comparingByKey())
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op) {
+
+        return entityAmounts.get(op).entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Top ranked entities are selected with a bounded {@link TopKRanking}.
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op, int limit) {
+
+        if (limit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        Map<String, BigDecimal> entities = entityAmounts.get(op);
+        if (limit >= entities.size())
+            return getEntityRanking(op);
+
+        TopKRanking<Map.Entry<String, BigDecimal>> topRanking =
+                new TopKRanking<>(limit, Map.Entry.<String, BigDecimal>comparingByValue().reversed());
+        entities.entrySet().forEach(topRanking::offer);
+
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        topRanking.toList().forEach(e -> ranking.put(e.getKey(), e.getValue()));
+        return ranking;
+    }
+}
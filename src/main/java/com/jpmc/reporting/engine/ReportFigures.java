@@ -0,0 +1,82 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Figures shown by the daily report once instructions have been aggregated
+ */
+public interface ReportFigures {
+
+    /**
+     * Ranking limit to be used when every entity must be ranked
+     */
+    int FULL_RANKING = Integer.MAX_VALUE;
+
+    /**
+     * Returns daily trade value of outgoing or incoming instructions sorted by settlement date
+     * @param op - outgoing/incoming operation
+     * @return - key/value pair of date and settled amount
+     */
+    Map<LocalDate, BigDecimal> getDailySettledAmount(Operation op);
+
+    /**
+     * Returns ranking of entities by highest outgoing/incoming instruction amount. Entities with
+     * the same amount keep the order in which they were first seen.
+     * @param op - outgoing/incoming operation
+     * @return - key/value pairs of entity name and total instruction amount
+     */
+    Map<String, BigDecimal> getEntityRanking(Operation op);
+
+    /**
+     * Same as {@link #getEntityRanking(Operation)} limited to the top ranked entities. Default
+     * implementation truncates the full ranking; implementations should override it to avoid
+     * sorting every entity.
+     * @param op - outgoing/incoming operation
+     * @param limit - maximum number of entities ranked
+     * @return - key/value pairs of entity name and total instruction amount
+     */
+    default Map<String, BigDecimal> getEntityRanking(Operation op, int limit) {
+
+        if (limit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        return getEntityRanking(op).entrySet().stream()
+                .limit(limit)
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * Sends figures to the output channel in the same order used by {@link SimpleReportingEngine}
+     * @param out - desired channel for output data
+     * @param currency - currency amounts are expressed in
+     */
+    default void writeReport(ReportWriter out, Currency currency) {
+        writeReport(out, currency, FULL_RANKING);
+    }
+
+    /**
+     * Same as {@link #writeReport(ReportWriter, Currency)} with entity rankings limited to the
+     * top ranked entities
+     * @param out - desired channel for output data
+     * @param currency - currency amounts are expressed in
+     * @param rankingLimit - maximum number of entities ranked, or {@link #FULL_RANKING}
+     */
+    default void writeReport(ReportWriter out, Currency currency, int rankingLimit) {
+
+        out.writeReportHeader();
+        out.writeReport(getDailySettledAmount(Operation.SELL), currency, "amountSettled", Operation.SELL);
+        out.writeReport(getDailySettledAmount(Operation.BUY), currency, "amountSettled", Operation.BUY);
+        out.writeReport(getEntityRanking(Operation.SELL, rankingLimit), currency, "ranking", Operation.SELL);
+        out.writeReport(getEntityRanking(Operation.BUY, rankingLimit), currency, "ranking", Operation.BUY);
+        out.writeReportFooter();
+    }
+}
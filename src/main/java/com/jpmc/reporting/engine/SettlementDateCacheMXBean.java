@@ -0,0 +1,27 @@
+package com.jpmc.reporting.engine;
+
+/**
+ * JMX view of the settlement date cache of a {@link CachingTradeOperationsProvider}
+ */
+public interface SettlementDateCacheMXBean {
+
+    /**
+     * @return - number of settlement dates found in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return - number of settlement dates calculated by the underlying provider
+     */
+    long getMissCount();
+
+    /**
+     * @return - share of settlement dates found in the cache, between 0 and 1
+     */
+    double getHitRate();
+
+    /**
+     * @return - maximum number of settlement dates held by the cache
+     */
+    int getCapacity();
+}
@@ -1,18 +1,40 @@
 package com.jpmc.reporting.engine;
 
+import com.jpmc.reporting.calendar.SettlementCalendar;
+import com.jpmc.reporting.calendar.WeekendSettlementCalendar;
 import com.jpmc.reporting.model.Instruction;
 import com.jpmc.reporting.model.Operation;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiFunction;
 
 import static java.util.Map.Entry.comparingByKey;
 import static java.util.Map.Entry.comparingByValue;
 import static java.util.stream.Collectors.*;
 
 public class SimpleTradeOperationsProvider implements TradeOperationsProvider {
+
+    private final SettlementCalendar calendar;
+
+    public SimpleTradeOperationsProvider() {
+        this(new WeekendSettlementCalendar());
+    }
+
+    /**
+     * Creates a provider that resolves settlement dates by means of the given calendar
+     * @param calendar - calendar of working days of currency markets
+     */
+    public SimpleTradeOperationsProvider(SettlementCalendar calendar) {
+
+        if (calendar == null)
+            throw new IllegalArgumentException("A settlement calendar is required for trade operations");
+
+        this.calendar = calendar;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -21,16 +43,7 @@ public class SimpleTradeOperationsProvider implements TradeOperationsProvider {
         if (instructionDate == null || currency == null)
             throw new IllegalArgumentException("A valid date and currency symbol are required for settlement date calculation");
 
-        LocalDate settlementDate = instructionDate.plusDays(1);
-
-        if (isWorkingDay(settlementDate, currency)) {
-            return settlementDate;
-        } else {
-            while (!isWorkingDay(settlementDate, currency)) {
-                settlementDate = settlementDate.plusDays(1);
-            }
-            return settlementDate;
-        }
+        return calendar.settlementDate(instructionDate, currency);
     }
 
     /**
@@ -38,13 +51,24 @@ public class SimpleTradeOperationsProvider implements TradeOperationsProvider {
      */
     @Override
     public Map<LocalDate, BigDecimal> calculateDailySettledAmount(List<Instruction> instructions, Operation op) {
+        return calculateDailySettledAmount(instructions, op, this::calculateSettlementDate);
+    }
+
+    /**
+     * Same as {@link #calculateDailySettledAmount(List, Operation)} with settlement dates looked up
+     * through the given function, so that a decorator may supply them while amounts are still
+     * calculated and summed the way this provider does
+     * @param settlementDates - settlement date of an instruction date and currency
+     */
+    public Map<LocalDate, BigDecimal> calculateDailySettledAmount(List<Instruction> instructions, Operation op,
+                                                                  BiFunction<LocalDate, Currency, LocalDate> settlementDates) {
 
         if (instructions == null || instructions.isEmpty() || op == null)
             throw new IllegalArgumentException("Instructions and operations must not be null/empty for amount settled calculation");
 
         return instructions.stream()
                 .filter(instruction -> instruction.getTradeOperation().equals(op))
-                .collect(groupingBy(filteredInstr -> this.calculateSettlementDate(filteredInstr.getInstructionDate(), filteredInstr.getCurrency()),
+                .collect(groupingBy(filteredInstr -> settlementDates.apply(filteredInstr.getInstructionDate(), filteredInstr.getCurrency()),
                         mapping(this::calculateInstructionTradeAmount, reducing(BigDecimal.ZERO, BigDecimal::add))))
                 .entrySet().stream()
                 .sorted(comparingByKey())
@@ -64,7 +88,7 @@ public class SimpleTradeOperationsProvider implements TradeOperationsProvider {
         return instruction.getUnitPrice()
                 .multiply(BigDecimal.valueOf(instruction.getUnits()))
                 .multiply(instruction.getAgreedFx())
-                .setScale(2, BigDecimal.ROUND_HALF_EVEN);
+                .setScale(2, RoundingMode.HALF_EVEN);
     }
 
     /**
@@ -85,15 +109,4 @@ public class SimpleTradeOperationsProvider implements TradeOperationsProvider {
                 .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
     }
 
-    private boolean isWorkingDay(LocalDate instructionDate, Currency currency) {
-        EnumSet<DayOfWeek> workingWeek = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
-        EnumSet<DayOfWeek> altWorkingWeek = EnumSet.range(DayOfWeek.THURSDAY, DayOfWeek.SUNDAY);
-
-        if ("AED".equals(currency.getCurrencyCode()) || "SAR".equals(currency.getCurrencyCode()))
-            return altWorkingWeek.contains(instructionDate.getDayOfWeek());
-        else
-            return workingWeek.contains(instructionDate.getDayOfWeek());
-    }
-
-
 }
@@ -0,0 +1,52 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.util.Currency;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of reporting engine that consumes instructions as a stream by means of
+ * {@link InputDataProvider#streamInstructions()}. Each instruction is aggregated as soon as it is
+ * read and then discarded, so memory used by the engine is bounded by the number of distinct
+ * settlement dates and entities rather than by the number of instructions
+ */
+public class StreamingReportingEngine implements ReportingEngine {
+
+    private final int rankingLimit;
+
+    public StreamingReportingEngine() {
+        this(ReportFigures.FULL_RANKING);
+    }
+
+    /**
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     */
+    public StreamingReportingEngine(int rankingLimit) {
+
+        if (rankingLimit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        this.rankingLimit = rankingLimit;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+
+        ReportAggregator aggregator = new ReportAggregator(top);
+
+        try (Stream<Instruction> instructions = inProvider.streamInstructions()) {
+            instructions.forEach(aggregator::accept);
+        }
+
+        if (aggregator.getInstructionCount() == 0)
+            throw new IllegalArgumentException("Instructions must not be null/empty for report generation");
+
+        aggregator.writeReport(out, Currency.getInstance("USD"), rankingLimit);
+    }
+}
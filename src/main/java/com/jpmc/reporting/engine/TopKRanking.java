@@ -0,0 +1,103 @@
+package com.jpmc.reporting.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the best K keys offered according to a ranking order, by means of a min-heap bounded to K
+ * entries, so ranking n keys costs O(n log K) instead of a full sort. Keys ranked equal are
+ * ordered by the position they were offered at, lowest first.
+ * Rankings built over disjoint partitions of the same keys can be merged; positions are kept, so
+ * partitions of one input offered with their input positions merge into the same ranking a
+ * single pass over the whole input would give.
+ * Not thread safe.
+ *
+ * @param <K> - type of ranked keys
+ */
+public class TopKRanking<K> {
+
+    private final int limit;
+    private final Comparator<Ranked<K>> order;
+    private final PriorityQueue<Ranked<K>> heap;
+    private long nextPosition;
+
+    /**
+     * @param limit - maximum number of keys kept
+     * @param order - ranking order of keys, top ranked key first
+     */
+    public TopKRanking(int limit, Comparator<? super K> order) {
+
+        if (limit <= 0 || order == null)
+            throw new IllegalArgumentException("A positive limit and a ranking order are required for top ranking");
+
+        this.limit = limit;
+        this.order = Comparator.<Ranked<K>, K>comparing(ranked -> ranked.key, order)
+                .thenComparingLong(ranked -> ranked.position);
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, this.order.reversed());
+    }
+
+    /**
+     * Offers a key at the position following the last one offered
+     * @param key - key to be ranked
+     */
+    public void offer(K key) {
+        offer(key, nextPosition);
+    }
+
+    /**
+     * Offers a key at the given position
+     * @param key - key to be ranked
+     * @param position - position of key in input, used to order keys ranked equal
+     */
+    public void offer(K key, long position) {
+
+        nextPosition = Math.max(nextPosition, position + 1);
+        Ranked<K> ranked = new Ranked<>(key, position);
+
+        if (heap.size() < limit) {
+            heap.add(ranked);
+        } else if (order.compare(ranked, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(ranked);
+        }
+    }
+
+    /**
+     * Merges keys kept by a ranking of another partition into this one
+     * @param other - ranking to merge into this one
+     * @return - this ranking
+     */
+    public TopKRanking<K> merge(TopKRanking<K> other) {
+
+        for (Ranked<K> ranked : other.heap)
+            offer(ranked.key, ranked.position);
+        return this;
+    }
+
+    /**
+     * @return - keys kept, top ranked first
+     */
+    public List<K> toList() {
+
+        List<Ranked<K>> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+
+        List<K> keys = new ArrayList<>(sorted.size());
+        for (Ranked<K> ranked : sorted)
+            keys.add(ranked.key);
+        return keys;
+    }
+
+    private static final class Ranked<K> {
+
+        private final K key;
+        private final long position;
+
+        Ranked(K key, long position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.jpmc.reporting.fx;
+
+import com.jpmc.reporting.engine.FixedPoint;
+import com.jpmc.reporting.model.CurrencyDictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily FX rates of currencies against USD. Rates between any two currencies are triangulated
+ * through USD. A date without rates of its own, e.g. a weekend, uses the latest rates known
+ * before it, and dates after the last one use the last rates.
+ * Rates are held in primitive matrices indexed by day and {@link CurrencyDictionary} id, as
+ * unscaled longs with {@value #RATE_SCALE} decimal digits, so converting an amount is a couple
+ * of array lookups and a fixed point multiplication. Tables are immutable and safe to share
+ * between threads.
+ */
+public final class FxRateTable {
+
+    public static final int RATE_SCALE = 10;
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final int CURRENCIES = CurrencyDictionary.size();
+    private static final long ONE = BigDecimal.ONE.movePointRight(RATE_SCALE).longValueExact();
+
+    private final long firstDay;
+    private final int days;
+    private final long[] usdPerUnit;
+    private final long[] unitsPerUsd;
+
+    public static class Builder {
+
+        private final TreeMap<LocalDate, Map<Currency, BigDecimal>> usdRates = new TreeMap<>();
+
+        /**
+         * @param date - date the rate applies from
+         * @param base - currency of which one unit is quoted
+         * @param quote - currency the rate is expressed in, one of base and quote being USD
+         * @param rate - units of quote currency for one unit of base currency
+         */
+        public Builder rate(LocalDate date, Currency base, Currency quote, BigDecimal rate) {
+
+            if (date == null || base == null || quote == null || rate == null || rate.signum() <= 0
+                    || base.equals(quote) || (!USD.equals(base) && !USD.equals(quote)))
+                throw new IllegalArgumentException("A date and a positive rate of a currency against USD are required for FX rates");
+
+            Map<Currency, BigDecimal> rates = usdRates.computeIfAbsent(date, k -> new HashMap<>());
+            if (USD.equals(quote))
+                rates.put(base, rate);
+            else
+                rates.put(quote, BigDecimal.ONE.divide(rate, MathContext.DECIMAL128));
+            return this;
+        }
+
+        public FxRateTable build() {
+
+            if (usdRates.isEmpty())
+                throw new IllegalArgumentException("At least one rate is required for FX rates");
+
+            return new FxRateTable(this);
+        }
+    }
+
+    private FxRateTable(Builder builder) {
+
+        TreeMap<LocalDate, Map<Currency, BigDecimal>> usdRates = builder.usdRates;
+        firstDay = usdRates.firstKey().toEpochDay();
+        days = (int) (usdRates.lastKey().toEpochDay() - firstDay + 1);
+        usdPerUnit = new long[days * CURRENCIES];
+        unitsPerUsd = new long[days * CURRENCIES];
+
+        int usd = CurrencyDictionary.idOf(USD);
+        for (int day = 0; day < days; day++) {
+            int row = day * CURRENCIES;
+            if (day > 0) {
+                System.arraycopy(usdPerUnit, row - CURRENCIES, usdPerUnit, row, CURRENCIES);
+                System.arraycopy(unitsPerUsd, row - CURRENCIES, unitsPerUsd, row, CURRENCIES);
+            }
+            usdPerUnit[row + usd] = ONE;
+            unitsPerUsd[row + usd] = ONE;
+
+            Map<Currency, BigDecimal> rates = usdRates.get(LocalDate.ofEpochDay(firstDay + day));
+            if (rates == null)
+                continue;
+            for (Map.Entry<Currency, BigDecimal> rate : rates.entrySet()) {
+                int id = CurrencyDictionary.idOf(rate.getKey());
+                usdPerUnit[row + id] = toRate(rate.getValue());
+                unitsPerUsd[row + id] = toRate(BigDecimal.ONE.divide(rate.getValue(), MathContext.DECIMAL128));
+            }
+        }
+    }
+
+    /**
+     * Loads rates from a file with one rate per line in the format
+     * <pre>date,base,quote,rate</pre>
+     * where date uses the ISO yyyy-MM-dd format, base and quote are ISO 4217 codes one of which
+     * is USD, and rate is the number of units of quote currency for one unit of base currency.
+     * Empty lines and lines starting with # are ignored.
+     * @param file - file holding the rates
+     * @return - table of the loaded rates
+     */
+    public static FxRateTable load(Path file) {
+
+        if (file == null)
+            throw new IllegalArgumentException("A file is required for FX rates");
+
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] fields = line.split(",");
+                try {
+                    if (fields.length != 4)
+                        throw new IllegalArgumentException("expected 4 fields");
+                    builder.rate(LocalDate.parse(fields[0].trim()), Currency.getInstance(fields[1].trim()),
+                            Currency.getInstance(fields[2].trim()), new BigDecimal(fields[3].trim()));
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    throw new IllegalArgumentException("Malformed FX rate at line " + lineNumber + " of " + file + ": " + ex.getMessage(), ex);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read FX rates " + file, ex);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param date - date of the rate
+     * @param from - currency converted from
+     * @param to - currency converted to
+     * @return - units of currency converted to for one unit of currency converted from
+     */
+    public BigDecimal rate(LocalDate date, Currency from, Currency to) {
+
+        if (date == null || from == null || to == null)
+            throw new IllegalArgumentException("A date and currencies are required for FX rate");
+
+        int row = rowOf(date.toEpochDay());
+        long usdPerFrom = usdPerUnit(row, from, date);
+        long toPerUsd = unitsPerUsd(row, to, date);
+        return BigDecimal.valueOf(usdPerFrom, RATE_SCALE)
+                .multiply(BigDecimal.valueOf(toPerUsd, RATE_SCALE))
+                .setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Converts a USD amount, rounding HALF_EVEN to {@link FixedPoint#AMOUNT_SCALE} decimal digits
+     * @param usdAmount - amount in USD
+     * @param date - date of the rate
+     * @param to - currency converted to
+     * @return - amount in the currency converted to
+     */
+    public BigDecimal convertFromUsd(BigDecimal usdAmount, LocalDate date, Currency to) {
+
+        if (usdAmount == null || date == null || to == null)
+            throw new IllegalArgumentException("An amount, a date and a currency are required for FX conversion");
+
+        long rate = unitsPerUsd(rowOf(date.toEpochDay()), to, date);
+        long unscaled = FixedPoint.fromBigDecimal(usdAmount);
+        if (unscaled != FixedPoint.NOT_REPRESENTABLE) {
+            try {
+                long converted = FixedPoint.rescale(Math.multiplyExact(unscaled, rate), FixedPoint.AMOUNT_SCALE + RATE_SCALE);
+                if (converted != FixedPoint.NOT_REPRESENTABLE)
+                    return FixedPoint.toBigDecimal(converted);
+            } catch (ArithmeticException ex) {
+                // falls back to BigDecimal arithmetic
+            }
+        }
+        return usdAmount.multiply(BigDecimal.valueOf(rate, RATE_SCALE)).setScale(FixedPoint.AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * @return - first date of the table
+     */
+    public LocalDate getFirstDate() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    private int rowOf(long epochDay) {
+
+        long day = epochDay - firstDay;
+        if (day < 0)
+            throw new IllegalArgumentException("No FX rates are known before " + getFirstDate() + ": " + LocalDate.ofEpochDay(epochDay));
+        return (int) Math.min(day, days - 1) * CURRENCIES;
+    }
+
+    private long usdPerUnit(int row, Currency currency, LocalDate date) {
+        return checkKnown(usdPerUnit[row + CurrencyDictionary.idOf(currency)], currency, date);
+    }
+
+    private long unitsPerUsd(int row, Currency currency, LocalDate date) {
+        return checkKnown(unitsPerUsd[row + CurrencyDictionary.idOf(currency)], currency, date);
+    }
+
+    private static long checkKnown(long rate, Currency currency, LocalDate date) {
+
+        if (rate == 0)
+            throw new IllegalArgumentException("No FX rate of " + currency + " is known on " + date);
+        return rate;
+    }
+
+    private static long toRate(BigDecimal rate) {
+
+        try {
+            return rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("FX rate " + rate + " is out of the supported range", ex);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.jpmc.reporting.fx;
+
+import com.jpmc.reporting.engine.ReportAggregator;
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Accumulates the figures of the daily report in several reporting currencies in a single visit
+ * of each instruction. Settlement date and USD trade amount are calculated once per instruction
+ * by means of {@link TradeOperationsProvider}; the amount is then converted to every reporting
+ * currency at the rate of the settlement date and added to a {@link ReportAggregator} of that
+ * currency. USD amounts are added as they are.
+ * Aggregators are not thread safe. Concurrent callers should use one aggregator each and
+ * {@link #combine(FxReportAggregator)} them at the end.
+ */
+public class FxReportAggregator {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private final TradeOperationsProvider top;
+    private final FxRateTable rates;
+    private final Currency[] currencies;
+    private final ReportAggregator[] aggregators;
+
+    /**
+     * @param top - trade operations used to calculate settlement date and USD amount
+     * @param rates - rates converting USD amounts to reporting currencies
+     * @param reportingCurrencies - currencies figures are reported in
+     */
+    public FxReportAggregator(TradeOperationsProvider top, FxRateTable rates, Collection<Currency> reportingCurrencies) {
+
+        if (top == null || rates == null || reportingCurrencies == null || reportingCurrencies.isEmpty()
+                || reportingCurrencies.stream().anyMatch(Objects::isNull))
+            throw new IllegalArgumentException("Trade operations, FX rates and reporting currencies are required for FX report aggregation");
+
+        this.top = top;
+        this.rates = rates;
+        this.currencies = reportingCurrencies.stream().distinct().toArray(Currency[]::new);
+        this.aggregators = new ReportAggregator[currencies.length];
+        for (int i = 0; i < aggregators.length; i++)
+            aggregators[i] = new ReportAggregator(top);
+    }
+
+    /**
+     * Adds a single instruction to the figures of every reporting currency
+     * @param instruction - instruction to be aggregated
+     */
+    public void accept(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for report aggregation");
+
+        LocalDate settlementDate = top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+        BigDecimal usdAmount = top.calculateInstructionTradeAmount(instruction);
+
+        for (int i = 0; i < currencies.length; i++) {
+            BigDecimal amount = USD.equals(currencies[i]) ? usdAmount : rates.convertFromUsd(usdAmount, settlementDate, currencies[i]);
+            aggregators[i].add(instruction.getTradeOperation(), settlementDate, instruction.getEntity(), amount);
+        }
+    }
+
+    /**
+     * Merges figures accumulated by another aggregator for the same reporting currencies
+     * @param other - aggregator to merge into this one
+     * @return - this aggregator
+     */
+    public FxReportAggregator combine(FxReportAggregator other) {
+
+        for (int i = 0; i < aggregators.length; i++)
+            aggregators[i].combine(other.aggregators[i]);
+        return this;
+    }
+
+    /**
+     * @return - number of instructions aggregated so far
+     */
+    public long getInstructionCount() {
+        return aggregators[0].getInstructionCount();
+    }
+
+    /**
+     * @param currency - one of the reporting currencies
+     * @return - figures expressed in the given currency
+     */
+    public ReportFigures getFigures(Currency currency) {
+
+        for (int i = 0; i < currencies.length; i++) {
+            if (currencies[i].equals(currency))
+                return aggregators[i];
+        }
+        throw new IllegalArgumentException("Currency " + currency + " is not a reporting currency of the aggregator");
+    }
+
+    /**
+     * @return - figures of every reporting currency, in the order currencies were given
+     */
+    public Map<Currency, ReportFigures> getFigures() {
+
+        Map<Currency, ReportFigures> figures = new LinkedHashMap<>();
+        for (int i = 0; i < currencies.length; i++)
+            figures.put(currencies[i], aggregators[i]);
+        return figures;
+    }
+}
@@ -0,0 +1,78 @@
+package com.jpmc.reporting.fx;
+
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.ReportingEngine;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reporting engine expressing report amounts in a configurable reporting currency rather than
+ * in USD. Trade amounts are calculated in USD through each instruction agreed fx, as every other
+ * engine does, and converted by means of an {@link FxRateTable} at the rate of their settlement
+ * date. Reports in several currencies are produced by {@link #generateReports} from a single
+ * pass over instructions, which are streamed rather than retrieved all together.
+ */
+public class FxReportingEngine implements ReportingEngine {
+
+    private final FxRateTable rates;
+    private final Currency reportingCurrency;
+    private final int rankingLimit;
+
+    public FxReportingEngine(FxRateTable rates, Currency reportingCurrency) {
+        this(rates, reportingCurrency, ReportFigures.FULL_RANKING);
+    }
+
+    /**
+     * @param rates - rates converting USD amounts to reporting currencies
+     * @param reportingCurrency - currency of reports generated by {@link #generateReport}
+     * @param rankingLimit - maximum number of entities shown in rankings, or {@link ReportFigures#FULL_RANKING}
+     */
+    public FxReportingEngine(FxRateTable rates, Currency reportingCurrency, int rankingLimit) {
+
+        if (rates == null || reportingCurrency == null || rankingLimit <= 0)
+            throw new IllegalArgumentException("FX rates, a reporting currency and a positive ranking limit are required for FX reporting");
+
+        this.rates = rates;
+        this.reportingCurrency = reportingCurrency;
+        this.rankingLimit = rankingLimit;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Amounts are expressed in the reporting currency of the engine.
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+        generateReports(inProvider, top, Collections.singletonMap(reportingCurrency, out));
+    }
+
+    /**
+     * Generates the report in every given currency from a single pass over instruction data
+     * @param inProvider - provider fo retrieval of input data
+     * @param top - provider of operations applicable to forex trade instructions
+     * @param outs - desired channel for output data of every reporting currency
+     */
+    public void generateReports(InputDataProvider inProvider, TradeOperationsProvider top, Map<Currency, ReportWriter> outs) {
+
+        if (outs == null || outs.isEmpty() || outs.containsValue(null))
+            throw new IllegalArgumentException("An output channel per reporting currency is required for FX reporting");
+
+        FxReportAggregator aggregator = new FxReportAggregator(top, rates, outs.keySet());
+
+        try (Stream<Instruction> instructions = inProvider.streamInstructions()) {
+            instructions.forEach(aggregator::accept);
+        }
+
+        if (aggregator.getInstructionCount() == 0)
+            throw new IllegalArgumentException("Instructions must not be null/empty for report generation");
+
+        outs.forEach((currency, out) -> aggregator.getFigures(currency).writeReport(out, currency, rankingLimit));
+    }
+}
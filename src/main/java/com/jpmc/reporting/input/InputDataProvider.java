@@ -3,6 +3,7 @@ package com.jpmc.reporting.input;
 import com.jpmc.reporting.model.Instruction;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InputDataProvider {
     /**
@@ -10,4 +11,16 @@ public interface InputDataProvider {
      * @return instructions input data
      */
     List<Instruction> retrieveInstructions();
+
+    /**
+     * Provides a lazy view of instructions data from desired input channel. Implementations
+     * backed by large sources should override this method so that instructions are produced
+     * one at a time and never held in memory all together. Callers must close the returned
+     * stream to release any underlying resource.
+     * Default implementation streams over {@link #retrieveInstructions()}
+     * @return instructions input data
+     */
+    default Stream<Instruction> streamInstructions() {
+        return retrieveInstructions().stream();
+    }
 }
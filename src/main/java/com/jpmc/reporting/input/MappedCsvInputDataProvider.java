@@ -0,0 +1,505 @@
+package com.jpmc.reporting.input;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.model.RawInstructionBatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Currency;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * File backed implementation of {@link InputDataProvider}. Instructions are read from a CSV file
+ * with the following columns:
+ * <pre>entity,operation,agreedFx,currency,instructionDate,settlementDate,units,unitPrice</pre>
+ * where operation is either B(UY) or S(ELL), currency is an ISO 4217 code and dates use the ISO
+ * yyyy-MM-dd format. Settlement date may be left empty.
+ * The file is memory mapped one region at a time and every field is parsed straight from the
+ * mapped bytes, so no intermediate String is created per line. Entity names are encoded with an
+ * {@link EntityDictionary} straight from their bytes, while currencies and dates repeated across
+ * lines are resolved through small caches, so all of them are shared between instructions.
+ * A dictionary given on construction is shared with consumers of the instructions, such as
+ * {@link com.jpmc.reporting.engine.ColumnarReportingEngine}, which then find every entity already
+ * encoded. Being not thread safe, such a dictionary must not be used by concurrent streams.
+ * Lines can also be read into {@link RawInstructionBatch} columns with
+ * {@link #readBatches(RawInstructionBatch, int, Consumer)}, which records malformed fields
+ * instead of failing, for them to be rejected by batch validation.
+ */
+public class MappedCsvInputDataProvider implements InputDataProvider {
+
+    private static final int DEFAULT_REGION_SIZE = 1 << 28;
+    private static final int FIELD_COUNT = 8;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final Path file;
+    private final boolean hasHeader;
+    private final int regionSize;
+    private final EntityDictionary entities;
+
+    public MappedCsvInputDataProvider(Path file) {
+        this(file, true, DEFAULT_REGION_SIZE);
+    }
+
+    public MappedCsvInputDataProvider(Path file, EntityDictionary entities) {
+        this(file, true, DEFAULT_REGION_SIZE, entities);
+    }
+
+    public MappedCsvInputDataProvider(Path file, boolean hasHeader, int regionSize) {
+        this(file, hasHeader, regionSize, null);
+    }
+
+    /**
+     * @param file - CSV file to read instructions from
+     * @param hasHeader - whether first line of file is a header to be skipped
+     * @param regionSize - maximum number of bytes mapped at once
+     * @param entities - dictionary encoding entity names, or null to use a new one for every stream
+     */
+    public MappedCsvInputDataProvider(Path file, boolean hasHeader, int regionSize, EntityDictionary entities) {
+
+        if (file == null || regionSize <= 0)
+            throw new IllegalArgumentException("A valid file and region size are required for csv instruction input");
+
+        this.file = file;
+        this.hasHeader = hasHeader;
+        this.regionSize = regionSize;
+        this.entities = entities;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Instruction> retrieveInstructions() {
+
+        try (Stream<Instruction> instructions = streamInstructions()) {
+            return instructions.collect(toList());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Instruction> streamInstructions() {
+
+        try {
+            CsvSpliterator spliterator = new CsvSpliterator(FileChannel.open(file, StandardOpenOption.READ));
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open instruction file " + file, ex);
+        }
+    }
+
+    /**
+     * Reads every line of the file into a raw batch, handing the batch over whenever it holds
+     * the given number of rows and once more with the remaining rows. The batch is cleared
+     * before being filled again. Missing or malformed fields are recorded with the sentinel of
+     * their column without any exception being thrown, and lines without the expected number
+     * of fields with every field missing. Decimals longer than a long are kept exactly as
+     * {@link RawInstructionBatch#setLongDecimals long decimals}. A malformed settlement date is
+     * recorded as missing, since it is calculated anyway.
+     * @param batch - batch to be filled, whose dictionary encodes entity names
+     * @param batchSize - number of rows handed over at once
+     * @param action - consumer of filled batches
+     * @return - number of rows read
+     */
+    public long readBatches(RawInstructionBatch batch, int batchSize, Consumer<? super RawInstructionBatch> action) {
+
+        if (batch == null || batchSize <= 0 || action == null)
+            throw new IllegalArgumentException("A batch, a positive batch size and a consumer are required for csv batch input");
+
+        long rows = 0;
+        batch.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvSpliterator spliterator = new CsvSpliterator(channel, batch.getEntities());
+            while (spliterator.nextLine()) {
+                spliterator.parseColumns(batch);
+                rows++;
+                if (batch.size() == batchSize) {
+                    action.accept(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read instruction file " + file, ex);
+        }
+        if (batch.size() > 0) {
+            action.accept(batch);
+            batch.clear();
+        }
+        return rows;
+    }
+
+    private final class CsvSpliterator extends Spliterators.AbstractSpliterator<Instruction> {
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private final int[] fieldEnds = new int[FIELD_COUNT];
+        private final EntityDictionary entityNames;
+        private final Currency[] currencies = new Currency[26 * 26 * 26];
+        private MappedByteBuffer buffer;
+        private long regionStart;
+        private int limit;
+        private int pos;
+        private int lineStart;
+        private int lineEnd;
+        private long lineNumber;
+        private int lastPackedDate = -1;
+        private LocalDate lastDate;
+        private int parsedScale;
+        private int parsedDigits;
+
+        CsvSpliterator(FileChannel channel) throws IOException {
+            this(channel, entities != null ? entities : new EntityDictionary());
+        }
+
+        CsvSpliterator(FileChannel channel, EntityDictionary entityNames) throws IOException {
+
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.channel = channel;
+            this.fileSize = channel.size();
+            this.entityNames = entityNames;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Instruction> action) {
+
+            if (!nextLine())
+                return false;
+            action.accept(parseLine(lineStart, lineEnd));
+            return true;
+        }
+
+        /**
+         * Moves to the next line holding an instruction
+         * @return - whether there was one
+         */
+        boolean nextLine() {
+
+            while (true) {
+                if (buffer == null || pos >= limit) {
+                    if (!mapNextRegion())
+                        return false;
+                    continue;
+                }
+
+                lineStart = pos;
+                lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+                    lineEnd++;
+                pos = lineEnd + 1;
+                lineNumber++;
+
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r')
+                    lineEnd--;
+                if (lineEnd == lineStart || (hasHeader && lineNumber == 1))
+                    continue;
+                return true;
+            }
+        }
+
+        /**
+         * Appends the current line to a raw batch without failing on malformed fields
+         * @param batch - batch to append to
+         */
+        void parseColumns(RawInstructionBatch batch) {
+
+            int fields = 0;
+            for (int i = lineStart; i < lineEnd && fields < FIELD_COUNT; i++) {
+                if (buffer.get(i) == ',')
+                    fieldEnds[fields++] = i;
+            }
+            if (fields != FIELD_COUNT - 1) {
+                batch.add(RawInstructionBatch.NO_ENTITY, RawInstructionBatch.NO_OPERATION, RawInstructionBatch.INVALID_DECIMAL, 0,
+                        RawInstructionBatch.NO_CURRENCY, RawInstructionBatch.NO_DAY, RawInstructionBatch.NO_DAY,
+                        RawInstructionBatch.INVALID_UNITS, RawInstructionBatch.INVALID_DECIMAL, 0);
+                return;
+            }
+            fieldEnds[FIELD_COUNT - 1] = lineEnd;
+
+            long agreedFx = parseUnscaled(fieldEnds[1] + 1, fieldEnds[2]);
+            int agreedFxScale = parsedScale;
+            boolean longAgreedFx = agreedFx == RawInstructionBatch.INVALID_DECIMAL && parsedDigits > MAX_LONG_DIGITS;
+            long unitPrice = parseUnscaled(fieldEnds[6] + 1, lineEnd);
+            boolean longUnitPrice = unitPrice == RawInstructionBatch.INVALID_DECIMAL && parsedDigits > MAX_LONG_DIGITS;
+
+            batch.add(lineStart == fieldEnds[0] ? RawInstructionBatch.NO_ENTITY : entityNames.idOf(buffer, lineStart, fieldEnds[0]),
+                    operationOrdinal(fieldEnds[0] + 1, fieldEnds[1]),
+                    agreedFx,
+                    agreedFxScale,
+                    CurrencyDictionary.idOf(buffer, fieldEnds[2] + 1, fieldEnds[3]),
+                    epochDay(fieldEnds[3] + 1, fieldEnds[4]),
+                    epochDay(fieldEnds[4] + 1, fieldEnds[5]),
+                    parseUnits(fieldEnds[5] + 1, fieldEnds[6]),
+                    unitPrice,
+                    parsedScale);
+
+            if (longAgreedFx || longUnitPrice)
+                batch.setLongDecimals(batch.size() - 1,
+                        longAgreedFx ? new BigDecimal(asciiString(fieldEnds[1] + 1, fieldEnds[2])) : null,
+                        longUnitPrice ? new BigDecimal(asciiString(fieldEnds[6] + 1, lineEnd)) : null);
+        }
+
+        void close() {
+
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to close instruction file " + file, ex);
+            }
+        }
+
+        private boolean mapNextRegion() {
+
+            if (buffer != null)
+                regionStart += limit;
+            if (regionStart >= fileSize)
+                return false;
+
+            int length = (int) Math.min(regionSize, fileSize - regionStart);
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, length);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to map instruction file " + file, ex);
+            }
+
+            limit = length;
+            if (regionStart + length < fileSize) {
+                while (limit > 0 && buffer.get(limit - 1) != '\n')
+                    limit--;
+                if (limit == 0)
+                    throw new IllegalArgumentException("Line " + (lineNumber + 1) + " of " + file + " does not fit in a mapped region");
+            }
+            pos = 0;
+            return true;
+        }
+
+        private Instruction parseLine(int start, int end) {
+
+            int fields = 0;
+            for (int i = start; i < end && fields < FIELD_COUNT; i++) {
+                if (buffer.get(i) == ',')
+                    fieldEnds[fields++] = i;
+            }
+            if (fields != FIELD_COUNT - 1)
+                throw malformed("expected " + FIELD_COUNT + " fields", null);
+            fieldEnds[FIELD_COUNT - 1] = end;
+
+            try {
+                int settlementStart = fieldEnds[4] + 1;
+                return new Instruction.Builder()
+                        .entity(entityNames.nameOf(entityNames.idOf(buffer, start, fieldEnds[0])))
+                        .tradeOperation(parseOperation(fieldEnds[0] + 1, fieldEnds[1]))
+                        .agreedFx(parseDecimal(fieldEnds[1] + 1, fieldEnds[2]))
+                        .currency(parseCurrency(fieldEnds[2] + 1, fieldEnds[3]))
+                        .instructionDate(parseDate(fieldEnds[3] + 1, fieldEnds[4]))
+                        .settlementDate(settlementStart == fieldEnds[5] ? null : parseDate(settlementStart, fieldEnds[5]))
+                        .units(parseInt(fieldEnds[5] + 1, fieldEnds[6]))
+                        .unitPrice(parseDecimal(fieldEnds[6] + 1, end))
+                        .build();
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw malformed(ex.getMessage(), ex);
+            }
+        }
+
+        private Operation parseOperation(int start, int end) {
+
+            if (end > start) {
+                byte op = buffer.get(start);
+                if (op == 'B')
+                    return Operation.BUY;
+                if (op == 'S')
+                    return Operation.SELL;
+            }
+            throw new IllegalArgumentException("Unknown trade operation");
+        }
+
+        private Currency parseCurrency(int start, int end) {
+
+            if (end - start != 3)
+                throw new IllegalArgumentException("Currency must be a three letter ISO code");
+
+            int index = 0;
+            for (int i = start; i < end; i++) {
+                int letter = buffer.get(i) - 'A';
+                if (letter < 0 || letter >= 26)
+                    throw new IllegalArgumentException("Currency must be a three letter ISO code");
+                index = index * 26 + letter;
+            }
+
+            Currency currency = currencies[index];
+            if (currency == null) {
+                currency = Currency.getInstance(asciiString(start, end));
+                currencies[index] = currency;
+            }
+            return currency;
+        }
+
+        private LocalDate parseDate(int start, int end) {
+
+            int packed = packedDate(start, end);
+            if (packed < 0)
+                throw new IllegalArgumentException("Dates must be valid and use yyyy-MM-dd format");
+            return dateOf(packed);
+        }
+
+        private int parseInt(int start, int end) {
+
+            int value = parseUnits(start, end);
+            if (value == RawInstructionBatch.INVALID_UNITS)
+                throw new IllegalArgumentException("Invalid numeric value");
+            return value;
+        }
+
+        private BigDecimal parseDecimal(int start, int end) {
+
+            long unscaled = parseUnscaled(start, end);
+            if (unscaled != RawInstructionBatch.INVALID_DECIMAL)
+                return BigDecimal.valueOf(unscaled, parsedScale);
+            if (parsedDigits > MAX_LONG_DIGITS)
+                return new BigDecimal(asciiString(start, end));
+            throw new IllegalArgumentException("Invalid decimal number");
+        }
+
+        /**
+         * Parses a decimal number into an unscaled long, leaving its scale in {@link #parsedScale}
+         * @return - unscaled value, or {@link RawInstructionBatch#INVALID_DECIMAL} if malformed or
+         * longer than a long, in which case {@link #parsedDigits} tells which
+         */
+        private long parseUnscaled(int start, int end) {
+
+            boolean negative = end > start && buffer.get(start) == '-';
+            long unscaled = 0;
+            int digits = 0;
+            int scale = -1;
+
+            for (int i = negative ? start + 1 : start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b >= '0' && b <= '9') {
+                    unscaled = unscaled * 10 + (b - '0');
+                    digits++;
+                    if (scale >= 0)
+                        scale++;
+                } else {
+                    digits = 0;
+                    break;
+                }
+            }
+
+            parsedDigits = digits;
+            parsedScale = Math.max(scale, 0);
+            if (digits == 0 || digits > MAX_LONG_DIGITS)
+                return RawInstructionBatch.INVALID_DECIMAL;
+            return negative ? -unscaled : unscaled;
+        }
+
+        private byte operationOrdinal(int start, int end) {
+
+            byte op = end > start ? buffer.get(start) : 0;
+            return op == 'B' ? (byte) Operation.BUY.ordinal() : op == 'S' ? (byte) Operation.SELL.ordinal() : RawInstructionBatch.NO_OPERATION;
+        }
+
+        private int epochDay(int start, int end) {
+
+            int packed = packedDate(start, end);
+            return packed < 0 ? RawInstructionBatch.NO_DAY : (int) dateOf(packed).toEpochDay();
+        }
+
+        /**
+         * @return - date packed as year, month and day bits, or -1 if malformed or not a calendar date
+         */
+        private int packedDate(int start, int end) {
+
+            if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-')
+                return -1;
+
+            int year = digits(start, start + 4);
+            int month = digits(start + 5, start + 7);
+            int day = digits(start + 8, end);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year)))
+                return -1;
+            return (year << 9) | (month << 5) | day;
+        }
+
+        private LocalDate dateOf(int packed) {
+
+            if (packed != lastPackedDate) {
+                lastDate = LocalDate.of(packed >>> 9, (packed >>> 5) & 0xF, packed & 0x1F);
+                lastPackedDate = packed;
+            }
+            return lastDate;
+        }
+
+        /**
+         * @return - value of an optionally negative integer, or {@link RawInstructionBatch#INVALID_UNITS}
+         * if malformed or out of int range
+         */
+        private int parseUnits(int start, int end) {
+
+            boolean negative = end > start && buffer.get(start) == '-';
+            int digitsStart = negative ? start + 1 : start;
+            if (digitsStart == end)
+                return RawInstructionBatch.INVALID_UNITS;
+
+            long value = 0;
+            for (int i = digitsStart; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9)
+                    return RawInstructionBatch.INVALID_UNITS;
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE)
+                    return RawInstructionBatch.INVALID_UNITS;
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * @return - value of a non empty run of digits, or -1 if there is any other character
+         */
+        private int digits(int start, int end) {
+
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9)
+                    return -1;
+                value = value * 10 + digit;
+            }
+            return start == end ? -1 : value;
+        }
+
+        private String asciiString(int start, int end) {
+
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = buffer.get(start + i);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        private IllegalArgumentException malformed(String reason, Throwable cause) {
+            return new IllegalArgumentException("Malformed instruction at line " + lineNumber + " of " + file + ": " + reason, cause);
+        }
+    }
+}
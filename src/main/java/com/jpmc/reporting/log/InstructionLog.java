@@ -0,0 +1,259 @@
+package com.jpmc.reporting.log;
+
+import com.jpmc.reporting.model.Instruction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Local append only log of instructions, laid out as described in {@link LogFormat}. Every
+ * instruction is written as a length prefixed, checksummed binary record straight into a memory
+ * mapped segment file and is given the next offset of the log. Once a segment is full the log
+ * rolls over to a new one, so segments never move or grow. Every {@value LogFormat#INDEX_INTERVAL}th
+ * record of a segment is indexed, so readers can start from any offset without scanning the
+ * whole log.
+ * Records reach the operating system as soon as they are appended and are visible to
+ * {@link InstructionLogProvider} readers, also from other processes; {@link #flush()} forces them
+ * to disk. When a log is opened again, e.g. after a crash, a record that was not completely
+ * written is discarded and appending resumes after the last complete record.
+ * Not thread safe, and a directory must have a single writer at a time.
+ */
+public class InstructionLog implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+    private static final int MIN_SEGMENT_SIZE = 1 << 12;
+    private static final int MAX_CACHED_ENTITIES = 1 << 16;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(LogFormat.INDEX_ENTRY_SIZE);
+    private final Map<String, byte[]> entityBytes = new HashMap<>();
+    private long baseOffset;
+    private FileChannel segmentChannel;
+    private FileChannel indexChannel;
+    private MappedByteBuffer segment;
+    private int position;
+    private int records;
+    private boolean closed;
+
+    public InstructionLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory - log directory, created if it does not exist
+     * @param segmentSize - number of bytes preallocated for every new segment
+     */
+    public InstructionLog(Path directory, int segmentSize) {
+
+        if (directory == null || segmentSize < MIN_SEGMENT_SIZE)
+            throw new IllegalArgumentException("A directory and a segment size of at least " + MIN_SEGMENT_SIZE + " bytes are required for instruction log");
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException ex) {
+            closeQuietly();
+            throw new UncheckedIOException("Unable to open instruction log " + directory, ex);
+        }
+    }
+
+    /**
+     * Appends an instruction to the log
+     * @param instruction - instruction to be appended
+     * @return - offset of the instruction in the log
+     */
+    public long append(Instruction instruction) {
+
+        if (instruction == null)
+            throw new IllegalArgumentException("Instruction must not be null for instruction log");
+        if (closed)
+            throw new IllegalStateException("Instruction log " + directory + " is closed");
+
+        byte[] entity = entityBytesOf(instruction.getEntity());
+        int length = LogFormat.payloadSize(instruction, entity);
+        if (length < 0 || LogFormat.RECORD_HEADER_SIZE + length + 4 > segmentSize)
+            throw new IllegalArgumentException("Instruction does not fit in a segment of instruction log " + directory);
+
+        try {
+            if (position + LogFormat.RECORD_HEADER_SIZE + length + 4 > segment.capacity())
+                roll();
+            if (records % LogFormat.INDEX_INTERVAL == 0)
+                writeIndexEntry(position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to append to instruction log " + directory, ex);
+        }
+
+        int start = position + LogFormat.RECORD_HEADER_SIZE;
+        segment.position(start);
+        LogFormat.writePayload(segment, instruction, entity);
+
+        crc.reset();
+        segment.limit(start + length).position(start);
+        crc.update(segment);
+        segment.limit(segment.capacity());
+        segment.putInt(position + 4, (int) crc.getValue());
+        segment.putInt(position, length);
+
+        position = start + length;
+        return baseOffset + records++;
+    }
+
+    /**
+     * @return - offset the next appended instruction will be given
+     */
+    public long nextOffset() {
+        return baseOffset + records;
+    }
+
+    /**
+     * Forces every appended record to disk
+     */
+    public void flush() {
+
+        if (closed)
+            return;
+
+        segment.force();
+        try {
+            indexChannel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to flush instruction log " + directory, ex);
+        }
+    }
+
+    /**
+     * Forces every appended record to disk and releases the current segment
+     */
+    @Override
+    public void close() {
+
+        if (closed)
+            return;
+
+        flush();
+        closed = true;
+        try {
+            closeSegment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to close instruction log " + directory, ex);
+        }
+    }
+
+    private void recover() throws IOException {
+
+        long[] baseOffsets = LogFormat.baseOffsets(directory);
+        openSegment(baseOffsets.length == 0 ? 0 : baseOffsets[baseOffsets.length - 1]);
+
+        int[] index = LogFormat.readIndex(indexChannel);
+        int entry = index.length - 1;
+        while (entry >= 0 && (index[entry] < 0 || LogFormat.recordLength(segment, index[entry], crc) <= 0))
+            entry--;
+        position = entry < 0 ? 0 : index[entry];
+        records = entry < 0 ? 0 : entry * LogFormat.INDEX_INTERVAL;
+
+        int length;
+        while ((length = LogFormat.recordLength(segment, position, crc)) > 0) {
+            position += LogFormat.RECORD_HEADER_SIZE + length;
+            records++;
+        }
+        indexChannel.truncate((long) ((records + LogFormat.INDEX_INTERVAL - 1) / LogFormat.INDEX_INTERVAL) * LogFormat.INDEX_ENTRY_SIZE);
+
+        if (length == LogFormat.END_OF_SEGMENT)
+            roll();
+        else
+            clearFrom(position);
+    }
+
+    private void clearFrom(int start) {
+
+        int capacity = segment.capacity();
+        int i = start;
+        for (; i <= capacity - 8; i += 8) {
+            if (segment.getLong(i) != 0)
+                segment.putLong(i, 0);
+        }
+        for (; i < capacity; i++) {
+            if (segment.get(i) != 0)
+                segment.put(i, (byte) 0);
+        }
+    }
+
+    private void roll() throws IOException {
+
+        segment.putInt(position, LogFormat.END_OF_SEGMENT);
+        long nextBaseOffset = baseOffset + records;
+        closeSegment();
+        openSegment(nextBaseOffset);
+        position = 0;
+        records = 0;
+    }
+
+    private void openSegment(long offset) throws IOException {
+
+        baseOffset = offset;
+        segmentChannel = FileChannel.open(LogFormat.segmentFile(directory, offset),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = segmentChannel.size();
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Segment " + offset + " of instruction log " + directory + " is too large");
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size > 0 ? size : segmentSize);
+        indexChannel = FileChannel.open(LogFormat.indexFile(directory, offset),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void closeSegment() throws IOException {
+
+        try {
+            if (segmentChannel != null)
+                segmentChannel.close();
+        } finally {
+            if (indexChannel != null)
+                indexChannel.close();
+        }
+    }
+
+    private void closeQuietly() {
+
+        try {
+            closeSegment();
+        } catch (IOException ex) {
+            // already failing
+        }
+    }
+
+    private void writeIndexEntry(int recordPosition) throws IOException {
+
+        indexEntry.clear();
+        indexEntry.putInt(recordPosition).flip();
+        long entryPosition = (long) (records / LogFormat.INDEX_INTERVAL) * LogFormat.INDEX_ENTRY_SIZE;
+        while (indexEntry.hasRemaining())
+            indexChannel.write(indexEntry, entryPosition + indexEntry.position());
+    }
+
+    private byte[] entityBytesOf(String entity) {
+
+        byte[] bytes = entityBytes.get(entity);
+        if (bytes == null) {
+            if (entityBytes.size() == MAX_CACHED_ENTITIES)
+                entityBytes.clear();
+            bytes = entity.getBytes(StandardCharsets.UTF_8);
+            entityBytes.put(entity, bytes);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,285 @@
+package com.jpmc.reporting.log;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Implementation of {@link InputDataProvider} tailing an {@link InstructionLog}. The provider
+ * keeps the offset of the next record to be read: every retrieval provides the instructions
+ * appended since the previous one and stops at the last complete record, so that new records
+ * can be fed to an {@link com.jpmc.reporting.engine.IncrementalReportingEngine} as they arrive.
+ * Read offset is committed on request under the name of the consumer, and a provider created
+ * for the same consumer, e.g. after a restart, resumes from the committed offset. Consumers
+ * keeping figures in memory can instead {@link #seek} back to the start of the log and replay it,
+ * which only decodes binary records and does not go back to the original input.
+ * Segments are memory mapped and records are decoded straight from the mapped bytes; entity
+ * names are shared between instructions through an {@link EntityDictionary}.
+ * Not thread safe.
+ */
+public class InstructionLogProvider implements InputDataProvider, Closeable {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final Path directory;
+    private final String consumer;
+    private final EntityDictionary entities = new EntityDictionary();
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer segment;
+    private int position;
+    private long offset;
+    private int lastDay = LogFormat.NO_SETTLEMENT_DAY;
+    private LocalDate lastDate;
+
+    /**
+     * @param directory - log directory
+     * @param consumer - name of the consumer, made of letters, digits, underscores and dashes
+     */
+    public InstructionLogProvider(Path directory, String consumer) {
+
+        if (directory == null || consumer == null || !consumer.matches("[\\w-]+"))
+            throw new IllegalArgumentException("A directory and a valid consumer name are required for instruction log input");
+
+        this.directory = directory;
+        this.consumer = consumer;
+        seek(committedOffset());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Instructions appended since the previous retrieval are provided, and read offset is moved past them.
+     */
+    @Override
+    public List<Instruction> retrieveInstructions() {
+
+        try (Stream<Instruction> instructions = streamInstructions()) {
+            return instructions.collect(toList());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Read offset is moved past every instruction as it is consumed.
+     */
+    @Override
+    public Stream<Instruction> streamInstructions() {
+
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Instruction>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Instruction> action) {
+
+                int start = nextRecord();
+                if (start < 0)
+                    return false;
+                action.accept(decode(start));
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * @return - offset of the next record to be read
+     */
+    public long position() {
+        return offset;
+    }
+
+    /**
+     * @return - offset last committed by the consumer, or 0 if it never committed
+     */
+    public long committedOffset() {
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(LogFormat.offsetFile(directory, consumer)))) {
+            return in.readLong();
+        } catch (NoSuchFileException ex) {
+            return 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read committed offset of " + consumer + " in instruction log " + directory, ex);
+        }
+    }
+
+    /**
+     * Durably records the current read offset as the committed offset of the consumer
+     */
+    public void commit() {
+
+        Path file = LogFormat.offsetFile(directory, consumer);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream data = new DataOutputStream(Channels.newOutputStream(out))) {
+                data.writeLong(offset);
+                data.flush();
+                out.force(true);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to commit offset of " + consumer + " in instruction log " + directory, ex);
+        }
+    }
+
+    /**
+     * Moves the read offset, e.g. back to 0 to replay the whole log
+     * @param target - offset of the next record to be read
+     */
+    public void seek(long target) {
+
+        long[] baseOffsets = LogFormat.baseOffsets(directory);
+        int segmentIndex = baseOffsets.length - 1;
+        while (segmentIndex >= 0 && baseOffsets[segmentIndex] > target)
+            segmentIndex--;
+
+        if (target < 0 || (segmentIndex < 0 && target != 0))
+            throw new IllegalArgumentException("Offset " + target + " is not held by instruction log " + directory);
+
+        closeSegment();
+        offset = target;
+        if (segmentIndex < 0)
+            return;
+
+        long baseOffset = baseOffsets[segmentIndex];
+        if (!openSegment(baseOffset))
+            return;
+
+        try (FileChannel index = FileChannel.open(LogFormat.indexFile(directory, baseOffset), StandardOpenOption.READ)) {
+            int[] positions = LogFormat.readIndex(index);
+            int entry = (int) Math.min((target - baseOffset) / LogFormat.INDEX_INTERVAL, positions.length - 1);
+            if (entry >= 0 && positions[entry] >= 0) {
+                position = positions[entry];
+                offset = baseOffset + (long) entry * LogFormat.INDEX_INTERVAL;
+            } else {
+                offset = baseOffset;
+            }
+        } catch (NoSuchFileException ex) {
+            offset = baseOffset;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read index of instruction log " + directory, ex);
+        }
+
+        while (offset < target) {
+            if (nextRecord() < 0)
+                throw new IllegalArgumentException("Offset " + target + " is beyond the end of instruction log " + directory);
+        }
+    }
+
+    /**
+     * Releases the segment being read
+     */
+    @Override
+    public void close() {
+        closeSegment();
+    }
+
+    private int nextRecord() {
+
+        while (true) {
+            if (segment == null && !openSegment(offset))
+                return -1;
+
+            int length = LogFormat.recordLength(segment, position, crc);
+            if (length == LogFormat.END_OF_SEGMENT) {
+                closeSegment();
+                continue;
+            }
+            if (length == LogFormat.NO_RECORD)
+                return -1;
+
+            int start = position + LogFormat.RECORD_HEADER_SIZE;
+            position = start + length;
+            offset++;
+            return start;
+        }
+    }
+
+    private boolean openSegment(long baseOffset) {
+
+        Path file = LogFormat.segmentFile(directory, baseOffset);
+        if (!Files.exists(file))
+            return false;
+
+        try (FileChannel segmentChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = segmentChannel.size();
+            if (size < LogFormat.RECORD_HEADER_SIZE)
+                return false;
+            segment = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            position = 0;
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read instruction log " + directory, ex);
+        }
+    }
+
+    private void closeSegment() {
+        segment = null;
+        position = 0;
+    }
+
+    private Instruction decode(int start) {
+
+        segment.position(start);
+        Operation op = OPERATIONS[segment.get()];
+        Currency currency = CurrencyDictionary.currencyOfCode(segment.getShort());
+        LocalDate instructionDate = dateOf(segment.getInt());
+        int settlementDay = segment.getInt();
+        int units = segment.getInt();
+        BigDecimal agreedFx = LogFormat.readDecimal(segment);
+        BigDecimal unitPrice = LogFormat.readDecimal(segment);
+        int entityLength = segment.getShort();
+        int entityStart = segment.position();
+
+        return new Instruction.Builder()
+                .entity(entities.nameOf(entities.idOf(segment, entityStart, entityStart + entityLength)))
+                .tradeOperation(op)
+                .agreedFx(agreedFx)
+                .currency(currency)
+                .instructionDate(instructionDate)
+                .settlementDate(settlementDay == LogFormat.NO_SETTLEMENT_DAY ? null : LocalDate.ofEpochDay(settlementDay))
+                .units(units)
+                .unitPrice(unitPrice)
+                .build();
+    }
+
+    private LocalDate dateOf(int epochDay) {
+
+        if (epochDay != lastDay || lastDate == null) {
+            lastDate = LocalDate.ofEpochDay(epochDay);
+            lastDay = epochDay;
+        }
+        return lastDate;
+    }
+}
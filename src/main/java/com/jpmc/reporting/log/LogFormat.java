@@ -0,0 +1,197 @@
+package com.jpmc.reporting.log;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.Instruction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Layout of instruction logs written by {@link InstructionLog}. A log is a directory of segment
+ * files, each named after the offset of its first record, together with an offset index per
+ * segment and the committed offset of every consumer:
+ * <pre>
+ * segment:  records, int end of segment marker once the log has rolled over to the next segment
+ * record:   int payload length, int crc32 of payload, payload
+ * payload:  byte operation, short currency code, int instruction epoch day, int settlement epoch
+ *           day, int units, decimal agreed fx, decimal unit price, short entity length, entity
+ * decimal:  int scale, byte length, long unscaled value if length is 0 or big endian bytes
+ * index:    int segment position of every {@value #INDEX_INTERVAL}th record of the segment
+ * offset:   long offset of the next record to be read by a consumer
+ * </pre>
+ * Segments are preallocated and zero filled, so a zero length marks the end of the records
+ * written so far. A record whose checksum does not match was not completely written and marks
+ * that end as well.
+ */
+final class LogFormat {
+
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int END_OF_SEGMENT = -1;
+    static final int NO_RECORD = 0;
+    static final int INDEX_INTERVAL = 1024;
+    static final int INDEX_ENTRY_SIZE = 4;
+    static final int NO_SETTLEMENT_DAY = Integer.MIN_VALUE;
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String INDEX_SUFFIX = ".index";
+    private static final String OFFSET_SUFFIX = ".offset";
+    private static final int FIXED_PAYLOAD_SIZE = 1 + 2 + 4 + 4 + 4 + 2;
+    private static final int MAX_COMPACT_DECIMAL_SIZE = 4 + 1 + 8;
+
+    private LogFormat() {
+    }
+
+    static Path segmentFile(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+    }
+
+    static Path indexFile(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d", baseOffset) + INDEX_SUFFIX);
+    }
+
+    static Path offsetFile(Path directory, String consumer) {
+        return directory.resolve(consumer + OFFSET_SUFFIX);
+    }
+
+    /**
+     * @param directory - log directory
+     * @return - base offsets of every segment of the log, in ascending order
+     */
+    static long[] baseOffsets(Path directory) {
+
+        long[] offsets = new long[16];
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    long offset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    if (count == offsets.length)
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    offsets[count++] = offset;
+                } catch (NumberFormatException ex) {
+                    // not a segment of the log
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to list instruction log " + directory, ex);
+        }
+
+        offsets = Arrays.copyOf(offsets, count);
+        Arrays.sort(offsets);
+        return offsets;
+    }
+
+    /**
+     * @param index - index channel of a segment
+     * @return - segment positions of every indexed record
+     */
+    static int[] readIndex(FileChannel index) throws IOException {
+
+        ByteBuffer bytes = ByteBuffer.allocate((int) (index.size() / INDEX_ENTRY_SIZE * INDEX_ENTRY_SIZE));
+        while (bytes.hasRemaining()) {
+            if (index.read(bytes, bytes.position()) < 0)
+                break;
+        }
+        bytes.flip();
+
+        int[] positions = new int[bytes.remaining() / INDEX_ENTRY_SIZE];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = bytes.getInt();
+        return positions;
+    }
+
+    /**
+     * @param buffer - segment buffer, whose position and limit are used while checking the record
+     * @param position - position of a record in the segment
+     * @param crc - checksum reused between calls
+     * @return - payload length of a complete record, {@link #END_OF_SEGMENT}, or {@link #NO_RECORD}
+     *           if no complete record was written at the given position
+     */
+    static int recordLength(ByteBuffer buffer, int position, CRC32 crc) {
+
+        int capacity = buffer.capacity();
+        if (position > capacity - RECORD_HEADER_SIZE)
+            return NO_RECORD;
+
+        int length = buffer.getInt(position);
+        if (length == END_OF_SEGMENT)
+            return END_OF_SEGMENT;
+        if (length <= 0 || length > capacity - position - RECORD_HEADER_SIZE)
+            return NO_RECORD;
+
+        int start = position + RECORD_HEADER_SIZE;
+        crc.reset();
+        buffer.limit(start + length).position(start);
+        crc.update(buffer);
+        buffer.limit(capacity);
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? length : NO_RECORD;
+    }
+
+    /**
+     * @return - number of bytes of the payload of the given instruction, or -1 if it does not fit in a record
+     */
+    static int payloadSize(Instruction instruction, byte[] entity) {
+
+        int agreedFxSize = decimalSize(instruction.getAgreedFx());
+        int unitPriceSize = decimalSize(instruction.getUnitPrice());
+        if (agreedFxSize < 0 || unitPriceSize < 0 || entity.length > Short.MAX_VALUE)
+            return -1;
+        return FIXED_PAYLOAD_SIZE + agreedFxSize + unitPriceSize + entity.length;
+    }
+
+    static void writePayload(ByteBuffer buffer, Instruction instruction, byte[] entity) {
+
+        buffer.put((byte) instruction.getTradeOperation().ordinal());
+        buffer.putShort((short) CurrencyDictionary.codeOf(instruction.getCurrency()));
+        buffer.putInt((int) instruction.getInstructionDate().toEpochDay());
+        buffer.putInt(instruction.getSettlementDate() == null ? NO_SETTLEMENT_DAY : (int) instruction.getSettlementDate().toEpochDay());
+        buffer.putInt(instruction.getUnits());
+        writeDecimal(buffer, instruction.getAgreedFx());
+        writeDecimal(buffer, instruction.getUnitPrice());
+        buffer.putShort((short) entity.length);
+        buffer.put(entity);
+    }
+
+    static BigDecimal readDecimal(ByteBuffer buffer) {
+
+        int scale = buffer.getInt();
+        int length = buffer.get() & 0xFF;
+        if (length == 0)
+            return BigDecimal.valueOf(buffer.getLong(), scale);
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static int decimalSize(BigDecimal value) {
+
+        if (value.precision() <= 18)
+            return MAX_COMPACT_DECIMAL_SIZE;
+        int length = value.unscaledValue().toByteArray().length;
+        return length <= 0xFF ? 4 + 1 + length : -1;
+    }
+
+    private static void writeDecimal(ByteBuffer buffer, BigDecimal value) {
+
+        buffer.putInt(value.scale());
+        if (value.precision() <= 18) {
+            buffer.put((byte) 0);
+            buffer.putLong(value.unscaledValue().longValue());
+        } else {
+            byte[] bytes = value.unscaledValue().toByteArray();
+            buffer.put((byte) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.jpmc.reporting.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies in nanoseconds with logarithmic buckets, in the style of
+ * HdrHistogram: every power of two is split in {@value #SUB_BUCKETS} linear sub buckets, so
+ * recorded values are kept with a relative error below 1 / {@value #SUB_BUCKETS} over the whole
+ * long range, in a fixed amount of memory. Recording is a single atomic increment.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+    /**
+     * @param nanos - latency to be recorded, negative values are recorded as zero
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+    }
+
+    /**
+     * @return - number of recorded latencies
+     */
+    public long count() {
+
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * @param percentile - percentile between 0 and 100
+     * @return - highest latency of the bucket holding the given percentile, zero if nothing was recorded
+     */
+    public long percentile(double percentile) {
+
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return highestValueOf(i);
+        }
+        return highestValueOf(snapshot.length - 1);
+    }
+
+    /**
+     * Discards every recorded latency
+     */
+    public void reset() {
+
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+    }
+
+    static int bucketOf(long value) {
+
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueOf(int bucket) {
+
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.jpmc.reporting.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Decorator of {@link WritableByteChannel} recording every write as {@link Stage#WRITE_BYTES},
+ * so that throughput of report writers such as
+ * {@link com.jpmc.reporting.output.ChannelReportWriter} can be followed.
+ */
+public class MeteredByteChannel implements WritableByteChannel {
+
+    private final WritableByteChannel delegate;
+    private final MetricsSink sink;
+
+    public MeteredByteChannel(WritableByteChannel delegate, MetricsSink sink) {
+
+        if (delegate == null || sink == null)
+            throw new IllegalArgumentException("A delegate and a metrics sink are required for metered components");
+
+        this.delegate = delegate;
+        this.sink = sink;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+
+        if (!sink.isEnabled())
+            return delegate.write(src);
+
+        long start = System.nanoTime();
+        int written = delegate.write(src);
+        sink.record(Stage.WRITE_BYTES, written, System.nanoTime() - start);
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.jpmc.reporting.metrics;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decorator of {@link InputDataProvider} recording instructions read and time spent reading them
+ * as {@link Stage#INGEST}. Streamed instructions are timed one by one but recorded in chunks of
+ * {@value #CHUNK_SIZE}, so latencies of the stage are those of reading a chunk.
+ */
+public class MeteredInputDataProvider implements InputDataProvider {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final InputDataProvider delegate;
+    private final MetricsSink sink;
+
+    public MeteredInputDataProvider(InputDataProvider delegate, MetricsSink sink) {
+
+        if (delegate == null || sink == null)
+            throw new IllegalArgumentException("A delegate and a metrics sink are required for metered components");
+
+        this.delegate = delegate;
+        this.sink = sink;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Instruction> retrieveInstructions() {
+
+        if (!sink.isEnabled())
+            return delegate.retrieveInstructions();
+
+        long start = System.nanoTime();
+        List<Instruction> instructions = delegate.retrieveInstructions();
+        sink.record(Stage.INGEST, instructions == null ? 0 : instructions.size(), System.nanoTime() - start);
+        return instructions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Instruction> streamInstructions() {
+
+        if (!sink.isEnabled())
+            return delegate.streamInstructions();
+
+        Stream<Instruction> instructions = delegate.streamInstructions();
+        MeteredSpliterator spliterator = new MeteredSpliterator(instructions.spliterator());
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::flush)
+                .onClose(instructions::close);
+    }
+
+    private final class MeteredSpliterator implements Spliterator<Instruction> {
+
+        private final Spliterator<Instruction> source;
+        private final Consumer<Instruction> capture = instruction -> next = instruction;
+        private Instruction next;
+        private long items;
+        private long nanos;
+
+        MeteredSpliterator(Spliterator<Instruction> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Instruction> action) {
+
+            long start = System.nanoTime();
+            boolean advanced = source.tryAdvance(capture);
+            nanos += System.nanoTime() - start;
+
+            if (!advanced) {
+                flush();
+                return false;
+            }
+            if (++items == CHUNK_SIZE)
+                flush();
+            Instruction instruction = next;
+            next = null;
+            action.accept(instruction);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Instruction> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        void flush() {
+
+            if (items > 0 || nanos > 0)
+                sink.record(Stage.INGEST, items, nanos);
+            items = 0;
+            nanos = 0;
+        }
+    }
+}
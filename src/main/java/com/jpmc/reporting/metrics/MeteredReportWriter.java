@@ -0,0 +1,105 @@
+package com.jpmc.reporting.metrics;
+
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ReportWriter;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * Decorator of {@link ReportWriter} recording time spent writing each section as
+ * {@link Stage#WRITE}. Most engines build each section right before writing it, so time elapsed
+ * since the previous call to the writer is recorded as {@link Stage#SETTLED_AMOUNT} or
+ * {@link Stage#RANKING}, depending on the section written. When created by
+ * {@link MeteredReportingEngine}, time elapsed from the start of the report to its header is
+ * recorded as {@link Stage#AGGREGATION}, and sections already recorded by the
+ * {@link MeteredTradeOperationsProvider} of the report are not recorded again.
+ */
+public class MeteredReportWriter implements ReportWriter {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final ReportWriter delegate;
+    private final MetricsSink sink;
+    private final long reportStart;
+    private final MeteredTradeOperationsProvider top;
+    private long lastCallEnd = NOT_STARTED;
+
+    public MeteredReportWriter(ReportWriter delegate, MetricsSink sink) {
+        this(delegate, sink, NOT_STARTED, null);
+    }
+
+    /**
+     * @param reportStart - start of the report as given by {@link System#nanoTime()}
+     * @param top - trade operations of the report, or null if not metered
+     */
+    MeteredReportWriter(ReportWriter delegate, MetricsSink sink, long reportStart, MeteredTradeOperationsProvider top) {
+
+        if (delegate == null || sink == null)
+            throw new IllegalArgumentException("A delegate and a metrics sink are required for metered components");
+
+        this.delegate = delegate;
+        this.sink = sink;
+        this.reportStart = reportStart;
+        this.top = top;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReport(Map<?, BigDecimal> reportData, Currency currency, String reportType, Operation op) {
+
+        if (!sink.isEnabled()) {
+            delegate.writeReport(reportData, currency, reportType, op);
+            return;
+        }
+
+        long start = System.nanoTime();
+        int rows = reportData == null ? 0 : reportData.size();
+        if (lastCallEnd != NOT_STARTED && (top == null || !top.hasRecordedSections()))
+            sink.record("amountSettled".equals(reportType) ? Stage.SETTLED_AMOUNT : Stage.RANKING, rows, start - lastCallEnd);
+
+        delegate.writeReport(reportData, currency, reportType, op);
+        lastCallEnd = System.nanoTime();
+        sink.record(Stage.WRITE, rows, lastCallEnd - start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReportHeader() {
+
+        if (!sink.isEnabled()) {
+            delegate.writeReportHeader();
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (reportStart != NOT_STARTED)
+            sink.record(Stage.AGGREGATION, 1, start - reportStart);
+
+        delegate.writeReportHeader();
+        lastCallEnd = System.nanoTime();
+        sink.record(Stage.WRITE, 0, lastCallEnd - start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReportFooter() {
+
+        if (!sink.isEnabled()) {
+            delegate.writeReportFooter();
+            return;
+        }
+
+        long start = System.nanoTime();
+        delegate.writeReportFooter();
+        lastCallEnd = System.nanoTime();
+        sink.record(Stage.WRITE, 0, lastCallEnd - start);
+    }
+}
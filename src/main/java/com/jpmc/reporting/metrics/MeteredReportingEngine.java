@@ -0,0 +1,53 @@
+package com.jpmc.reporting.metrics;
+
+import com.jpmc.reporting.engine.ReportingEngine;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.output.ReportWriter;
+
+/**
+ * Decorator of {@link ReportingEngine} recording every stage of report generation. Input data
+ * provider, trade operations and report writer given to the engine are decorated with their
+ * metered counterparts, and the whole report is recorded as {@link Stage#REPORT}, together with
+ * the heap bytes allocated by the calling thread when the sink measures allocation. Allocations
+ * of other threads, such as those of {@link com.jpmc.reporting.engine.ParallelReportingEngine},
+ * are not included. With a disabled sink the engine is called directly.
+ */
+public class MeteredReportingEngine implements ReportingEngine {
+
+    private final ReportingEngine delegate;
+    private final MetricsSink sink;
+
+    public MeteredReportingEngine(ReportingEngine delegate, MetricsSink sink) {
+
+        if (delegate == null || sink == null)
+            throw new IllegalArgumentException("A delegate and a metrics sink are required for metered components");
+
+        this.delegate = delegate;
+        this.sink = sink;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(InputDataProvider inProvider, TradeOperationsProvider top, ReportWriter out) {
+
+        if (!sink.isEnabled()) {
+            delegate.generateReport(inProvider, top, out);
+            return;
+        }
+
+        long allocatedBefore = sink.isAllocationMeasured() ? ThreadAllocation.currentThreadAllocatedBytes() : ThreadAllocation.UNSUPPORTED;
+        long start = System.nanoTime();
+
+        MeteredTradeOperationsProvider meteredTop = top == null ? null : new MeteredTradeOperationsProvider(top, sink);
+        delegate.generateReport(inProvider == null ? null : new MeteredInputDataProvider(inProvider, sink),
+                meteredTop,
+                out == null ? null : new MeteredReportWriter(out, sink, start, meteredTop));
+
+        sink.record(Stage.REPORT, 1, System.nanoTime() - start);
+        if (allocatedBefore != ThreadAllocation.UNSUPPORTED)
+            sink.recordAllocation(Stage.REPORT, ThreadAllocation.currentThreadAllocatedBytes() - allocatedBefore);
+    }
+}
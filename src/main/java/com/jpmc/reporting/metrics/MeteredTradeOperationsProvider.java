@@ -0,0 +1,113 @@
+package com.jpmc.reporting.metrics;
+
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorator of {@link TradeOperationsProvider} recording every settlement date and trade amount
+ * calculation as {@link Stage#SETTLEMENT_DATE} and {@link Stage#TRADE_AMOUNT}. Aggregating
+ * operations, used by engines that build every section up front such as
+ * {@link com.jpmc.reporting.engine.SimpleReportingEngine}, are recorded as
+ * {@link Stage#SETTLED_AMOUNT} and {@link Stage#RANKING}. When the delegate is a
+ * {@link SimpleTradeOperationsProvider}, settlement dates of daily settled amounts are looked up
+ * through this provider and recorded as well; trade amounts calculated within an aggregating
+ * operation are only part of its stage.
+ */
+public class MeteredTradeOperationsProvider implements TradeOperationsProvider {
+
+    private final TradeOperationsProvider delegate;
+    private final MetricsSink sink;
+    private volatile boolean sectionsRecorded;
+
+    public MeteredTradeOperationsProvider(TradeOperationsProvider delegate, MetricsSink sink) {
+
+        if (delegate == null || sink == null)
+            throw new IllegalArgumentException("A delegate and a metrics sink are required for metered components");
+
+        this.delegate = delegate;
+        this.sink = sink;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate calculateSettlementDate(LocalDate instructionDate, Currency currency) {
+
+        if (!sink.isEnabled())
+            return delegate.calculateSettlementDate(instructionDate, currency);
+
+        long start = System.nanoTime();
+        LocalDate settlementDate = delegate.calculateSettlementDate(instructionDate, currency);
+        sink.record(Stage.SETTLEMENT_DATE, 1, System.nanoTime() - start);
+        return settlementDate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> calculateDailySettledAmount(List<Instruction> instructions, Operation op) {
+
+        if (!sink.isEnabled())
+            return delegate.calculateDailySettledAmount(instructions, op);
+
+        long start = System.nanoTime();
+        Map<LocalDate, BigDecimal> settled = delegate instanceof SimpleTradeOperationsProvider
+                ? ((SimpleTradeOperationsProvider) delegate).calculateDailySettledAmount(instructions, op, this::calculateSettlementDate)
+                : delegate.calculateDailySettledAmount(instructions, op);
+        recordSection(Stage.SETTLED_AMOUNT, settled.size(), System.nanoTime() - start);
+        return settled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BigDecimal calculateInstructionTradeAmount(Instruction instruction) {
+
+        if (!sink.isEnabled())
+            return delegate.calculateInstructionTradeAmount(instruction);
+
+        long start = System.nanoTime();
+        BigDecimal amount = delegate.calculateInstructionTradeAmount(instruction);
+        sink.record(Stage.TRADE_AMOUNT, 1, System.nanoTime() - start);
+        return amount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> rankEntitiesByInstructionAmount(List<Instruction> instructions, Operation op) {
+
+        if (!sink.isEnabled())
+            return delegate.rankEntitiesByInstructionAmount(instructions, op);
+
+        long start = System.nanoTime();
+        Map<String, BigDecimal> ranking = delegate.rankEntitiesByInstructionAmount(instructions, op);
+        recordSection(Stage.RANKING, ranking.size(), System.nanoTime() - start);
+        return ranking;
+    }
+
+    /**
+     * @return - whether any report section has been built and recorded by this provider
+     */
+    boolean hasRecordedSections() {
+        return sectionsRecorded;
+    }
+
+    private void recordSection(Stage stage, long rows, long nanos) {
+
+        sectionsRecorded = true;
+        sink.record(stage, rows, nanos);
+    }
+}
@@ -0,0 +1,55 @@
+package com.jpmc.reporting.metrics;
+
+/**
+ * Destination of timings and counters recorded while generating reports. Instrumented
+ * components check {@link #isEnabled()} first, so a disabled sink costs a single call per
+ * report, provider or writer rather than per instruction.
+ */
+public interface MetricsSink {
+
+    /**
+     * Sink discarding everything
+     */
+    MetricsSink NONE = new MetricsSink() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(Stage stage, long items, long nanos) {
+        }
+
+        @Override
+        public void recordAllocation(Stage stage, long bytes) {
+        }
+    };
+
+    /**
+     * @return - false if recorded metrics are discarded and need not be measured
+     */
+    boolean isEnabled();
+
+    /**
+     * @return - whether heap allocation of stages should be measured, which is more expensive than timing
+     */
+    default boolean isAllocationMeasured() {
+        return false;
+    }
+
+    /**
+     * Records one execution of a stage
+     * @param stage - stage executed
+     * @param items - number of items processed by the execution
+     * @param nanos - elapsed time of the execution
+     */
+    void record(Stage stage, long items, long nanos);
+
+    /**
+     * Records bytes allocated by one execution of a stage
+     * @param stage - stage executed
+     * @param bytes - heap bytes allocated by the executing thread
+     */
+    void recordAllocation(Stage stage, long bytes);
+}
@@ -0,0 +1,170 @@
+package com.jpmc.reporting.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe {@link MetricsSink} keeping, for every {@link Stage}, execution and item counters,
+ * total time, allocated bytes and a {@link LatencyHistogram} of execution times. Metrics can be
+ * read directly or through JMX, once the sink is registered as a {@link ReportMetricsMXBean}.
+ */
+public class RecordingMetricsSink implements MetricsSink, ReportMetricsMXBean {
+
+    private static final String DOMAIN = "com.jpmc.reporting";
+
+    private final boolean allocationMeasured;
+    private final StageMetrics[] stages = new StageMetrics[Stage.values().length];
+
+    public RecordingMetricsSink() {
+        this(false);
+    }
+
+    /**
+     * @param measureAllocation - whether heap allocation of stages should be measured, when the JVM supports it
+     */
+    public RecordingMetricsSink(boolean measureAllocation) {
+
+        this.allocationMeasured = measureAllocation && ThreadAllocation.isSupported();
+        for (int i = 0; i < stages.length; i++)
+            stages[i] = new StageMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAllocationMeasured() {
+        return allocationMeasured;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void record(Stage stage, long items, long nanos) {
+
+        StageMetrics metrics = stages[stage.ordinal()];
+        metrics.executions.increment();
+        metrics.items.add(items);
+        metrics.nanos.add(nanos);
+        metrics.maxNanos.accumulate(nanos);
+        metrics.latencies.record(nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordAllocation(Stage stage, long bytes) {
+        stages[stage.ordinal()].allocatedBytes.add(bytes);
+    }
+
+    /**
+     * @param stage - stage of report generation
+     * @return - metrics recorded for the stage since last reset
+     */
+    public StageStatistics getStatistics(Stage stage) {
+
+        StageMetrics metrics = stages[stage.ordinal()];
+        return new StageStatistics(stage.name(), metrics.executions.sum(), metrics.items.sum(), metrics.nanos.sum(),
+                metrics.allocatedBytes.sum(), metrics.latencies.percentile(50), metrics.latencies.percentile(99),
+                metrics.latencies.percentile(99.9), metrics.maxNanos.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StageStatistics> getStages() {
+
+        List<StageStatistics> statistics = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            if (stages[stage.ordinal()].executions.sum() > 0)
+                statistics.add(getStatistics(stage));
+        }
+        return statistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+
+        for (StageMetrics metrics : stages) {
+            metrics.executions.reset();
+            metrics.items.reset();
+            metrics.nanos.reset();
+            metrics.allocatedBytes.reset();
+            metrics.maxNanos.reset();
+            metrics.latencies.reset();
+        }
+    }
+
+    /**
+     * Registers this sink with the platform MBean server
+     * @param name - name distinguishing this sink from other registered ones
+     * @return - object name the sink is registered with
+     */
+    public ObjectName register(String name) {
+
+        try {
+            ObjectName objectName = objectNameOf(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException ex) {
+            throw new IllegalArgumentException("Report metrics are already registered with name " + name, ex);
+        } catch (JMException ex) {
+            throw new IllegalStateException("Unable to register report metrics with name " + name, ex);
+        }
+    }
+
+    /**
+     * Removes this sink from the platform MBean server, if registered
+     * @param name - name the sink was registered with
+     */
+    public void unregister(String name) {
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectNameOf(name));
+        } catch (InstanceNotFoundException ex) {
+            // not registered
+        } catch (JMException ex) {
+            throw new IllegalStateException("Unable to unregister report metrics with name " + name, ex);
+        }
+    }
+
+    private static ObjectName objectNameOf(String name) throws JMException {
+
+        if (name == null || name.isEmpty())
+            throw new IllegalArgumentException("A name is required for report metrics registration");
+        return new ObjectName(DOMAIN + ":type=ReportMetrics,name=" + ObjectName.quote(name));
+    }
+
+    private static final class StageMetrics {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LatencyHistogram latencies = new LatencyHistogram();
+    }
+}
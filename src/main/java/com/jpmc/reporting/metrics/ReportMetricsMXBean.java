@@ -0,0 +1,24 @@
+package com.jpmc.reporting.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of the metrics recorded by a {@link RecordingMetricsSink}
+ */
+public interface ReportMetricsMXBean {
+
+    /**
+     * @return - statistics of every stage executed at least once since last reset
+     */
+    List<StageStatistics> getStages();
+
+    /**
+     * @return - whether heap allocation of stages is measured
+     */
+    boolean isAllocationMeasured();
+
+    /**
+     * Discards every recorded metric
+     */
+    void reset();
+}
@@ -0,0 +1,27 @@
+package com.jpmc.reporting.metrics;
+
+/**
+ * Stages of report generation recorded by a {@link MetricsSink}. Items counted by each stage are
+ * given in brackets.
+ */
+public enum Stage {
+
+    /** Whole report generation [reports] */
+    REPORT,
+    /** Instructions read from the input data provider [instructions] */
+    INGEST,
+    /** Settlement date calculations [calculations] */
+    SETTLEMENT_DATE,
+    /** Trade amount calculations [calculations] */
+    TRADE_AMOUNT,
+    /** Ingest and aggregation, up to the report header [reports] */
+    AGGREGATION,
+    /** Building a sorted daily settled amount section [rows] */
+    SETTLED_AMOUNT,
+    /** Building a sorted entity ranking section [rows] */
+    RANKING,
+    /** Report sections sent to the report writer [rows] */
+    WRITE,
+    /** Report output written to a channel [bytes] */
+    WRITE_BYTES
+}
@@ -0,0 +1,85 @@
+package com.jpmc.reporting.metrics;
+
+/**
+ * Snapshot of the metrics recorded for a {@link Stage}, as exposed through JMX
+ */
+public class StageStatistics {
+
+    private final String stage;
+    private final long executions;
+    private final long items;
+    private final long totalNanos;
+    private final long allocatedBytes;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public StageStatistics(String stage, long executions, long items, long totalNanos, long allocatedBytes,
+                           long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+        this.stage = stage;
+        this.executions = executions;
+        this.items = items;
+        this.totalNanos = totalNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return - items processed per second of time spent in stage
+     */
+    public double getItemsPerSecond() {
+        return totalNanos == 0 ? 0 : items * 1e9 / totalNanos;
+    }
+
+    /**
+     * @return - heap bytes allocated by stage, zero when allocation is not measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+
+        return "Stage: " + stage + ", Executions: " + executions + ", Items: " + items + ", TotalNanos: " + totalNanos +
+                ", AllocatedBytes: " + allocatedBytes + ", P50: " + p50Nanos + ", P99: " + p99Nanos +
+                ", P999: " + p999Nanos + ", Max: " + maxNanos;
+    }
+}
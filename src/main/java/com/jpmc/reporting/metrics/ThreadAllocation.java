@@ -0,0 +1,46 @@
+package com.jpmc.reporting.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Heap bytes allocated by the current thread, read from the HotSpot extension of
+ * {@link ThreadMXBean} when the running JVM supports it.
+ */
+final class ThreadAllocation {
+
+    static final long UNSUPPORTED = -1;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private ThreadAllocation() {
+    }
+
+    static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return - bytes allocated so far by the current thread, or {@link #UNSUPPORTED}
+     */
+    static long currentThreadAllocatedBytes() {
+        return THREADS == null ? UNSUPPORTED : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) threads;
+                if (hotSpotThreads.isThreadAllocatedMemorySupported()) {
+                    hotSpotThreads.setThreadAllocatedMemoryEnabled(true);
+                    return hotSpotThreads;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException | SecurityException ex) {
+            // not a HotSpot JVM, allocation is not measured
+        }
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jpmc.reporting.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense numeric ids of ISO 4217 currencies. Ids are assigned once, in currency code order, to
+ * every currency known to the JVM, so they are stable within a JVM and fit in a short.
+ * Currencies can also be identified by the base 26 value of their three letter code, which does
+ * not depend on the JVM and is used by binary formats that are read back by other processes.
+ */
+public final class CurrencyDictionary {
+
+    private static final Currency[] CURRENCIES;
+    private static final Map<Currency, Integer> IDS;
+    private static final short[] CODE_IDS = new short[26 * 26 * 26];
+
+    static {
+        CURRENCIES = Currency.getAvailableCurrencies().stream()
+                .sorted(Comparator.comparing(Currency::getCurrencyCode))
+                .toArray(Currency[]::new);
+        IDS = new HashMap<>();
+        Arrays.fill(CODE_IDS, (short) -1);
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            IDS.put(CURRENCIES[i], i);
+            int code = codeOf(CURRENCIES[i]);
+            if (code >= 0)
+                CODE_IDS[code] = (short) i;
+        }
+    }
+
+    private CurrencyDictionary() {
+    }
+
+    /**
+     * @param currency - currency to look up
+     * @return - id of currency
+     */
+    public static short idOf(Currency currency) {
+
+        Integer id = currency == null ? null : IDS.get(currency);
+        if (id == null)
+            throw new IllegalArgumentException("Unknown currency " + currency);
+        return id.shortValue();
+    }
+
+    /**
+     * Same as {@link #idOf(Currency)} for a code given as ASCII bytes between start (inclusive)
+     * and end (exclusive) of a buffer, without failing on unknown codes. Buffer position and
+     * limit are not changed.
+     * @param buffer - buffer holding currency code
+     * @param start - index of first byte of code
+     * @param end - index following last byte of code
+     * @return - id of currency, or -1 if the code is not the one of a known currency
+     */
+    public static short idOf(ByteBuffer buffer, int start, int end) {
+
+        if (end - start != 3)
+            return -1;
+
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            int letter = buffer.get(i) - 'A';
+            if (letter < 0 || letter >= 26)
+                return -1;
+            index = index * 26 + letter;
+        }
+        return CODE_IDS[index];
+    }
+
+    /**
+     * @param currency - currency to look up
+     * @return - base 26 value of the currency code, or -1 if it is not made of three capital letters
+     */
+    public static int codeOf(Currency currency) {
+
+        String code = currency.getCurrencyCode();
+        if (code.length() != 3)
+            return -1;
+
+        int value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26)
+                return -1;
+            value = value * 26 + letter;
+        }
+        return value;
+    }
+
+    /**
+     * @param code - base 26 value of a currency code, see {@link #codeOf(Currency)}
+     * @return - id of currency with the given code, or -1 if the code is not the one of a known currency
+     */
+    public static short idOfCode(int code) {
+        return code < 0 || code >= CODE_IDS.length ? -1 : CODE_IDS[code];
+    }
+
+    /**
+     * @param code - base 26 value of a currency code, see {@link #codeOf(Currency)}
+     * @return - currency with the given code
+     */
+    public static Currency currencyOfCode(int code) {
+
+        short id = idOfCode(code);
+        if (id < 0)
+            throw new IllegalArgumentException("Unknown currency code " + code);
+        return CURRENCIES[id];
+    }
+
+    /**
+     * @param id - id of currency
+     * @return - currency with the given id
+     */
+    public static Currency currencyOf(int id) {
+        return CURRENCIES[id];
+    }
+
+    /**
+     * @return - number of known currencies, ids range from zero to size - 1
+     */
+    public static int size() {
+        return CURRENCIES.length;
+    }
+}
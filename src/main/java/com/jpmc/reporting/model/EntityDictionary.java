@@ -0,0 +1,132 @@
+package com.jpmc.reporting.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of entity names. Each distinct name is given a dense int id in the order
+ * names are first seen, so that aggregations can be indexed by id instead of hashing names.
+ * Names can also be looked up straight from their UTF-8 bytes, in which case a String is only
+ * created the first time an entity is seen and the same instance is shared afterwards.
+ * Not thread safe.
+ */
+public class EntityDictionary {
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int[] byteSlots = new int[INITIAL_SLOTS];
+    private byte[][] byteKeys = new byte[INITIAL_SLOTS][];
+    private int byteKeyCount;
+
+    /**
+     * Returns id of an entity, assigning the next free id if entity was never seen before
+     * @param name - entity name
+     * @return - id of entity
+     */
+    public int idOf(String name) {
+
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Same as {@link #idOf(String)} for a name given as UTF-8 bytes between start (inclusive)
+     * and end (exclusive) of a buffer. Buffer position and limit are not changed.
+     * @param buffer - buffer holding entity name
+     * @param start - index of first byte of name
+     * @param end - index following last byte of name
+     * @return - id of entity
+     */
+    public int idOf(ByteBuffer buffer, int start, int end) {
+
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + buffer.get(i);
+        int mask = byteSlots.length - 1;
+        int slot = mix(hash) & mask;
+        while (byteSlots[slot] != 0) {
+            if (matches(byteKeys[slot], buffer, start, end))
+                return byteSlots[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] key = new byte[end - start];
+        for (int i = 0; i < key.length; i++)
+            key[i] = buffer.get(start + i);
+        int id = idOf(new String(key, StandardCharsets.UTF_8));
+
+        byteSlots[slot] = id + 1;
+        byteKeys[slot] = key;
+        if (++byteKeyCount * 2 > byteSlots.length)
+            growByteSlots();
+        return id;
+    }
+
+    /**
+     * @param id - id of entity
+     * @return - name of entity with the given id
+     */
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * @return - number of distinct entities, ids range from zero to size - 1
+     */
+    public int size() {
+        return names.size();
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+
+        if (key.length != end - start)
+            return false;
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(start + i))
+                return false;
+        }
+        return true;
+    }
+
+    private void growByteSlots() {
+
+        int[] oldSlots = byteSlots;
+        byte[][] oldKeys = byteKeys;
+        byteSlots = new int[oldSlots.length * 2];
+        byteKeys = new byte[oldSlots.length * 2][];
+        int mask = byteSlots.length - 1;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == 0)
+                continue;
+            int slot = mix(hashOf(oldKeys[i])) & mask;
+            while (byteSlots[slot] != 0)
+                slot = (slot + 1) & mask;
+            byteSlots[slot] = oldSlots[i];
+            byteKeys[slot] = oldKeys[i];
+        }
+    }
+
+    private static int hashOf(byte[] key) {
+
+        int hash = 0;
+        for (byte b : key)
+            hash = 31 * hash + b;
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,149 @@
+package com.jpmc.reporting.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Columnar store of instructions ready for aggregation. Each instruction is kept as one row
+ * across primitive arrays: dictionary encoded entity id, operation ordinal, currency id from
+ * {@link CurrencyDictionary}, instruction and settlement dates as epoch days and trade amount as
+ * an unscaled long with two decimal digits. A row takes 23 bytes, against several hundred for an
+ * {@link Instruction} and the objects it refers to. Trade amounts too large for a long are
+ * flagged with {@link #LONG_AMOUNT} and kept exactly in a side column, only allocated once such
+ * an amount is added.
+ * Not thread safe.
+ */
+public class InstructionBatch {
+
+    public static final long LONG_AMOUNT = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final EntityDictionary entities;
+    private int size;
+    private int[] entityIds;
+    private byte[] operations;
+    private short[] currencyIds;
+    private int[] instructionDays;
+    private int[] settlementDays;
+    private long[] amounts;
+    private BigDecimal[] longAmounts;
+
+    public InstructionBatch(EntityDictionary entities) {
+        this(entities, DEFAULT_CAPACITY);
+    }
+
+    public InstructionBatch(EntityDictionary entities, int capacity) {
+
+        if (entities == null || capacity < 0)
+            throw new IllegalArgumentException("An entity dictionary and non negative capacity are required for instruction batch");
+
+        this.entities = entities;
+        this.entityIds = new int[capacity];
+        this.operations = new byte[capacity];
+        this.currencyIds = new short[capacity];
+        this.instructionDays = new int[capacity];
+        this.settlementDays = new int[capacity];
+        this.amounts = new long[capacity];
+    }
+
+    /**
+     * Appends a row to the batch
+     * @param entityId - id of entity in the batch dictionary
+     * @param op - outgoing/incoming operation
+     * @param currencyId - id of currency in {@link CurrencyDictionary}
+     * @param instructionDay - instruction date as epoch day
+     * @param settlementDay - settlement date as epoch day
+     * @param amount - trade amount unscaled with two decimal digits
+     */
+    public void add(int entityId, Operation op, short currencyId, int instructionDay, int settlementDay, long amount) {
+
+        if (size == entityIds.length)
+            grow();
+
+        entityIds[size] = entityId;
+        operations[size] = (byte) op.ordinal();
+        currencyIds[size] = currencyId;
+        instructionDays[size] = instructionDay;
+        settlementDays[size] = settlementDay;
+        amounts[size] = amount;
+        if (longAmounts != null)
+            longAmounts[size] = null;
+        size++;
+    }
+
+    /**
+     * Replaces the amount of a row with one too large for an unscaled long
+     * @param row - row already added
+     * @param amount - trade amount with two decimal digits
+     */
+    public void setLongAmount(int row, BigDecimal amount) {
+
+        if (longAmounts == null)
+            longAmounts = new BigDecimal[entityIds.length];
+        longAmounts[row] = amount;
+        amounts[row] = LONG_AMOUNT;
+    }
+
+    /**
+     * Removes all rows, keeping allocated capacity and entity dictionary
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public EntityDictionary getEntities() {
+        return entities;
+    }
+
+    public int entityId(int row) {
+        return entityIds[row];
+    }
+
+    public byte operation(int row) {
+        return operations[row];
+    }
+
+    public short currencyId(int row) {
+        return currencyIds[row];
+    }
+
+    public int instructionDay(int row) {
+        return instructionDays[row];
+    }
+
+    public int settlementDay(int row) {
+        return settlementDays[row];
+    }
+
+    /**
+     * @return - trade amount unscaled with two decimal digits, or {@link #LONG_AMOUNT}
+     */
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    /**
+     * @return - trade amount of a row flagged with {@link #LONG_AMOUNT}
+     */
+    public BigDecimal longAmount(int row) {
+        return longAmounts[row];
+    }
+
+    private void grow() {
+
+        int capacity = Math.max(DEFAULT_CAPACITY, entityIds.length * 2);
+        entityIds = Arrays.copyOf(entityIds, capacity);
+        operations = Arrays.copyOf(operations, capacity);
+        currencyIds = Arrays.copyOf(currencyIds, capacity);
+        instructionDays = Arrays.copyOf(instructionDays, capacity);
+        settlementDays = Arrays.copyOf(settlementDays, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        if (longAmounts != null)
+            longAmounts = Arrays.copyOf(longAmounts, capacity);
+    }
+}
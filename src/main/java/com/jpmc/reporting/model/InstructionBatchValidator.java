@@ -0,0 +1,133 @@
+package com.jpmc.reporting.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.jpmc.reporting.model.InstructionField.*;
+
+/**
+ * Checks every row of a {@link RawInstructionBatch} against the rules of
+ * {@link Instruction.Builder}, without building instructions nor throwing on bad rows. Each rule
+ * is a branch free loop over one primitive column, setting the bit of its field in a per row
+ * failure mask, which the JIT compiles to vector instructions. Rejects are only worked out for
+ * the rows that failed, so valid rows cost one pass per field and one to pack the bitmap.
+ * The failure mask is reused between batches, so a validator is not thread safe.
+ */
+public final class InstructionBatchValidator {
+
+    private static final int OPERATION_COUNT = Operation.values().length;
+    private static final InstructionField[] FIELDS = InstructionField.values();
+
+    private byte[] failures = new byte[0];
+
+    /**
+     * @param batch - rows to be validated
+     * @return - validity bitmap and rejects of the batch
+     */
+    public ValidationResult validate(RawInstructionBatch batch) {
+
+        if (batch == null)
+            throw new IllegalArgumentException("Batch must not be null for batch validation");
+
+        int size = batch.size();
+        if (failures.length < size)
+            failures = new byte[batch.entityIds.length];
+        else
+            Arrays.fill(failures, 0, size, (byte) 0);
+
+        checkNotNegative(batch.entityIds, size, ENTITY.ordinal());
+        checkOperations(batch.operations, size);
+        checkDecimals(batch.agreedFxUnscaled, batch.longAgreedFx, size, AGREED_FX.ordinal());
+        checkCurrencies(batch.currencyIds, size);
+        checkPresent(batch.instructionDays, size, INSTRUCTION_DATE.ordinal());
+        checkPositive(batch.units, size, UNITS.ordinal());
+        checkDecimals(batch.unitPriceUnscaled, batch.longUnitPrices, size, UNIT_PRICE.ordinal());
+
+        long[] validity = new long[(size + 63) >>> 6];
+        for (int row = 0; row < size; row++)
+            validity[row >>> 6] |= (long) ((failures[row] - 1) >>> 31) << row;
+
+        int validCount = 0;
+        for (long word : validity)
+            validCount += Long.bitCount(word);
+
+        List<ValidationResult.Reject> rejects = new ArrayList<>(size - validCount);
+        for (int row = 0; validCount < size && row < size; row++) {
+            for (int mask = failures[row]; mask != 0; mask &= mask - 1) {
+                InstructionField field = FIELDS[Integer.numberOfTrailingZeros(mask)];
+                rejects.add(new ValidationResult.Reject(row, field, reasonOf(batch, row, field)));
+            }
+        }
+        return new ValidationResult(size, validity, validCount, rejects);
+    }
+
+    private void checkNotNegative(int[] column, int size, int field) {
+
+        for (int row = 0; row < size; row++)
+            failures[row] |= (byte) ((column[row] >>> 31) << field);
+    }
+
+    private void checkDecimals(long[] column, BigDecimal[] longDecimals, int size, int field) {
+
+        for (int row = 0; row < size; row++) {
+            long notLong = column[row] ^ RawInstructionBatch.LONG_DECIMAL;
+            failures[row] |= (byte) ((int) ((column[row] & (notLong | -notLong)) >>> 63) << field);
+        }
+
+        if (longDecimals == null)
+            return;
+        for (int row = 0; row < size; row++) {
+            if (column[row] == RawInstructionBatch.LONG_DECIMAL && longDecimals[row].signum() < 0)
+                failures[row] |= (byte) (1 << field);
+        }
+    }
+
+    private void checkPositive(int[] column, int size, int field) {
+
+        for (int row = 0; row < size; row++)
+            failures[row] |= (byte) ((((column[row] - 1) | column[row]) >>> 31) << field);
+    }
+
+    private void checkPresent(int[] column, int size, int field) {
+
+        for (int row = 0; row < size; row++) {
+            int missing = column[row] ^ RawInstructionBatch.NO_DAY;
+            failures[row] |= (byte) ((((missing - 1) & ~missing) >>> 31) << field);
+        }
+    }
+
+    private void checkOperations(byte[] column, int size) {
+
+        for (int row = 0; row < size; row++)
+            failures[row] |= (byte) (((OPERATION_COUNT - 1 - (column[row] & 0xFF)) >>> 31) << OPERATION.ordinal());
+    }
+
+    private void checkCurrencies(short[] column, int size) {
+
+        int last = CurrencyDictionary.size() - 1;
+        for (int row = 0; row < size; row++)
+            failures[row] |= (byte) (((column[row] | (last - column[row])) >>> 31) << CURRENCY.ordinal());
+    }
+
+    private static String reasonOf(RawInstructionBatch batch, int row, InstructionField field) {
+
+        switch (field) {
+            case ENTITY:
+                return "entity is missing";
+            case OPERATION:
+                return batch.operation(row) == RawInstructionBatch.NO_OPERATION ? "operation is missing or unknown" : "unknown operation " + batch.operation(row);
+            case AGREED_FX:
+                return batch.agreedFxUnscaled(row) == RawInstructionBatch.INVALID_DECIMAL ? "agreed fx is missing or malformed" : "agreed fx must not be negative";
+            case CURRENCY:
+                return batch.currencyId(row) == RawInstructionBatch.NO_CURRENCY ? "currency is missing or unknown" : "unknown currency id " + batch.currencyId(row);
+            case INSTRUCTION_DATE:
+                return "instruction date is missing or malformed";
+            case UNITS:
+                return batch.units(row) == RawInstructionBatch.INVALID_UNITS ? "units are missing or malformed" : "units must be positive";
+            default:
+                return batch.unitPriceUnscaled(row) == RawInstructionBatch.INVALID_DECIMAL ? "unit price is missing or malformed" : "unit price must not be negative";
+        }
+    }
+}
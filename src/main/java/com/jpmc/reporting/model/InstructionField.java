@@ -0,0 +1,9 @@
+package com.jpmc.reporting.model;
+
+/**
+ * Fields of an {@link Instruction} checked when validating a {@link RawInstructionBatch}
+ */
+public enum InstructionField {
+
+    ENTITY, OPERATION, AGREED_FX, CURRENCY, INSTRUCTION_DATE, UNITS, UNIT_PRICE
+}
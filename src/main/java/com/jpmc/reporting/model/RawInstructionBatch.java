@@ -0,0 +1,216 @@
+package com.jpmc.reporting.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Columnar store of instructions as received, before validation. Each instruction is kept as one
+ * row across primitive arrays: dictionary encoded entity id, operation ordinal, currency id from
+ * {@link CurrencyDictionary}, instruction and settlement dates as epoch days, units, and agreed
+ * fx and unit price as unscaled longs with their scale. Decimals with more digits than a long
+ * holds are flagged with {@link #LONG_DECIMAL} and kept exactly in a side column, only allocated
+ * once such a decimal is added. Rows are added without any check, a missing or malformed field
+ * being recorded with the sentinel of its column, so that a
+ * {@link InstructionBatchValidator} can check every row at once and keep bad rows out of
+ * aggregation instead of failing on the first one.
+ * Not thread safe.
+ */
+public class RawInstructionBatch {
+
+    public static final int NO_ENTITY = -1;
+    public static final byte NO_OPERATION = -1;
+    public static final short NO_CURRENCY = -1;
+    public static final int NO_DAY = Integer.MIN_VALUE;
+    public static final long INVALID_DECIMAL = Long.MIN_VALUE;
+    public static final long LONG_DECIMAL = Long.MIN_VALUE + 1;
+    public static final int INVALID_UNITS = Integer.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final EntityDictionary entities;
+    private int size;
+    int[] entityIds;
+    byte[] operations;
+    long[] agreedFxUnscaled;
+    byte[] agreedFxScales;
+    short[] currencyIds;
+    int[] instructionDays;
+    int[] settlementDays;
+    int[] units;
+    long[] unitPriceUnscaled;
+    byte[] unitPriceScales;
+    BigDecimal[] longAgreedFx;
+    BigDecimal[] longUnitPrices;
+
+    public RawInstructionBatch(EntityDictionary entities) {
+        this(entities, DEFAULT_CAPACITY);
+    }
+
+    public RawInstructionBatch(EntityDictionary entities, int capacity) {
+
+        if (entities == null || capacity < 0)
+            throw new IllegalArgumentException("An entity dictionary and non negative capacity are required for raw instruction batch");
+
+        this.entities = entities;
+        this.entityIds = new int[capacity];
+        this.operations = new byte[capacity];
+        this.agreedFxUnscaled = new long[capacity];
+        this.agreedFxScales = new byte[capacity];
+        this.currencyIds = new short[capacity];
+        this.instructionDays = new int[capacity];
+        this.settlementDays = new int[capacity];
+        this.units = new int[capacity];
+        this.unitPriceUnscaled = new long[capacity];
+        this.unitPriceScales = new byte[capacity];
+    }
+
+    /**
+     * Appends a row to the batch
+     * @param entityId - id of entity in the batch dictionary, or {@link #NO_ENTITY}
+     * @param operation - operation ordinal, or {@link #NO_OPERATION}
+     * @param agreedFx - unscaled agreed fx, or {@link #INVALID_DECIMAL}
+     * @param agreedFxScale - scale of agreed fx, between -128 and 127
+     * @param currencyId - id of currency in {@link CurrencyDictionary}, or {@link #NO_CURRENCY}
+     * @param instructionDay - instruction date as epoch day, or {@link #NO_DAY}
+     * @param settlementDay - settlement date as epoch day, or {@link #NO_DAY}
+     * @param units - number of units, or {@link #INVALID_UNITS}
+     * @param unitPrice - unscaled price per unit, or {@link #INVALID_DECIMAL}
+     * @param unitPriceScale - scale of price per unit, between -128 and 127
+     */
+    public void add(int entityId, byte operation, long agreedFx, int agreedFxScale, short currencyId,
+                    int instructionDay, int settlementDay, int units, long unitPrice, int unitPriceScale) {
+
+        if (size == entityIds.length)
+            grow();
+
+        entityIds[size] = entityId;
+        operations[size] = operation;
+        agreedFxUnscaled[size] = agreedFx;
+        agreedFxScales[size] = (byte) agreedFxScale;
+        currencyIds[size] = currencyId;
+        instructionDays[size] = instructionDay;
+        settlementDays[size] = settlementDay;
+        this.units[size] = units;
+        unitPriceUnscaled[size] = unitPrice;
+        unitPriceScales[size] = (byte) unitPriceScale;
+        if (longAgreedFx != null) {
+            longAgreedFx[size] = null;
+            longUnitPrices[size] = null;
+        }
+        size++;
+    }
+
+    /**
+     * Replaces agreed fx and unit price of a row with exact decimals, for values whose unscaled
+     * form does not fit in a long. Null leaves the value of the row unchanged.
+     * @param row - row to be updated
+     * @param agreedFx - agreed fx, or null
+     * @param unitPrice - price per unit, or null
+     */
+    public void setLongDecimals(int row, BigDecimal agreedFx, BigDecimal unitPrice) {
+
+        if (row < 0 || row >= size)
+            throw new IllegalArgumentException("Row " + row + " is not in raw instruction batch");
+
+        if (longAgreedFx == null) {
+            longAgreedFx = new BigDecimal[entityIds.length];
+            longUnitPrices = new BigDecimal[entityIds.length];
+        }
+        if (agreedFx != null) {
+            longAgreedFx[row] = agreedFx;
+            agreedFxUnscaled[row] = LONG_DECIMAL;
+        }
+        if (unitPrice != null) {
+            longUnitPrices[row] = unitPrice;
+            unitPriceUnscaled[row] = LONG_DECIMAL;
+        }
+    }
+
+    /**
+     * Removes all rows, keeping allocated capacity and entity dictionary
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public EntityDictionary getEntities() {
+        return entities;
+    }
+
+    public int entityId(int row) {
+        return entityIds[row];
+    }
+
+    public byte operation(int row) {
+        return operations[row];
+    }
+
+    public long agreedFxUnscaled(int row) {
+        return agreedFxUnscaled[row];
+    }
+
+    public int agreedFxScale(int row) {
+        return agreedFxScales[row];
+    }
+
+    /**
+     * @return - agreed fx of a row holding a valid one
+     */
+    public BigDecimal agreedFx(int row) {
+        return agreedFxUnscaled[row] == LONG_DECIMAL ? longAgreedFx[row] : BigDecimal.valueOf(agreedFxUnscaled[row], agreedFxScales[row]);
+    }
+
+    public short currencyId(int row) {
+        return currencyIds[row];
+    }
+
+    public int instructionDay(int row) {
+        return instructionDays[row];
+    }
+
+    public int settlementDay(int row) {
+        return settlementDays[row];
+    }
+
+    public int units(int row) {
+        return units[row];
+    }
+
+    public long unitPriceUnscaled(int row) {
+        return unitPriceUnscaled[row];
+    }
+
+    public int unitPriceScale(int row) {
+        return unitPriceScales[row];
+    }
+
+    /**
+     * @return - price per unit of a row holding a valid one
+     */
+    public BigDecimal unitPrice(int row) {
+        return unitPriceUnscaled[row] == LONG_DECIMAL ? longUnitPrices[row] : BigDecimal.valueOf(unitPriceUnscaled[row], unitPriceScales[row]);
+    }
+
+    private void grow() {
+
+        int capacity = Math.max(DEFAULT_CAPACITY, entityIds.length * 2);
+        entityIds = Arrays.copyOf(entityIds, capacity);
+        operations = Arrays.copyOf(operations, capacity);
+        agreedFxUnscaled = Arrays.copyOf(agreedFxUnscaled, capacity);
+        agreedFxScales = Arrays.copyOf(agreedFxScales, capacity);
+        currencyIds = Arrays.copyOf(currencyIds, capacity);
+        instructionDays = Arrays.copyOf(instructionDays, capacity);
+        settlementDays = Arrays.copyOf(settlementDays, capacity);
+        units = Arrays.copyOf(units, capacity);
+        unitPriceUnscaled = Arrays.copyOf(unitPriceUnscaled, capacity);
+        unitPriceScales = Arrays.copyOf(unitPriceScales, capacity);
+        if (longAgreedFx != null) {
+            longAgreedFx = Arrays.copyOf(longAgreedFx, capacity);
+            longUnitPrices = Arrays.copyOf(longUnitPrices, capacity);
+        }
+    }
+}
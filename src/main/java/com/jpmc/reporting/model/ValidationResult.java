@@ -0,0 +1,88 @@
+package com.jpmc.reporting.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of validating a {@link RawInstructionBatch}: a bitmap with one bit set for every valid
+ * row, bit {@code row % 64} of word {@code row / 64}, and one {@link Reject} for every invalid
+ * field of the other rows, in row order.
+ */
+public final class ValidationResult {
+
+    private final int size;
+    private final long[] validity;
+    private final int validCount;
+    private final List<Reject> rejects;
+
+    ValidationResult(int size, long[] validity, int validCount, List<Reject> rejects) {
+
+        this.size = size;
+        this.validity = validity;
+        this.validCount = validCount;
+        this.rejects = Collections.unmodifiableList(rejects);
+    }
+
+    /**
+     * @return - number of rows validated
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isValid(int row) {
+
+        if (row < 0 || row >= size)
+            throw new IllegalArgumentException("Row " + row + " was not validated");
+        return (validity[row >>> 6] & 1L << row) != 0;
+    }
+
+    /**
+     * @return - validity bitmap, not to be modified
+     */
+    public long[] getValidity() {
+        return validity;
+    }
+
+    public int getValidCount() {
+        return validCount;
+    }
+
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    /**
+     * Invalid field of a row
+     */
+    public static final class Reject {
+
+        private final int row;
+        private final InstructionField field;
+        private final String reason;
+
+        Reject(int row, InstructionField field, String reason) {
+
+            this.row = row;
+            this.field = field;
+            this.reason = reason;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public InstructionField getField() {
+            return field;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Row " + row + " " + field + ": " + reason;
+        }
+    }
+}
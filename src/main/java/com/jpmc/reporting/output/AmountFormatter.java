@@ -0,0 +1,186 @@
+package com.jpmc.reporting.output;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Thread safe formatter of report amounts producing the same text as
+ * {@link NumberFormat#getCurrencyInstance(Locale)} for the given locale. Currency prefix and
+ * suffix, grouping and decimal separators, fraction digits and rounding are read once from the
+ * locale currency format, and amounts are then written digit by digit into a caller supplied
+ * {@link StringBuilder}. Amounts given as unscaled longs are formatted without allocating.
+ * If the locale format can not be reproduced, for instance because it does not group digits by
+ * three, every amount is formatted by a copy of the locale format instead.
+ */
+public final class AmountFormatter {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final BigDecimal[] PROBES = {
+            new BigDecimal("0"), new BigDecimal("0.5"), new BigDecimal("1.005"), new BigDecimal("-12.345"),
+            new BigDecimal("1234"), new BigDecimal("-1234567.891"), new BigDecimal("98765432109876.5")};
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final NumberFormat localeFormat;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char groupingSeparator;
+    private final boolean grouping;
+    private final char decimalSeparator;
+    private final int minFractionDigits;
+    private final int maxFractionDigits;
+    private final RoundingMode roundingMode;
+    private final boolean reproducible;
+
+    public AmountFormatter(Locale locale) {
+
+        if (locale == null)
+            throw new IllegalArgumentException("A locale is required for amount formatting");
+
+        localeFormat = NumberFormat.getCurrencyInstance(locale);
+        if (localeFormat instanceof DecimalFormat && ((DecimalFormat) localeFormat).getGroupingSize() == 3
+                && ((DecimalFormat) localeFormat).getMultiplier() == 1) {
+            DecimalFormat format = (DecimalFormat) localeFormat;
+            positivePrefix = format.getPositivePrefix();
+            positiveSuffix = format.getPositiveSuffix();
+            negativePrefix = format.getNegativePrefix();
+            negativeSuffix = format.getNegativeSuffix();
+            grouping = format.isGroupingUsed();
+            groupingSeparator = groupingSeparatorOf(format);
+            decimalSeparator = format.getDecimalFormatSymbols().getMonetaryDecimalSeparator();
+            minFractionDigits = format.getMinimumFractionDigits();
+            maxFractionDigits = Math.min(format.getMaximumFractionDigits(), POWERS_OF_TEN.length - 1);
+            roundingMode = format.getRoundingMode();
+            reproducible = matchesLocaleFormat();
+        } else {
+            positivePrefix = positiveSuffix = negativePrefix = negativeSuffix = "";
+            grouping = false;
+            groupingSeparator = decimalSeparator = '.';
+            minFractionDigits = maxFractionDigits = 0;
+            roundingMode = RoundingMode.HALF_EVEN;
+            reproducible = false;
+        }
+    }
+
+    /**
+     * @param amount - amount to be formatted
+     * @return - amount formatted as currency of the locale
+     */
+    public String format(BigDecimal amount) {
+        return format(amount, new StringBuilder(32)).toString();
+    }
+
+    /**
+     * Appends an amount formatted as currency of the locale
+     * @param amount - amount to be formatted
+     * @param out - buffer the amount is appended to
+     * @return - the given buffer
+     */
+    public StringBuilder format(BigDecimal amount, StringBuilder out) {
+
+        if (amount == null || out == null)
+            throw new IllegalArgumentException("An amount and an output buffer are required for amount formatting");
+
+        if (reproducible) {
+            BigDecimal rounded = amount.scale() == maxFractionDigits ? amount : amount.setScale(maxFractionDigits, roundingMode);
+            BigInteger unscaled = rounded.unscaledValue();
+            if (unscaled.bitLength() < 63)
+                return appendRounded(unscaled.longValue(), amount.signum() < 0, out);
+        }
+        return out.append(((NumberFormat) localeFormat.clone()).format(amount));
+    }
+
+    /**
+     * Appends an amount given as unscaled value and scale, as in {@link BigDecimal#valueOf(long, int)},
+     * formatted as currency of the locale. No object is allocated when scale is not larger than
+     * fraction digits of the locale currency.
+     * @param unscaled - unscaled amount
+     * @param scale - number of fraction digits of unscaled amount
+     * @param out - buffer the amount is appended to
+     * @return - the given buffer
+     */
+    public StringBuilder format(long unscaled, int scale, StringBuilder out) {
+
+        if (out == null)
+            throw new IllegalArgumentException("An amount and an output buffer are required for amount formatting");
+
+        if (reproducible && scale >= 0 && scale <= maxFractionDigits && unscaled != Long.MIN_VALUE) {
+            long factor = POWERS_OF_TEN[maxFractionDigits - scale];
+            long magnitude = Math.abs(unscaled);
+            if (magnitude <= Long.MAX_VALUE / factor)
+                return appendRounded(unscaled * factor, unscaled < 0, out);
+        }
+        return format(BigDecimal.valueOf(unscaled, scale), out);
+    }
+
+    private StringBuilder appendRounded(long unscaled, boolean negative, StringBuilder out) {
+
+        long magnitude = Math.abs(unscaled);
+        long integerPart = magnitude / POWERS_OF_TEN[maxFractionDigits];
+        long fractionPart = magnitude % POWERS_OF_TEN[maxFractionDigits];
+
+        out.append(negative ? negativePrefix : positivePrefix);
+
+        int integerDigits = digitCount(integerPart);
+        for (int i = integerDigits - 1; i >= 0; i--) {
+            out.append((char) ('0' + (integerPart / POWERS_OF_TEN[i]) % 10));
+            if (grouping && i > 0 && i % 3 == 0)
+                out.append(groupingSeparator);
+        }
+
+        int fractionDigits = maxFractionDigits;
+        while (fractionDigits > minFractionDigits && fractionPart % 10 == 0) {
+            fractionPart /= 10;
+            fractionDigits--;
+        }
+        if (fractionDigits > 0) {
+            out.append(decimalSeparator);
+            for (int i = fractionDigits - 1; i >= 0; i--)
+                out.append((char) ('0' + (fractionPart / POWERS_OF_TEN[i]) % 10));
+        }
+
+        return out.append(negative ? negativeSuffix : positiveSuffix);
+    }
+
+    private boolean matchesLocaleFormat() {
+
+        StringBuilder out = new StringBuilder();
+        for (BigDecimal probe : PROBES) {
+            out.setLength(0);
+            BigInteger unscaled = probe.setScale(maxFractionDigits, roundingMode).unscaledValue();
+            appendRounded(unscaled.longValue(), probe.signum() < 0, out);
+            if (!out.toString().equals(((NumberFormat) localeFormat.clone()).format(probe)))
+                return false;
+        }
+        return true;
+    }
+
+    private static char groupingSeparatorOf(DecimalFormat format) {
+
+        DecimalFormat probe = (DecimalFormat) format.clone();
+        probe.setPositivePrefix("");
+        probe.setPositiveSuffix("");
+        probe.setMaximumFractionDigits(0);
+        probe.setGroupingUsed(true);
+        String formatted = probe.format(1000);
+        return formatted.length() == 5 ? formatted.charAt(1) : format.getDecimalFormatSymbols().getGroupingSeparator();
+    }
+
+    private static int digitCount(long value) {
+
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits])
+            digits++;
+        return digits;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jpmc.reporting.output;
+
+/**
+ * Constants of the binary report format written by {@link BinaryReportWriter} and read by
+ * {@link BinaryReportReader}. All values are big endian.
+ * <pre>
+ * header:     int magic, short version, short reserved
+ * section:    byte type, byte operation, byte amount scale, byte reserved,
+ *             byte[4] ISO currency code padded with zero, int row count, rows
+ * row:        unsigned short payload length, payload
+ * payloads:   DICTIONARY      int entity id, UTF-8 entity name
+ *             AMOUNT_SETTLED  int settlement epoch day, long unscaled amount
+ *             RANKING         int entity id, long unscaled amount
+ * </pre>
+ * Entity names are sent once, in a dictionary section preceding the first ranking that refers
+ * to them. A report ends with an END section holding no rows. Readers skip payload bytes they
+ * do not know, so later versions may append fields to rows.
+ */
+public final class BinaryReportFormat {
+
+    public static final int MAGIC = 0x4A504D52;
+    public static final short VERSION = 1;
+
+    public static final byte DICTIONARY = 0;
+    public static final byte AMOUNT_SETTLED = 1;
+    public static final byte RANKING = 2;
+    public static final byte END = (byte) 0xFF;
+
+    public static final byte NO_OPERATION = -1;
+
+    static final int HEADER_SIZE = 8;
+    static final int SECTION_SIZE = 12;
+    static final int ROW_PREFIX_SIZE = 2;
+    static final int MAX_PAYLOAD_SIZE = 0xFFFF;
+
+    private BinaryReportFormat() {
+    }
+}
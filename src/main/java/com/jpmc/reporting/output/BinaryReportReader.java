@@ -0,0 +1,200 @@
+package com.jpmc.reporting.output;
+
+import com.jpmc.reporting.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Currency;
+
+import static com.jpmc.reporting.output.BinaryReportFormat.AMOUNT_SETTLED;
+import static com.jpmc.reporting.output.BinaryReportFormat.DICTIONARY;
+import static com.jpmc.reporting.output.BinaryReportFormat.END;
+import static com.jpmc.reporting.output.BinaryReportFormat.HEADER_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.MAGIC;
+import static com.jpmc.reporting.output.BinaryReportFormat.NO_OPERATION;
+import static com.jpmc.reporting.output.BinaryReportFormat.ROW_PREFIX_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.SECTION_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.VERSION;
+
+/**
+ * Cursor over a report in the format described in {@link BinaryReportFormat}. Sections and rows
+ * are read in place from the given buffer, typically a memory mapped file, so nothing is copied
+ * or allocated while iterating. Dictionary sections are consumed by the reader itself: callers
+ * only see amount settled and ranking sections, and resolve entity ids with {@link #entityName(int)},
+ * which decodes the name from the buffer.
+ * Not thread safe.
+ */
+public class BinaryReportReader {
+
+    private final ByteBuffer buffer;
+    private int[] nameOffsets = new int[64];
+    private int[] nameLengths = new int[64];
+    private int position;
+    private byte sectionType = DICTIONARY;
+    private byte operation;
+    private int scale;
+    private int currencyOffset;
+    private int rowsLeft;
+    private int row;
+    private int rowLength;
+
+    public BinaryReportReader(ByteBuffer buffer) {
+
+        if (buffer == null || buffer.remaining() < HEADER_SIZE || buffer.getInt(buffer.position()) != MAGIC
+                || buffer.getShort(buffer.position() + 4) != VERSION)
+            throw new IllegalArgumentException("Buffer does not hold a binary report of a supported version");
+
+        this.buffer = buffer;
+        this.position = buffer.position() + HEADER_SIZE;
+    }
+
+    /**
+     * Maps a report file in memory
+     * @param file - report file
+     * @return - reader of the mapped file
+     */
+    public static BinaryReportReader open(Path file) {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new BinaryReportReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to map binary report " + file, ex);
+        }
+    }
+
+    /**
+     * Moves to next amount settled or ranking section, skipping rows left in current section
+     * @return - false once the end of report has been reached
+     */
+    public boolean nextSection() {
+
+        while (true) {
+            while (rowsLeft > 0)
+                nextRow();
+            if (sectionType == END)
+                return false;
+            if (position + SECTION_SIZE > buffer.limit())
+                throw new IllegalArgumentException("Binary report is truncated at byte " + position);
+
+            sectionType = buffer.get(position);
+            operation = buffer.get(position + 1);
+            scale = buffer.get(position + 2);
+            currencyOffset = position + 4;
+            rowsLeft = buffer.getInt(position + 8);
+            position += SECTION_SIZE;
+
+            if (sectionType == DICTIONARY) {
+                while (nextRow())
+                    indexName(buffer.getInt(row), row + 4, rowLength - 4);
+            } else if (sectionType != END) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves to next row of current section
+     * @return - false once every row of current section has been read
+     */
+    public boolean nextRow() {
+
+        if (rowsLeft == 0)
+            return false;
+        if (position + ROW_PREFIX_SIZE > buffer.limit())
+            throw new IllegalArgumentException("Binary report is truncated at byte " + position);
+
+        rowLength = buffer.getShort(position) & 0xFFFF;
+        row = position + ROW_PREFIX_SIZE;
+        position = row + rowLength;
+        rowsLeft--;
+        if (position > buffer.limit())
+            throw new IllegalArgumentException("Binary report is truncated at byte " + row);
+        return true;
+    }
+
+    /**
+     * @return - either {@link BinaryReportFormat#AMOUNT_SETTLED} or {@link BinaryReportFormat#RANKING}
+     */
+    public byte sectionType() {
+        return sectionType;
+    }
+
+    /**
+     * @return - "amountSettled" or "ranking", as passed to {@link ReportWriter#writeReport}
+     */
+    public String reportType() {
+        return sectionType == AMOUNT_SETTLED ? "amountSettled" : "ranking";
+    }
+
+    public Operation operation() {
+        return operation == NO_OPERATION ? null : Operation.values()[operation];
+    }
+
+    public Currency currency() {
+
+        byte[] code = new byte[3];
+        for (int i = 0; i < code.length; i++)
+            code[i] = buffer.get(currencyOffset + i);
+        return Currency.getInstance(new String(code, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return - number of fraction digits of amounts in current section
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * @return - settlement epoch day or entity id of current row
+     */
+    public int key() {
+        return buffer.getInt(row);
+    }
+
+    /**
+     * @return - unscaled amount of current row
+     */
+    public long amount() {
+        return buffer.getLong(row + 4);
+    }
+
+    public BigDecimal amountValue() {
+        return BigDecimal.valueOf(amount(), scale);
+    }
+
+    /**
+     * @param id - entity id of a ranking row
+     * @return - name of entity
+     */
+    public String entityName(int id) {
+
+        if (id < 0 || id >= nameOffsets.length || nameOffsets[id] == 0)
+            throw new IllegalArgumentException("Entity id is not defined by a dictionary section: " + id);
+
+        byte[] name = new byte[nameLengths[id]];
+        for (int i = 0; i < name.length; i++)
+            name[i] = buffer.get(nameOffsets[id] + i);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private void indexName(int id, int offset, int length) {
+
+        if (id < 0)
+            throw new IllegalArgumentException("Entity id is not valid in binary report: " + id);
+        if (id >= nameOffsets.length) {
+            int capacity = Math.max(nameOffsets.length * 2, id + 1);
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+        }
+        nameOffsets[id] = offset;
+        nameLengths[id] = length;
+    }
+}
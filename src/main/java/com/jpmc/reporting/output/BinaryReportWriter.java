@@ -0,0 +1,181 @@
+package com.jpmc.reporting.output;
+
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Operation;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.Map;
+
+import static com.jpmc.reporting.output.BinaryReportFormat.AMOUNT_SETTLED;
+import static com.jpmc.reporting.output.BinaryReportFormat.DICTIONARY;
+import static com.jpmc.reporting.output.BinaryReportFormat.END;
+import static com.jpmc.reporting.output.BinaryReportFormat.HEADER_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.MAGIC;
+import static com.jpmc.reporting.output.BinaryReportFormat.MAX_PAYLOAD_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.NO_OPERATION;
+import static com.jpmc.reporting.output.BinaryReportFormat.RANKING;
+import static com.jpmc.reporting.output.BinaryReportFormat.ROW_PREFIX_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.SECTION_SIZE;
+import static com.jpmc.reporting.output.BinaryReportFormat.VERSION;
+
+/**
+ * Implementation of {@link ReportWriter} for downstream systems, emitting the compact binary
+ * format described in {@link BinaryReportFormat}. Daily settled amounts are written as epoch day
+ * rows and rankings as entity id rows, both holding amounts as unscaled longs at the number of
+ * fraction digits of the report currency, rounded half even. Nothing is formatted for a locale.
+ * Bytes are buffered and written to a {@link WritableByteChannel} when the buffer is full, when
+ * the footer is written and when {@link #flush()} is called.
+ * Not thread safe.
+ */
+public class BinaryReportWriter implements ReportWriter, Flushable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private EntityDictionary entities = new EntityDictionary();
+    private int sentEntities;
+    private boolean headerWritten;
+
+    public BinaryReportWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel - channel the report is written to
+     * @param bufferSize - number of bytes buffered before being written to channel
+     */
+    public BinaryReportWriter(WritableByteChannel channel, int bufferSize) {
+
+        if (channel == null || bufferSize < ROW_PREFIX_SIZE + MAX_PAYLOAD_SIZE)
+            throw new IllegalArgumentException("A valid channel and buffer size are required for binary report output");
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReport(Map<?, BigDecimal> reportData, Currency currency, String reportType, Operation op) {
+
+        if (reportData == null || reportData.isEmpty() || reportType == null || currency == null
+                || reportType.isEmpty() || op == null || op.toString().isEmpty())
+            throw new IllegalArgumentException("Valid report data, report  type and operation are required for report output");
+
+        if (!headerWritten)
+            writeReportHeader();
+
+        int scale = Math.max(currency.getDefaultFractionDigits(), 0);
+        if ("amountSettled".equals(reportType)) {
+            writeSection(AMOUNT_SETTLED, (byte) op.ordinal(), scale, currency, reportData.size());
+            for (Map.Entry<?, BigDecimal> row : reportData.entrySet())
+                writeAmountRow(Math.toIntExact(((LocalDate) row.getKey()).toEpochDay()), row.getValue(), scale);
+        } else {
+            int[] ids = new int[reportData.size()];
+            int i = 0;
+            for (Object entity : reportData.keySet())
+                ids[i++] = entities.idOf(String.valueOf(entity));
+            writeDictionary();
+
+            writeSection(RANKING, (byte) op.ordinal(), scale, currency, ids.length);
+            i = 0;
+            for (BigDecimal amount : reportData.values())
+                writeAmountRow(ids[i++], amount, scale);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReportHeader() {
+
+        ensureCapacity(HEADER_SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        entities = new EntityDictionary();
+        sentEntities = 0;
+        headerWritten = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeReportFooter() {
+
+        if (!headerWritten)
+            writeReportHeader();
+        writeSection(END, NO_OPERATION, 0, null, 0);
+        headerWritten = false;
+        flush();
+    }
+
+    /**
+     * Writes buffered bytes to the channel
+     */
+    @Override
+    public void flush() {
+
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write binary report to channel", ex);
+        }
+        buffer.clear();
+    }
+
+    private void writeDictionary() {
+
+        if (sentEntities == entities.size())
+            return;
+
+        writeSection(DICTIONARY, NO_OPERATION, 0, null, entities.size() - sentEntities);
+        for (; sentEntities < entities.size(); sentEntities++) {
+            byte[] name = entities.nameOf(sentEntities).getBytes(StandardCharsets.UTF_8);
+            if (name.length + 4 > MAX_PAYLOAD_SIZE)
+                throw new IllegalArgumentException("Entity name is too long for binary report: " + entities.nameOf(sentEntities));
+            ensureCapacity(ROW_PREFIX_SIZE + 4 + name.length);
+            buffer.putShort((short) (4 + name.length)).putInt(sentEntities).put(name);
+        }
+    }
+
+    private void writeSection(byte type, byte op, int scale, Currency currency, int rowCount) {
+
+        ensureCapacity(SECTION_SIZE);
+        buffer.put(type).put(op).put((byte) scale).put((byte) 0);
+        String code = currency == null ? "" : currency.getCurrencyCode();
+        for (int i = 0; i < 4; i++)
+            buffer.put(i < code.length() ? (byte) code.charAt(i) : 0);
+        buffer.putInt(rowCount);
+    }
+
+    private void writeAmountRow(int key, BigDecimal amount, int scale) {
+
+        BigInteger unscaled = amount.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue();
+        if (unscaled.bitLength() > 63)
+            throw new IllegalArgumentException("Amount does not fit in binary report: " + amount);
+
+        ensureCapacity(ROW_PREFIX_SIZE + 12);
+        buffer.putShort((short) 12).putInt(key).putLong(unscaled.longValue());
+    }
+
+    private void ensureCapacity(int bytes) {
+
+        if (buffer.remaining() < bytes)
+            flush();
+    }
+}
@@ -4,7 +4,6 @@ import com.jpmc.reporting.model.Operation;
 
 import java.io.PrintWriter;
 import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
@@ -23,11 +22,13 @@ public class ConsoleReportWriter implements ReportWriter {
 
     private PrintWriter writer;
     private Locale locale;
+    private AmountFormatter amountFormatter;
 
     public ConsoleReportWriter(PrintWriter writer, Locale locale) {
 
         this.writer = writer;
         this.locale = locale;
+        this.amountFormatter = new AmountFormatter(locale);
 
     }
 
@@ -43,7 +44,6 @@ public class ConsoleReportWriter implements ReportWriter {
 
         String reportKey = "amountSettled".equals(reportType) ? "Date" : "EntityName";
 
-        NumberFormat nf = getFormatterForCurrencyLocale();
         DateTimeFormatter dtf = getDateFormatterWithCurrentLocale();
         if ("Date".equals(reportKey))
             writer.printf("%nAmount in %s settled %s everyday:%n", currency.getCurrencyCode(), op.getOperation());
@@ -52,9 +52,9 @@ public class ConsoleReportWriter implements ReportWriter {
 
         reportData.forEach((k, v) -> {
             if (k instanceof LocalDate)
-                writer.printf("%s: %s  Amount: %s%n", reportKey, ((LocalDate) k).format(dtf), nf.format(v));
+                writer.printf("%s: %s  Amount: %s%n", reportKey, ((LocalDate) k).format(dtf), amountFormatter.format(v));
             else
-                writer.printf("%s: %s  Amount: %s%n", reportKey, k, nf.format(v));
+                writer.printf("%s: %s  Amount: %s%n", reportKey, k, amountFormatter.format(v));
 
         });
 
@@ -80,12 +80,6 @@ public class ConsoleReportWriter implements ReportWriter {
 
     }
 
-    private NumberFormat getFormatterForCurrencyLocale() {
-
-        return NumberFormat.getCurrencyInstance(this.locale);
-
-    }
-
     private DateTimeFormatter getDateFormatterWithCurrentLocale() {
 
         return DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(this.locale);
@@ -0,0 +1,149 @@
+package com.jpmc.reporting.rollup;
+
+import com.jpmc.reporting.model.Operation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Trade amounts of a single settlement date summed by currency, operation and entity. Entries
+ * keep the order in which they were first added, along with the sequence number of the first
+ * instruction that contributed to them, so that figures merged from several days can order
+ * entities as the instructions themselves would. Rollups written before sequence numbers were
+ * kept are read with {@link #UNKNOWN_SEQUENCE}.
+ * Not thread safe.
+ */
+final class DailyRollup {
+
+    private static final int MAGIC = 0x4A504D44;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_SEQUENCE = 1;
+
+    static final long UNKNOWN_SEQUENCE = Long.MAX_VALUE;
+
+    private final LocalDate settlementDate;
+    private final Map<Key, Total> amounts = new LinkedHashMap<>();
+
+    DailyRollup(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    /**
+     * @param sequence - sequence number of the instruction the amount comes from
+     */
+    void add(Currency currency, Operation op, String entity, BigDecimal amount, long sequence) {
+        amounts.merge(new Key(currency, op, entity), new Total(amount, sequence), Total::plus);
+    }
+
+    void addAll(DailyRollup other) {
+        other.amounts.forEach((key, total) -> amounts.merge(key, total, Total::plus));
+    }
+
+    /**
+     * Visits every entry, in the order entries were first added
+     */
+    void forEach(EntryVisitor visitor) {
+        amounts.forEach((key, total) -> visitor.visit(key.currency, key.op, key.entity, total.amount, total.firstSequence));
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(settlementDate.toEpochDay());
+        out.writeInt(amounts.size());
+        for (Map.Entry<Key, Total> entry : amounts.entrySet()) {
+            out.writeUTF(entry.getKey().currency.getCurrencyCode());
+            out.writeByte(entry.getKey().op.ordinal());
+            out.writeUTF(entry.getKey().entity);
+            byte[] unscaled = entry.getValue().amount.unscaledValue().toByteArray();
+            out.writeInt(entry.getValue().amount.scale());
+            out.writeShort(unscaled.length);
+            out.write(unscaled);
+            out.writeLong(entry.getValue().firstSequence);
+        }
+    }
+
+    static DailyRollup readFrom(DataInputStream in) throws IOException {
+
+        if (in.readInt() != MAGIC)
+            throw new IllegalArgumentException("Not a daily rollup of a supported version");
+        short version = in.readShort();
+        if (version != VERSION && version != VERSION_WITHOUT_SEQUENCE)
+            throw new IllegalArgumentException("Not a daily rollup of a supported version");
+
+        DailyRollup rollup = new DailyRollup(LocalDate.ofEpochDay(in.readLong()));
+        Operation[] ops = Operation.values();
+        for (int i = in.readInt(); i > 0; i--) {
+            Currency currency = Currency.getInstance(in.readUTF());
+            Operation op = ops[in.readUnsignedByte()];
+            String entity = in.readUTF();
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readUnsignedShort()];
+            in.readFully(unscaled);
+            long sequence = version == VERSION ? in.readLong() : UNKNOWN_SEQUENCE;
+            rollup.add(currency, op, entity, new BigDecimal(new BigInteger(unscaled), scale), sequence);
+        }
+        return rollup;
+    }
+
+    interface EntryVisitor {
+        void visit(Currency currency, Operation op, String entity, BigDecimal amount, long firstSequence);
+    }
+
+    private static final class Total {
+
+        private final BigDecimal amount;
+        private final long firstSequence;
+
+        Total(BigDecimal amount, long firstSequence) {
+            this.amount = amount;
+            this.firstSequence = firstSequence;
+        }
+
+        Total plus(Total other) {
+            return new Total(amount.add(other.amount), Math.min(firstSequence, other.firstSequence));
+        }
+    }
+
+    private static final class Key {
+
+        private final Currency currency;
+        private final Operation op;
+        private final String entity;
+
+        Key(Currency currency, Operation op, String entity) {
+            this.currency = currency;
+            this.op = op;
+            this.entity = entity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return op == key.op && currency.equals(key.currency) && entity.equals(key.entity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(currency, op, entity);
+        }
+    }
+}
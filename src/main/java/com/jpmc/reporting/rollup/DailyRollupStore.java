@@ -0,0 +1,216 @@
+package com.jpmc.reporting.rollup;
+
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Local disk store of trade amounts pre-aggregated per settlement date, currency, operation and
+ * entity. Each settlement date is kept in a file of its own named after the date, replaced
+ * atomically whenever instructions settling on that date are added. Reports for a range of
+ * settlement dates are then answered by merging the rollups of the days in range, without going
+ * back to instructions, and hold the same amounts a report computed from the instructions
+ * settling in that range would. Adding the same instructions twice counts them twice.
+ * Instructions are numbered in the order they are added, across calls, so that entities with the
+ * same amount are ranked in instruction order; the next number is kept in a file of its own.
+ * Store methods are synchronized, so one store can be shared between threads, but a directory
+ * must not be shared between stores.
+ */
+public class DailyRollupStore {
+
+    private static final String SUFFIX = ".rollup";
+    private static final String SEQUENCE_FILE = "next.sequence";
+
+    private final Path directory;
+
+    public DailyRollupStore(Path directory) {
+
+        if (directory == null)
+            throw new IllegalArgumentException("A directory is required for daily rollup store");
+
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to create daily rollup directory " + directory, ex);
+        }
+    }
+
+    /**
+     * Aggregates instructions by settlement date and merges them into the rollups of their days.
+     * Settlement date and trade amount are calculated once per instruction by means of
+     * {@link TradeOperationsProvider}.
+     * @param inProvider - instructions to be added
+     * @param top - trade operations used to calculate settlement date and amount
+     */
+    public synchronized void add(InputDataProvider inProvider, TradeOperationsProvider top) {
+
+        if (inProvider == null || top == null)
+            throw new IllegalArgumentException("Instructions and trade operations are required for daily rollups");
+
+        long sequence = readNextSequence();
+        Map<LocalDate, DailyRollup> rollups = new TreeMap<>();
+        try (Stream<Instruction> instructions = inProvider.streamInstructions()) {
+            Iterator<Instruction> iterator = instructions.iterator();
+            while (iterator.hasNext()) {
+                Instruction instruction = iterator.next();
+                LocalDate settlementDate = top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+                BigDecimal amount = top.calculateInstructionTradeAmount(instruction);
+                rollups.computeIfAbsent(settlementDate, DailyRollup::new)
+                        .add(instruction.getCurrency(), instruction.getTradeOperation(), instruction.getEntity(), amount, sequence++);
+            }
+        }
+
+        writeNextSequence(sequence);
+
+        for (DailyRollup rollup : rollups.values()) {
+            DailyRollup stored = read(rollup.getSettlementDate());
+            if (stored != null) {
+                stored.addAll(rollup);
+                rollup = stored;
+            }
+            write(rollup);
+        }
+    }
+
+    /**
+     * @return - settlement dates having a rollup, in date order
+     */
+    public synchronized NavigableSet<LocalDate> getSettlementDates() {
+
+        NavigableSet<LocalDate> dates = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    dates.add(LocalDate.parse(name.substring(0, name.length() - SUFFIX.length())));
+                } catch (DateTimeParseException ex) {
+                    // not a rollup written by this store
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to list daily rollups in " + directory, ex);
+        }
+        return dates;
+    }
+
+    /**
+     * Returns figures of instructions settling between two dates, both included
+     * @param fromDate - first settlement date
+     * @param toDate - last settlement date
+     * @return - figures merged from the rollups of every date in range
+     */
+    public ReportFigures getFigures(LocalDate fromDate, LocalDate toDate) {
+        return getFigures(fromDate, toDate, null);
+    }
+
+    /**
+     * Same as {@link #getFigures(LocalDate, LocalDate)} restricted to instructions in one currency
+     * @param fromDate - first settlement date
+     * @param toDate - last settlement date
+     * @param currency - currency of instructions, or null for every currency
+     * @return - figures merged from the rollups of every date in range
+     */
+    public synchronized ReportFigures getFigures(LocalDate fromDate, LocalDate toDate, Currency currency) {
+
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate))
+            throw new IllegalArgumentException("A valid date range is required for rollup figures");
+
+        RollupFigures figures = new RollupFigures();
+        for (LocalDate date : getSettlementDates().subSet(fromDate, true, toDate, true))
+            figures.merge(read(date), currency);
+        return figures;
+    }
+
+    private DailyRollup read(LocalDate date) {
+
+        Path file = fileOf(date);
+        if (!Files.exists(file))
+            return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return DailyRollup.readFrom(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read daily rollup " + file, ex);
+        }
+    }
+
+    private void write(DailyRollup rollup) {
+
+        Path file = fileOf(rollup.getSettlementDate());
+        try {
+            replace(file, rollup::writeTo);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write daily rollup " + file, ex);
+        }
+    }
+
+    private long readNextSequence() {
+
+        Path file = directory.resolve(SEQUENCE_FILE);
+        if (!Files.exists(file))
+            return 0;
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read instruction sequence " + file, ex);
+        }
+    }
+
+    private void writeNextSequence(long sequence) {
+
+        Path file = directory.resolve(SEQUENCE_FILE);
+        try {
+            replace(file, out -> out.writeLong(sequence));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write instruction sequence " + file, ex);
+        }
+    }
+
+    private void replace(Path file, Writer writer) throws IOException {
+
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            writer.writeTo(out);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path fileOf(LocalDate date) {
+        return directory.resolve(date + SUFFIX);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jpmc.reporting.rollup;
+
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.TopKRanking;
+import com.jpmc.reporting.model.Operation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Report figures of a date range, obtained by merging the {@link DailyRollup}s of its days in
+ * settlement date order. Entities with the same amount are ranked by the sequence number of
+ * their first instruction in range, which is the order a full recompute over the same
+ * instructions ranks them in.
+ */
+final class RollupFigures implements ReportFigures {
+
+    private final Map<Operation, Map<LocalDate, BigDecimal>> settledAmounts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, BigDecimal>> entityAmounts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, Long>> entityFirstSequences = new EnumMap<>(Operation.class);
+
+    RollupFigures() {
+
+        for (Operation op : Operation.values()) {
+            settledAmounts.put(op, new TreeMap<>());
+            entityAmounts.put(op, new LinkedHashMap<>());
+            entityFirstSequences.put(op, new HashMap<>());
+        }
+    }
+
+    void merge(DailyRollup rollup, Currency currency) {
+
+        rollup.forEach((rollupCurrency, op, entity, amount, firstSequence) -> {
+            if (currency != null && !currency.equals(rollupCurrency))
+                return;
+            settledAmounts.get(op).merge(rollup.getSettlementDate(), amount, BigDecimal::add);
+            entityAmounts.get(op).merge(entity, amount, BigDecimal::add);
+            entityFirstSequences.get(op).merge(entity, firstSequence, Math::min);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, BigDecimal> getDailySettledAmount(Operation op) {
+        return new LinkedHashMap<>(settledAmounts.get(op));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op) {
+
+        return entityAmounts.get(op).entrySet().stream()
+                .sorted(rankingOrder(op))
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Top ranked entities are selected with a bounded {@link TopKRanking}.
+     */
+    @Override
+    public Map<String, BigDecimal> getEntityRanking(Operation op, int limit) {
+
+        if (limit <= 0)
+            throw new IllegalArgumentException("Ranking limit must be positive");
+
+        Map<String, BigDecimal> entities = entityAmounts.get(op);
+        if (limit >= entities.size())
+            return getEntityRanking(op);
+
+        Map<String, Long> firstSequences = entityFirstSequences.get(op);
+        TopKRanking<Map.Entry<String, BigDecimal>> topRanking =
+                new TopKRanking<>(limit, Map.Entry.<String, BigDecimal>comparingByValue().reversed());
+        entities.entrySet().forEach(e -> topRanking.offer(e, firstSequences.get(e.getKey())));
+
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        topRanking.toList().forEach(e -> ranking.put(e.getKey(), e.getValue()));
+        return ranking;
+    }
+
+    private Comparator<Map.Entry<String, BigDecimal>> rankingOrder(Operation op) {
+
+        Map<String, Long> firstSequences = entityFirstSequences.get(op);
+        return Map.Entry.<String, BigDecimal>comparingByValue().reversed()
+                .thenComparing(e -> firstSequences.get(e.getKey()));
+    }
+}
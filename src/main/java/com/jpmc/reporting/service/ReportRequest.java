@@ -0,0 +1,127 @@
+package com.jpmc.reporting.service;
+
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable request for a report run by {@link ReportService}. Besides the channel the report is
+ * written to and the locale it is formatted with, a request may narrow the report to a range of
+ * settlement dates and to a subset of client entities. Requests hold no state of the run itself,
+ * so the same request may be submitted many times.
+ */
+public class ReportRequest {
+
+    private final WritableByteChannel out;
+    private final Locale locale;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Set<String> entities;
+
+    public static class Builder {
+
+        private WritableByteChannel out;
+        private Locale locale = Locale.US;
+        private LocalDate from;
+        private LocalDate to;
+        private Set<String> entities = Collections.emptySet();
+
+        public Builder out(WritableByteChannel val) {
+            out = val;
+            return this;
+        }
+
+        public Builder locale(Locale val) {
+            locale = val;
+            return this;
+        }
+
+        public Builder from(LocalDate val) {
+            from = val;
+            return this;
+        }
+
+        public Builder to(LocalDate val) {
+            to = val;
+            return this;
+        }
+
+        public Builder entities(Set<String> val) {
+            entities = val;
+            return this;
+        }
+
+        public ReportRequest build() {
+
+            if (!isValidInstance())
+                throw new IllegalArgumentException("A channel, locale and valid settlement date range are required for report request");
+
+            return new ReportRequest(this);
+        }
+
+        boolean isValidInstance() {
+            return out != null && locale != null && entities != null && (from == null || to == null || !from.isAfter(to));
+        }
+    }
+
+    private ReportRequest(Builder builder) {
+
+        out = builder.out;
+        locale = builder.locale;
+        from = builder.from;
+        to = builder.to;
+        entities = Collections.unmodifiableSet(new HashSet<>(builder.entities));
+    }
+
+    public WritableByteChannel getOut() {
+        return out;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return - first settlement date reported, or null if unbounded
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * @return - last settlement date reported, or null if unbounded
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * @return - entities reported, or an empty set if every entity is reported
+     */
+    public Set<String> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @param settlementDate - effective settlement date of an instruction
+     * @return - whether instructions settling on the given date are part of the report
+     */
+    boolean includesSettlementDate(LocalDate settlementDate) {
+        return (from == null || !settlementDate.isBefore(from)) && (to == null || !settlementDate.isAfter(to));
+    }
+
+    /**
+     * @param entity - entity of an instruction
+     * @return - whether instructions of the given entity are part of the report
+     */
+    boolean includesEntity(String entity) {
+        return entities.isEmpty() || entities.contains(entity);
+    }
+
+    boolean isUnfiltered() {
+        return from == null && to == null && entities.isEmpty();
+    }
+}
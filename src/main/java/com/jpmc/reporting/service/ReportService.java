@@ -0,0 +1,181 @@
+package com.jpmc.reporting.service;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.ReportingEngine;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.metrics.MeteredReportingEngine;
+import com.jpmc.reporting.metrics.MetricsSink;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ChannelReportWriter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Long running service generating many reports concurrently over the same instruction source.
+ * Every submitted {@link ReportRequest} runs on its own virtual thread when the JVM supports
+ * them, or on a bounded pool of platform threads otherwise. Either way no more than a fixed
+ * number of reports run at once, the others waiting in arrival order, so that a burst of
+ * requests does not inflate the latency of reports already running.
+ * Instruction source, trade operations provider, with its settlement calendars, and metrics
+ * sink are shared by every request and must be thread safe; the source must support concurrent
+ * streams. Engine, report writer and any filtering are created anew for each request, so no
+ * state of a report is visible to another.
+ */
+public class ReportService implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CONCURRENT_REPORTS = Runtime.getRuntime().availableProcessors();
+
+    private final InputDataProvider source;
+    private final TradeOperationsProvider top;
+    private final Supplier<ReportingEngine> engines;
+    private final MetricsSink sink;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public ReportService(InputDataProvider source, TradeOperationsProvider top) {
+        this(source, top, FusedReportingEngine::new, DEFAULT_MAX_CONCURRENT_REPORTS, MetricsSink.NONE);
+    }
+
+    /**
+     * @param source - instruction source shared by every report
+     * @param top - trade operations shared by every report
+     * @param engines - factory of the engine generating each report
+     * @param maxConcurrentReports - maximum number of reports generated at once
+     * @param sink - sink recording stages of every report, or {@link MetricsSink#NONE}
+     */
+    public ReportService(InputDataProvider source, TradeOperationsProvider top, Supplier<ReportingEngine> engines,
+                         int maxConcurrentReports, MetricsSink sink) {
+
+        if (source == null || top == null || engines == null || maxConcurrentReports <= 0 || sink == null)
+            throw new IllegalArgumentException("A source, trade operations, engine factory, metrics sink and positive concurrency are required for report service");
+
+        this.source = source;
+        this.top = top;
+        this.engines = engines;
+        this.sink = sink;
+        this.permits = new Semaphore(maxConcurrentReports, true);
+
+        ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreads ? virtualThreadExecutor : Executors.newFixedThreadPool(maxConcurrentReports, new ReportThreadFactory());
+    }
+
+    /**
+     * Queues a report for generation. The report is written and flushed to the channel of the
+     * request, which is left open.
+     * @param request - report to be generated
+     * @return - future completed once the report is written, or exceptionally if it failed
+     */
+    public CompletableFuture<Void> submit(ReportRequest request) {
+
+        if (request == null)
+            throw new IllegalArgumentException("A report request is required for report generation");
+
+        return CompletableFuture.runAsync(() -> generateReport(request), executor);
+    }
+
+    /**
+     * @return - whether reports run on virtual threads rather than on a pool of platform threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting requests and waits for every queued report to be written. If the calling
+     * thread is interrupted, it stops waiting and returns with its interrupt status set, leaving
+     * queued reports to complete on their own.
+     */
+    @Override
+    public void close() {
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void generateReport(ReportRequest request) {
+
+        permits.acquireUninterruptibly();
+        try {
+            ReportingEngine engine = engines.get();
+            if (sink.isEnabled())
+                engine = new MeteredReportingEngine(engine, sink);
+
+            InputDataProvider requestData = request.isUnfiltered() ? source : new FilteredInputDataProvider(request);
+            engine.generateReport(requestData, top, new ChannelReportWriter(request.getOut(), request.getLocale()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private final class FilteredInputDataProvider implements InputDataProvider {
+
+        private final ReportRequest request;
+
+        FilteredInputDataProvider(ReportRequest request) {
+            this.request = request;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public List<Instruction> retrieveInstructions() {
+
+            try (Stream<Instruction> instructions = streamInstructions()) {
+                return instructions.collect(toList());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Stream<Instruction> streamInstructions() {
+
+            Stream<Instruction> instructions = source.streamInstructions()
+                    .filter(instruction -> request.includesEntity(instruction.getEntity()));
+
+            if (request.getFrom() == null && request.getTo() == null)
+                return instructions;
+            return instructions.filter(instruction -> request.includesSettlementDate(
+                    top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency())));
+        }
+    }
+
+    private static final class ReportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            return new Thread(task, "report-service-" + count.incrementAndGet());
+        }
+    }
+}
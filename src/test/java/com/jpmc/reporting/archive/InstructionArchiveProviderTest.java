@@ -0,0 +1,145 @@
+package com.jpmc.reporting.archive;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class InstructionArchiveProviderTest {
+
+    private Path archive;
+    private TestDataUtil testDataUtil;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        archive = folder.newFile("instructions.archive").toPath();
+        testDataUtil = new TestDataUtil();
+    }
+
+    @Test
+    public void retrieveInstructions_WithWholeArchive_ReturnsEveryInstructionUnchanged() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("huge", Operation.SELL, new BigDecimal("1.000000000000000000001"),
+                Currency.getInstance("AED"), LocalDate.of(2017, Month.MARCH, 3), 7, new BigDecimal("5E+3"));
+        write(instructions, 3);
+
+        List<Instruction> archived = new InstructionArchiveProvider(archive).retrieveInstructions();
+
+        assertThat(archived.toString(), equalTo(instructions.toString()));
+    }
+
+    @Test
+    public void retrieveInstructions_WithDateRange_ReadsOnlyBlocksInRange() {
+        List<Instruction> instructions = sortedInstructions();
+        write(instructions, 500);
+        LocalDate tuesday = LocalDate.of(2016, Month.MARCH, 15);
+
+        InstructionArchiveProvider provider = new InstructionArchiveProvider(archive, tuesday, tuesday);
+
+        assertThat(provider.retrieveInstructions().toString(), equalTo(instructions.stream()
+                .filter(i -> i.getInstructionDate().equals(tuesday)).collect(toList()).toString()));
+        assertThat(provider.countBlocksToRead() <= 2, equalTo(true));
+        assertThat(new InstructionArchiveProvider(archive).countBlocksToRead(), equalTo(20));
+    }
+
+    @Test
+    public void retrieveInstructions_WithDateRangeAndOperation_ReturnsMatchingInstructions() {
+        List<Instruction> instructions = sortedInstructions();
+        write(instructions, 700);
+        LocalDate from = LocalDate.of(2016, Month.FEBRUARY, 1);
+        LocalDate to = LocalDate.of(2016, Month.APRIL, 30);
+
+        List<Instruction> archived = new InstructionArchiveProvider(archive, from, to, Operation.SELL).retrieveInstructions();
+
+        assertThat(archived.toString(), equalTo(instructions.stream()
+                .filter(i -> !i.getInstructionDate().isBefore(from) && !i.getInstructionDate().isAfter(to))
+                .filter(i -> i.getTradeOperation() == Operation.SELL).collect(toList()).toString()));
+    }
+
+    @Test
+    public void retrieveInstructions_WithOperationMissingFromArchive_ReadsNoBlock() {
+        List<Instruction> buys = sortedInstructions().stream().filter(i -> i.getTradeOperation() == Operation.BUY).collect(toList());
+        write(buys, 100);
+
+        InstructionArchiveProvider provider = new InstructionArchiveProvider(archive, LocalDate.MIN, LocalDate.MAX, Operation.SELL);
+
+        assertThat(provider.countBlocksToRead(), equalTo(0));
+        assertThat(provider.retrieveInstructions().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void retrieveInstructions_WithCurrency_ReadsOnlyBlocksOfThatCurrency() {
+        List<Instruction> instructions = sortedInstructions();
+        instructions.sort(Comparator.comparing((Instruction i) -> i.getCurrency().getCurrencyCode())
+                .thenComparing(Instruction::getInstructionDate));
+        write(instructions, 500);
+        Currency sar = Currency.getInstance("SAR");
+
+        InstructionArchiveProvider provider = new InstructionArchiveProvider(archive, LocalDate.MIN, LocalDate.MAX, null, sar);
+        long sarCount = instructions.stream().filter(i -> i.getCurrency().equals(sar)).count();
+
+        assertThat(provider.retrieveInstructions().toString(), equalTo(instructions.stream()
+                .filter(i -> i.getCurrency().equals(sar)).collect(toList()).toString()));
+        assertThat(provider.countBlocksToRead() <= (sarCount + 499) / 500 + 1, equalTo(true));
+        assertThat(provider.countBlocksToRead() < new InstructionArchiveProvider(archive).countBlocksToRead(), equalTo(true));
+        assertThat(new InstructionArchiveProvider(archive, LocalDate.MIN, LocalDate.MAX, null, Currency.getInstance("USD"))
+                .countBlocksToRead(), equalTo(0));
+    }
+
+    @Test
+    public void retrieveInstructions_WithFileNotBeingArchive_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("is not an instruction archive of a supported version");
+        Files.write(archive, new byte[64]);
+
+        new InstructionArchiveProvider(archive).retrieveInstructions();
+    }
+
+    @Test
+    public void constructor_WithInvertedDateRange_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A valid file and date range are required for instruction archive input");
+
+        new InstructionArchiveProvider(archive, LocalDate.of(2016, Month.MAY, 2), LocalDate.of(2016, Month.MAY, 1));
+    }
+
+    private List<Instruction> sortedInstructions() {
+        List<Instruction> instructions = new ArrayList<>(testDataUtil.generateInstructions(10000, 100,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 31L));
+        instructions.sort(Comparator.comparing(Instruction::getInstructionDate));
+        return instructions;
+    }
+
+    private void write(List<Instruction> instructions, int blockSize) {
+        try (InstructionArchiveWriter writer = new InstructionArchiveWriter(archive, blockSize)) {
+            instructions.forEach(writer::write);
+        }
+    }
+
+}
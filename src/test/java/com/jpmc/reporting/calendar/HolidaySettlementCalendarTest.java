@@ -0,0 +1,84 @@
+package com.jpmc.reporting.calendar;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Collections;
+import java.util.Currency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class HolidaySettlementCalendarTest {
+
+    private Path holidayFile;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private Currency euro;
+    private Currency aed;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        holidayFile = folder.newFile("holidays.csv").toPath();
+        firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+        lastDate = LocalDate.of(2016, Month.DECEMBER, 31);
+        euro = Currency.getInstance("EUR");
+        aed = Currency.getInstance("AED");
+    }
+
+    @Test
+    public void settlementDate_WithEasterHolidaysAndEUR_ReturnsFirstWorkingDayAfterHolidays() throws IOException {
+        write("# Easter 2016\nEUR,2016-03-25\n\nEUR,2016-03-28\n");
+        SettlementCalendar calendar = HolidaySettlementCalendar.load(holidayFile, firstDate, lastDate);
+
+        assertThat(calendar.settlementDate(LocalDate.of(2016, Month.MARCH, 24), euro), equalTo(LocalDate.of(2016, Month.MARCH, 29)));
+        assertThat(calendar.settlementDate(LocalDate.of(2016, Month.MARCH, 23), euro), equalTo(LocalDate.of(2016, Month.MARCH, 24)));
+    }
+
+    @Test
+    public void settlementDate_WithHolidaysOfAnotherCurrency_ReturnsSameAsWeekendCalendar() throws IOException {
+        write("EUR,2016-03-25\n");
+        SettlementCalendar calendar = HolidaySettlementCalendar.load(holidayFile, firstDate, lastDate);
+        SettlementCalendar weekendCalendar = new WeekendSettlementCalendar();
+
+        for (LocalDate date = firstDate.minusDays(10); date.isBefore(lastDate.plusDays(10)); date = date.plusDays(1))
+            assertThat(calendar.settlementDate(date, aed), equalTo(weekendCalendar.settlementDate(date, aed)));
+    }
+
+    @Test
+    public void settlementDate_WithHolidayAfterIndexedRange_ReturnsFirstWorkingDayAfterHoliday() {
+        SettlementCalendar calendar = new HolidaySettlementCalendar(
+                Collections.singletonMap(euro, Collections.singleton(LocalDate.of(2017, Month.JANUARY, 2))), firstDate, lastDate);
+
+        assertThat(calendar.settlementDate(LocalDate.of(2016, Month.DECEMBER, 30), euro), equalTo(LocalDate.of(2017, Month.JANUARY, 3)));
+    }
+
+    @Test
+    public void load_WithMalformedLine_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Malformed holiday at line 2");
+        write("EUR,2016-03-25\nEUR 2016-03-28\n");
+
+        HolidaySettlementCalendar.load(holidayFile, firstDate, lastDate);
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(holidayFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.jpmc.reporting.calendar;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Currency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class SettlementDateTableTest {
+
+    private SettlementCalendar weekendCalendar;
+    private SettlementCalendar table;
+    private LocalDate firstDate;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        weekendCalendar = new WeekendSettlementCalendar();
+        firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+        table = new SettlementDateTable(weekendCalendar, firstDate, 3 * 366);
+    }
+
+    @Test
+    public void settlementDate_WithEveryDateInHorizon_ReturnsSameAsSourceCalendar() {
+        for (String code : new String[]{"EUR", "AED", "SAR", "GBP"}) {
+            Currency currency = Currency.getInstance(code);
+            for (LocalDate date = firstDate; date.isBefore(firstDate.plusDays(3 * 366)); date = date.plusDays(1))
+                assertThat(table.settlementDate(date, currency), equalTo(weekendCalendar.settlementDate(date, currency)));
+        }
+    }
+
+    @Test
+    public void settlementDate_WithDatesOutsideHorizon_ReturnsSameAsSourceCalendar() {
+        Currency euro = Currency.getInstance("EUR");
+        LocalDate aSaturdayBefore = LocalDate.of(2015, Month.MARCH, 14);
+        LocalDate aSaturdayAfter = LocalDate.of(2020, Month.MARCH, 14);
+
+        assertThat(table.settlementDate(aSaturdayBefore, euro), equalTo(LocalDate.of(2015, Month.MARCH, 16)));
+        assertThat(table.settlementDate(aSaturdayAfter, euro), equalTo(LocalDate.of(2020, Month.MARCH, 16)));
+    }
+
+    @Test
+    public void settlementDate_WithFridayAndSaturdayAndEUR_ReturnsSameMondayInstance() {
+        Currency euro = Currency.getInstance("EUR");
+        LocalDate fromFriday = table.settlementDate(LocalDate.of(2016, Month.MARCH, 11), euro);
+        LocalDate fromSaturday = table.settlementDate(LocalDate.of(2016, Month.MARCH, 12), euro);
+
+        assertThat(fromFriday, equalTo(LocalDate.of(2016, Month.MARCH, 14)));
+        assertThat(fromSaturday, sameInstance(fromFriday));
+    }
+
+    @Test
+    public void constructor_WithInvalidHorizon_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A source calendar, first date and positive horizon are required for settlement table");
+        new SettlementDateTable(weekendCalendar, firstDate, 0);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.jpmc.reporting.calendar;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Currency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class WorkingWeekTest {
+
+    @Test
+    public void forCurrency_WithAEDAndSARAndEUR_ReturnsExpectedWorkingWeeks() {
+        assertThat(WorkingWeek.forCurrency(Currency.getInstance("AED")), equalTo(WorkingWeek.THURSDAY_TO_SUNDAY));
+        assertThat(WorkingWeek.forCurrency(Currency.getInstance("SAR")), equalTo(WorkingWeek.THURSDAY_TO_SUNDAY));
+        assertThat(WorkingWeek.forCurrency(Currency.getInstance("EUR")), equalTo(WorkingWeek.MONDAY_TO_FRIDAY));
+    }
+
+    @Test
+    public void isWorkingDay_WithEveryDayOfWeek_ReturnsSameForDayOfWeekAndEpochDay() {
+        LocalDate aMondayDate = LocalDate.of(2016, Month.FEBRUARY, 8);
+        for (WorkingWeek workingWeek : WorkingWeek.values()) {
+            for (int i = 0; i < 7; i++) {
+                LocalDate date = aMondayDate.plusDays(i);
+                assertThat(workingWeek.isWorkingDay(date.toEpochDay()), equalTo(workingWeek.isWorkingDay(date.getDayOfWeek())));
+            }
+        }
+    }
+
+    @Test
+    public void isWorkingDay_WithSaturday_ReturnsTrueOnlyForThursdayToSunday() {
+        assertThat(WorkingWeek.MONDAY_TO_FRIDAY.isWorkingDay(DayOfWeek.SATURDAY), equalTo(false));
+        assertThat(WorkingWeek.THURSDAY_TO_SUNDAY.isWorkingDay(DayOfWeek.SATURDAY), equalTo(true));
+        assertThat(WorkingWeek.THURSDAY_TO_SUNDAY.isWorkingDay(DayOfWeek.MONDAY), equalTo(false));
+    }
+
+}
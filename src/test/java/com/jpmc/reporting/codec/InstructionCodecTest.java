@@ -0,0 +1,233 @@
+package com.jpmc.reporting.codec;
+
+import com.jpmc.reporting.engine.ColumnarAggregator;
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.InstructionBatchLoader;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class InstructionCodecTest {
+
+    private InstructionEncoder encoder;
+    private InstructionDecoder decoder;
+    private TestDataUtil testDataUtil;
+    private TradeOperationsProvider top;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        encoder = new InstructionEncoder();
+        decoder = new InstructionDecoder();
+        testDataUtil = new TestDataUtil();
+        top = new SimpleTradeOperationsProvider();
+    }
+
+    @Test
+    public void toInstruction_WithEncodedSampleInstructions_ReturnsSameInstructions() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        ByteBuffer buffer = encode(instructions);
+
+        int offset = 0;
+        for (Instruction instruction : instructions) {
+            decoder.wrap(buffer, offset);
+            assertThat(decoder.toInstruction().toString(), equalTo(instruction.toString()));
+            offset = decoder.limit();
+        }
+        assertThat(offset, equalTo(encoder.offset()));
+    }
+
+    @Test
+    public void toInstruction_WithSettlementDateAndLargeDecimals_ReturnsSameInstruction() {
+        Instruction instruction = new Instruction.Builder()
+                .entity("zürich")
+                .tradeOperation(Operation.SELL)
+                .agreedFx(new BigDecimal("0.123456789012345678"))
+                .currency(Currency.getInstance("CHF"))
+                .instructionDate(LocalDate.of(2016, Month.MARCH, 4))
+                .settlementDate(LocalDate.of(2016, Month.MARCH, 7))
+                .units(Integer.MAX_VALUE)
+                .unitPrice(new BigDecimal("999999999999999999"))
+                .build();
+
+        decoder.wrap(encode(Arrays.asList(instruction)), 0);
+
+        assertThat(decoder.toInstruction().toString(), equalTo(instruction.toString()));
+        assertThat(decoder.hasSettlementDay(), equalTo(true));
+        assertThat(decoder.settlementDay(), equalTo((int) LocalDate.of(2016, Month.MARCH, 7).toEpochDay()));
+        assertThat(decoder.encodedLength(), equalTo(InstructionLayout.HEADER_LENGTH + InstructionLayout.BLOCK_LENGTH + 2 + 7));
+    }
+
+    @Test
+    public void wrap_WithLongerBlockOfLaterVersion_SkipsUnknownFields() {
+        Instruction instruction = testDataUtil.getInstructionsData().get(0);
+        ByteBuffer buffer = encode(Arrays.asList(instruction));
+        ByteBuffer later = ByteBuffer.allocate(buffer.capacity() + 8);
+        later.put(buffer.array(), 0, InstructionLayout.HEADER_LENGTH + InstructionLayout.BLOCK_LENGTH);
+        later.position(later.position() + 8);
+        later.put(buffer.array(), InstructionLayout.HEADER_LENGTH + InstructionLayout.BLOCK_LENGTH,
+                buffer.capacity() - InstructionLayout.HEADER_LENGTH - InstructionLayout.BLOCK_LENGTH);
+        later.put(0, (byte) (InstructionLayout.BLOCK_LENGTH + 8));
+
+        decoder.wrap(later, 0);
+
+        assertThat(decoder.toInstruction().toString(), equalTo(instruction.toString()));
+    }
+
+    @Test
+    public void add_WithDecodedInstructions_AggregatesSameReportAsFusedEngine() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("tiny", Operation.BUY, new BigDecimal("0.000000000000000001"), Currency.getInstance("EUR"),
+                LocalDate.of(2016, Month.JULY, 6), 3, new BigDecimal("123456789.123456789"));
+        testDataUtil.addInstructionToTestData("huge", Operation.SELL, new BigDecimal("100"), Currency.getInstance("EUR"),
+                LocalDate.of(2016, Month.JULY, 6), 1000000, new BigDecimal("1E+15"));
+        instructions.addAll(testDataUtil.generateInstructions(20000, 200,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR"), Currency.getInstance("AED")), 11L));
+        ByteBuffer buffer = encode(instructions);
+
+        EntityDictionary entities = new EntityDictionary();
+        InstructionBatch batch = new InstructionBatch(entities, 512);
+        InstructionBatchLoader loader = new InstructionBatchLoader(top);
+        ColumnarAggregator aggregator = new ColumnarAggregator(entities);
+        for (int offset = 0; offset < encoder.offset(); offset = decoder.limit()) {
+            loader.add(batch, decoder.wrap(buffer, offset));
+            if (batch.size() == 512) {
+                aggregator.accept(batch);
+                batch.clear();
+            }
+        }
+        aggregator.accept(batch);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new FusedReportingEngine().generateReport(() -> instructions, top, new ConsoleReportWriter(new PrintWriter(expected, true), Locale.US));
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        aggregator.writeReport(new ConsoleReportWriter(new PrintWriter(actual, true), Locale.US), Currency.getInstance("USD"), Integer.MAX_VALUE);
+
+        assertThat(actual.toString(), equalTo(expected.toString()));
+    }
+
+    @Test
+    public void add_WithDecodedInstructionsAfterWarmUp_AllocatesNothingPerInstruction() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        ByteBuffer buffer = encode(testDataUtil.generateInstructions(10000, 100,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 13L));
+        EntityDictionary entities = new EntityDictionary();
+        InstructionBatch batch = new InstructionBatch(entities, 1024);
+        InstructionBatchLoader loader = new InstructionBatchLoader(top);
+        ColumnarAggregator aggregator = new ColumnarAggregator(entities);
+        aggregate(buffer, batch, loader, aggregator, 5);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        aggregate(buffer, batch, loader, aggregator, 10);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated < 100000, equalTo(true));
+    }
+
+    @Test
+    public void encode_WithBufferTooSmall_ThrowsIllegalArgumentException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Buffer has no room for instruction at offset 0");
+
+        encoder.wrap(ByteBuffer.allocate(InstructionLayout.HEADER_LENGTH + InstructionLayout.BLOCK_LENGTH), 0)
+                .encode(testDataUtil.getInstructionsData().get(0));
+    }
+
+    @Test
+    public void toInstruction_WithDecimalsOfMoreThanEighteenDigits_ReturnsSameInstruction() {
+        Instruction instruction = new Instruction.Builder()
+                .entity("long")
+                .tradeOperation(Operation.BUY)
+                .agreedFx(new BigDecimal(0.22))
+                .currency(Currency.getInstance("EUR"))
+                .instructionDate(LocalDate.of(2016, Month.MARCH, 4))
+                .units(10)
+                .unitPrice(new BigDecimal("1234567890123456789012345.5"))
+                .build();
+
+        ByteBuffer buffer = encode(Arrays.asList(instruction, instruction));
+        decoder.wrap(buffer, 0);
+
+        assertThat(decoder.hasCompactDecimals(), equalTo(false));
+        assertThat(decoder.toInstruction().toString(), equalTo(instruction.toString()));
+        assertThat(decoder.wrap(buffer, decoder.limit()).toInstruction().toString(), equalTo(instruction.toString()));
+        assertThat(decoder.limit(), equalTo(buffer.capacity()));
+    }
+
+    @Test
+    public void encode_WithScaleAboveLayoutLimit_ThrowsIllegalArgumentException() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("small", Operation.BUY, BigDecimal.ONE, Currency.getInstance("EUR"),
+                LocalDate.of(2016, Month.JULY, 6), 1, new BigDecimal("1E-300"));
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Value of unit price does not fit in binary instruction layout: 1E-300");
+
+        encoder.wrap(ByteBuffer.allocate(256), 0).encode(instructions.get(instructions.size() - 1));
+    }
+
+    @Test
+    public void wrap_WithBufferNotHoldingInstruction_ThrowsIllegalArgumentException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Buffer does not hold an encoded instruction at offset 0");
+
+        decoder.wrap(ByteBuffer.allocate(256), 0);
+    }
+
+    private ByteBuffer encode(List<Instruction> instructions) {
+
+        int length = 0;
+        for (Instruction instruction : instructions)
+            length += encoder.encodedLength(instruction);
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        encoder.wrap(buffer, 0);
+        for (Instruction instruction : instructions)
+            encoder.encode(instruction);
+        return buffer;
+    }
+
+    private void aggregate(ByteBuffer buffer, InstructionBatch batch, InstructionBatchLoader loader, ColumnarAggregator aggregator, int rounds) {
+
+        for (int round = 0; round < rounds; round++) {
+            for (int offset = 0; offset < buffer.capacity(); offset = decoder.limit()) {
+                loader.add(batch, decoder.wrap(buffer, offset));
+                if (batch.size() == 1024) {
+                    aggregator.accept(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CachingTradeOperationsProviderTest {
+
+    private static final List<Currency> CURRENCIES = Arrays.asList(Currency.getInstance("EUR"),
+            Currency.getInstance("SAR"), Currency.getInstance("AED"), Currency.getInstance("USD"));
+
+    private TradeOperationsProvider simpleProvider;
+    private CachingTradeOperationsProvider cachingProvider;
+    private AtomicLong delegateCalls;
+    private List<Instruction> instructions;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        simpleProvider = new SimpleTradeOperationsProvider();
+        delegateCalls = new AtomicLong();
+        cachingProvider = new CachingTradeOperationsProvider(new SimpleTradeOperationsProvider() {
+            @Override
+            public LocalDate calculateSettlementDate(LocalDate instructionDate, Currency currency) {
+                delegateCalls.incrementAndGet();
+                return super.calculateSettlementDate(instructionDate, currency);
+            }
+        });
+        TestDataUtil testDataUtil = new TestDataUtil();
+        instructions = new ArrayList<>(testDataUtil.getInstructionsData());
+        instructions.addAll(testDataUtil.generateInstructions(20000, 50, CURRENCIES, 22L));
+    }
+
+    @Test
+    public void calculateSettlementDate_WithEveryDateAndCurrency_ReturnsSameAsDelegate() {
+        LocalDate firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+        for (int round = 0; round < 2; round++) {
+            for (int day = 0; day < 2000; day++) {
+                for (Currency currency : CURRENCIES) {
+                    LocalDate date = firstDate.plusDays(day);
+                    assertThat(cachingProvider.calculateSettlementDate(date, currency),
+                            equalTo(simpleProvider.calculateSettlementDate(date, currency)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void calculateSettlementDate_WithRepeatedKeys_ReturnsCachedDates() {
+        for (Instruction instruction : instructions)
+            cachingProvider.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+
+        assertThat(cachingProvider.getMissCount(), equalTo(delegateCalls.get()));
+        assertThat(cachingProvider.getHitCount() + cachingProvider.getMissCount(), equalTo((long) instructions.size()));
+        assertThat(cachingProvider.getMissCount() < 2000, equalTo(true));
+        assertThat(cachingProvider.getHitRate() > 0.9, equalTo(true));
+    }
+
+    @Test
+    public void calculateDailySettledAmount_WithInstructions_ReturnsSameAsSimpleProviderThroughCache() {
+        for (Operation op : Operation.values())
+            assertThat(cachingProvider.calculateDailySettledAmount(instructions, op).entrySet(),
+                    equalTo(simpleProvider.calculateDailySettledAmount(instructions, op).entrySet()));
+
+        assertThat(cachingProvider.getHitCount() + cachingProvider.getMissCount(), equalTo((long) instructions.size()));
+    }
+
+    @Test
+    public void calculateDailySettledAmount_WithFixedPointDelegate_SumsWithDelegateArithmeticThroughCache() {
+        AtomicLong tradeAmountCalls = new AtomicLong();
+        CachingTradeOperationsProvider fixedPointCache = new CachingTradeOperationsProvider(new FixedPointTradeOperationsProvider() {
+            @Override
+            public BigDecimal calculateInstructionTradeAmount(Instruction instruction) {
+                tradeAmountCalls.incrementAndGet();
+                return super.calculateInstructionTradeAmount(instruction);
+            }
+        });
+
+        for (Operation op : Operation.values())
+            assertThat(fixedPointCache.calculateDailySettledAmount(instructions, op).entrySet(),
+                    equalTo(simpleProvider.calculateDailySettledAmount(instructions, op).entrySet()));
+
+        assertThat(tradeAmountCalls.get(), equalTo(0L));
+        assertThat(fixedPointCache.getHitCount() + fixedPointCache.getMissCount(), equalTo((long) instructions.size()));
+    }
+
+    @Test
+    public void accept_WithParallelAggregation_ReturnsSameFiguresAsSimpleProvider() {
+        ReportFigures expected = figuresOf(simpleProvider);
+        for (int round = 0; round < 5; round++) {
+            ReportFigures actual = figuresOf(cachingProvider);
+            for (Operation op : Operation.values()) {
+                assertThat(actual.getDailySettledAmount(op).entrySet(), equalTo(expected.getDailySettledAmount(op).entrySet()));
+                assertThat(actual.getEntityRanking(op).entrySet(), equalTo(expected.getEntityRanking(op).entrySet()));
+            }
+        }
+    }
+
+    @Test
+    public void register_WithCacheAccesses_ExposesHitRateThroughJmx() throws Exception {
+        instructions.forEach(instruction -> cachingProvider.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency()));
+        ObjectName name = cachingProvider.register("test");
+        try {
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "HitRate"), equalTo(cachingProvider.getHitRate()));
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Capacity"), equalTo(CachingTradeOperationsProvider.DEFAULT_CAPACITY));
+        } finally {
+            cachingProvider.unregister("test");
+        }
+    }
+
+    @Test
+    public void constructor_WithCapacityNotPowerOfTwo_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A delegate and a power of two capacity of at least 2 are required for settlement date cache");
+        new CachingTradeOperationsProvider(simpleProvider, 1000);
+    }
+
+    @Test
+    public void calculateSettlementDate_WithNullDate_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A valid date and currency symbol are required for settlement date calculation");
+        cachingProvider.calculateSettlementDate(null, Currency.getInstance("EUR"));
+    }
+
+    private ReportFigures figuresOf(TradeOperationsProvider top) {
+        return instructions.parallelStream().collect(() -> new ReportAggregator(top), ReportAggregator::accept, ReportAggregator::combine);
+    }
+
+}
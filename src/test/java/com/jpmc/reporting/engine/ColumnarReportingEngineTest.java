@@ -0,0 +1,130 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.input.SimpleInputDataProvider;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.stubs.InputDataProviderStub;
+import com.jpmc.reporting.stubs.ReportWriterStub;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ColumnarReportingEngineTest {
+
+    private ReportingEngine engine;
+    private TestDataUtil testDataUtil;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        engine = new ColumnarReportingEngine(1000);
+        testDataUtil = new TestDataUtil();
+    }
+
+    @Test
+    public void generateReport_WithSampleInstructions_ReturnsSameReportAsSimpleEngine() {
+        assertSameReportAsFusedEngine(new SimpleInputDataProvider());
+    }
+
+    @Test
+    public void generateReport_WithGeneratedInstructionsInReverseDateOrder_ReturnsSameReportAsFusedEngine() {
+        List<Instruction> instructions = new ArrayList<>(testDataUtil.generateInstructions(10000, 300,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 3L));
+        instructions.sort((i1, i2) -> i2.getInstructionDate().compareTo(i1.getInstructionDate()));
+
+        assertSameReportAsFusedEngine(() -> instructions);
+    }
+
+    @Test
+    public void generateReport_WithTotalOverflowingLong_ReturnsSameReportAsFusedEngine() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("big", Operation.BUY, new BigDecimal("2.5"), Currency.getInstance("EUR"), LocalDate.of(2016, Month.JULY, 6), Integer.MAX_VALUE, new BigDecimal("9999999.99"));
+        testDataUtil.addInstructionToTestData("big", Operation.BUY, new BigDecimal("2.5"), Currency.getInstance("EUR"), LocalDate.of(2016, Month.JULY, 6), Integer.MAX_VALUE, new BigDecimal("9999999.99"));
+
+        assertSameReportAsFusedEngine(() -> instructions);
+    }
+
+    @Test
+    public void generateReport_WithDictionarySharedWithIngest_ReturnsSameReportAsFusedEngine() {
+        EntityDictionary entities = new EntityDictionary();
+        List<Instruction> instructions = testDataUtil.generateInstructions(5000, 50,
+                Collections.singletonList(Currency.getInstance("GBP")), 5L);
+        instructions.forEach(instruction -> entities.idOf(instruction.getEntity()));
+        engine = new ColumnarReportingEngine(1000, ReportFigures.FULL_RANKING, entities);
+
+        assertSameReportAsFusedEngine(() -> instructions);
+        assertSameReportAsFusedEngine(() -> instructions);
+        assertThat(entities.size(), equalTo(50));
+    }
+
+    @Test
+    public void generateReport_WithOffHeapAggregation_ReturnsSameReportAsFusedEngine() {
+        List<Instruction> instructions = testDataUtil.generateInstructions(20000, 5000,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 7L);
+        engine = new ColumnarReportingEngine(1000, ReportFigures.FULL_RANKING, null, true);
+
+        assertSameReportAsFusedEngine(() -> instructions);
+    }
+
+    @Test
+    public void generateReport_WithEmptyInstructions_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instructions must not be null/empty for report generation");
+        engine.generateReport(new InputDataProviderStub(), new SimpleTradeOperationsProvider(), new ReportWriterStub());
+    }
+
+    @Test
+    public void generateReport_WithAmountNotFittingInLong_ReturnsSameReportAsSimpleEngine() {
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("huge", Operation.BUY, new BigDecimal("100"), Currency.getInstance("EUR"), LocalDate.of(2016, Month.JULY, 6), 1000000, new BigDecimal("1E+15"));
+        testDataUtil.addInstructionToTestData("huge", Operation.BUY, new BigDecimal("0.5"), Currency.getInstance("EUR"), LocalDate.of(2016, Month.JULY, 6), 100, new BigDecimal("2.25"));
+        Collections.reverse(instructions);
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+            ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+            new SimpleReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                    new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+            new ColumnarReportingEngine(1000, ReportFigures.FULL_RANKING, null, offHeap).generateReport(() -> instructions,
+                    new SimpleTradeOperationsProvider(), new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+            assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+        }
+    }
+
+    private void assertSameReportAsFusedEngine(InputDataProvider inProvider) {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        new FusedReportingEngine().generateReport(inProvider, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        engine.generateReport(inProvider, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.jpmc.reporting.engine;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class FixedPointTest {
+
+    @Test
+    public void tradeAmount_WithRandomPricesAndRates_ReturnsSameAsBigDecimalHalfEven() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 100000; i++) {
+            BigDecimal unitPrice = BigDecimal.valueOf(random.nextInt(1000000), random.nextInt(5));
+            BigDecimal agreedFx = BigDecimal.valueOf(random.nextInt(1000000), random.nextInt(7));
+            int units = 1 + random.nextInt(10000);
+
+            BigDecimal expected = unitPrice.multiply(BigDecimal.valueOf(units)).multiply(agreedFx).setScale(2, RoundingMode.HALF_EVEN);
+
+            assertThat(FixedPoint.toBigDecimal(FixedPoint.tradeAmount(unitPrice, units, agreedFx)), equalTo(expected));
+        }
+    }
+
+    @Test
+    public void rescale_WithExactHalves_RoundsToEvenNeighbour() {
+        assertThat(FixedPoint.rescale(10125, 3), equalTo(1012L));
+        assertThat(FixedPoint.rescale(10135, 3), equalTo(1014L));
+        assertThat(FixedPoint.rescale(-10135, 3), equalTo(-1014L));
+        assertThat(FixedPoint.rescale(10126, 3), equalTo(1013L));
+        assertThat(FixedPoint.rescale(7, 0), equalTo(700L));
+    }
+
+    @Test
+    public void tradeAmount_WithOverflowingProduct_ReturnsNotRepresentable() {
+        assertThat(FixedPoint.tradeAmount(new BigDecimal("999999999999.99"), Integer.MAX_VALUE, new BigDecimal("99999.9999")),
+                equalTo(FixedPoint.NOT_REPRESENTABLE));
+    }
+
+    @Test
+    public void tradeAmount_WithRateFromDouble_ReturnsNotRepresentable() {
+        assertThat(FixedPoint.tradeAmount(new BigDecimal("100.25"), 200, new BigDecimal(0.22)), equalTo(FixedPoint.NOT_REPRESENTABLE));
+    }
+
+    @Test
+    public void add_WithOverflowingSum_ReturnsNotRepresentable() {
+        assertThat(FixedPoint.add(Long.MAX_VALUE, 1), equalTo(FixedPoint.NOT_REPRESENTABLE));
+        assertThat(FixedPoint.add(Long.MAX_VALUE - 1, 1), equalTo(Long.MAX_VALUE));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class FixedPointTradeOperationsProviderTest {
+
+    private TradeOperationsProvider fixedPointProvider;
+    private TradeOperationsProvider bigDecimalProvider;
+    private TestDataUtil testDataUtil;
+    private List<Instruction> instructions;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        fixedPointProvider = new FixedPointTradeOperationsProvider();
+        bigDecimalProvider = new SimpleTradeOperationsProvider();
+        testDataUtil = new TestDataUtil();
+        instructions = new ArrayList<>(testDataUtil.getInstructionsData());
+        instructions.addAll(testDataUtil.generateInstructions(5000, 50,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 11L));
+    }
+
+    @Test
+    public void calculateInstructionTradeAmount_WithEveryInstruction_ReturnsSameAsBigDecimalProvider() {
+        for (Instruction instruction : instructions)
+            assertThat(fixedPointProvider.calculateInstructionTradeAmount(instruction),
+                    equalTo(bigDecimalProvider.calculateInstructionTradeAmount(instruction)));
+    }
+
+    @Test
+    public void calculateDailySettledAmount_WithInstructions_ReturnsSameAsBigDecimalProvider() {
+        for (Operation op : Operation.values())
+            assertThat(fixedPointProvider.calculateDailySettledAmount(instructions, op).entrySet(),
+                    equalTo(bigDecimalProvider.calculateDailySettledAmount(instructions, op).entrySet()));
+    }
+
+    @Test
+    public void rankEntitiesByInstructionAmount_WithInstructions_ReturnsSameAsBigDecimalProvider() {
+        for (Operation op : Operation.values())
+            assertThat(fixedPointProvider.rankEntitiesByInstructionAmount(instructions, op).entrySet(),
+                    equalTo(bigDecimalProvider.rankEntitiesByInstructionAmount(instructions, op).entrySet()));
+    }
+
+    @Test
+    public void rankEntitiesByInstructionAmount_WithTotalOverflowingLong_ReturnsBigDecimalTotal() {
+        List<Instruction> sampleInstructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("big", Operation.BUY, new BigDecimal("99999.9999"), Currency.getInstance("EUR"), LocalDate.now(), Integer.MAX_VALUE, new BigDecimal("9999999.99"));
+        testDataUtil.addInstructionToTestData("big", Operation.BUY, new BigDecimal("99999.9999"), Currency.getInstance("EUR"), LocalDate.now(), Integer.MAX_VALUE, new BigDecimal("9999999.99"));
+
+        Map<String, BigDecimal> ranking = fixedPointProvider.rankEntitiesByInstructionAmount(sampleInstructions, Operation.BUY);
+
+        assertThat(ranking.entrySet(), equalTo(bigDecimalProvider.rankEntitiesByInstructionAmount(sampleInstructions, Operation.BUY).entrySet()));
+        assertThat(ranking.get("big").compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0, equalTo(true));
+    }
+
+    @Test
+    public void calculateInstructionTradeAmount_WithInvalidInstruction_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instruction must not be null for trade amount calculation");
+        fixedPointProvider.calculateInstructionTradeAmount(null);
+    }
+
+}
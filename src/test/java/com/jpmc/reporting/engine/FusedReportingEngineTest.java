@@ -0,0 +1,51 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.SimpleInputDataProvider;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.stubs.InputDataProviderStub;
+import com.jpmc.reporting.stubs.ReportWriterStub;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class FusedReportingEngineTest {
+
+    private ReportingEngine engine;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        engine = new FusedReportingEngine();
+    }
+
+    @Test
+    public void generateReport_WithSampleInstructions_ReturnsSameReportAsSimpleEngine() {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        new SimpleReportingEngine().generateReport(new SimpleInputDataProvider(), new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        engine.generateReport(new SimpleInputDataProvider(), new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    @Test
+    public void generateReport_WithEmptyInstructions_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instructions must not be null/empty for report generation");
+        engine.generateReport(new InputDataProviderStub(), new SimpleTradeOperationsProvider(), new ReportWriterStub());
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.fail;
+
+public class IncrementalReportingEngineTest {
+
+    private TradeOperationsProvider tradeOpsProvider;
+    private IncrementalReportingEngine engine;
+    private TestDataUtil testDataUtil;
+    private List<Instruction> instructions;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        tradeOpsProvider = new SimpleTradeOperationsProvider();
+        engine = new IncrementalReportingEngine(tradeOpsProvider);
+        testDataUtil = new TestDataUtil();
+        instructions = testDataUtil.getInstructionsData();
+    }
+
+    @Test
+    public void submit_WithInstructionsInSeveralBatches_ReturnsSameFiguresAsSingleAggregation() {
+        List<Instruction> generated = testDataUtil.generateInstructions(3000, 40,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 5L);
+        for (int from = 0; from < generated.size(); from += 700)
+            engine.submit(generated.subList(from, Math.min(from + 700, generated.size())));
+
+        ReportAggregator aggregator = new ReportAggregator(tradeOpsProvider);
+        generated.forEach(aggregator::accept);
+
+        for (Operation op : Operation.values()) {
+            assertThat(engine.getDailySettledAmount(op).entrySet(), equalTo(aggregator.getDailySettledAmount(op).entrySet()));
+            assertThat(engine.getEntityRanking(op).entrySet(), equalTo(aggregator.getEntityRanking(op).entrySet()));
+        }
+    }
+
+    @Test
+    public void getEntityRanking_WithLimitAfterRetractions_ReturnsSameTopRankingAsSingleAggregation() {
+        List<Instruction> generated = testDataUtil.generateInstructions(3000, 40,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 9L);
+        List<Instruction> remaining = new ArrayList<>();
+        for (int from = 0; from < generated.size(); from += 700) {
+            List<Instruction> batch = generated.subList(from, Math.min(from + 700, generated.size()));
+            engine.submit(batch);
+            List<Instruction> retracted = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++)
+                (i % 5 == 0 ? retracted : remaining).add(batch.get(i));
+            engine.retract(retracted);
+        }
+
+        ReportAggregator aggregator = new ReportAggregator(tradeOpsProvider);
+        remaining.forEach(aggregator::accept);
+
+        for (Operation op : Operation.values()) {
+            assertThat(engine.getEntityRanking(op, 10).entrySet(), equalTo(aggregator.getEntityRanking(op, 10).entrySet()));
+            assertThat(engine.getEntityRanking(op).entrySet(), equalTo(aggregator.getEntityRanking(op).entrySet()));
+        }
+    }
+
+    @Test
+    public void getEntityRanking_WithTiedEntitiesUpdatedLater_KeepsFirstSeenOrder() {
+        Instruction first = instructions.get(0);
+        Instruction second = withEntity(first, "second");
+        Instruction third = withEntity(first, "third");
+        engine.submit(Collections.singletonList(first));
+        engine.submit(Collections.singletonList(second));
+        engine.submit(Collections.singletonList(third));
+        engine.submit(Collections.singletonList(second));
+        engine.retract(Collections.singletonList(second));
+
+        assertThat(new ArrayList<>(engine.getEntityRanking(Operation.BUY).keySet()), equalTo(Arrays.asList("foo", "second", "third")));
+        assertThat(new ArrayList<>(engine.getEntityRanking(Operation.BUY, 2).keySet()), equalTo(Arrays.asList("foo", "second")));
+    }
+
+    @Test
+    public void retract_WithPreviouslySubmittedInstruction_RemovesItsDateAndEntity() {
+        engine.submit(instructions);
+        engine.retract(Collections.singletonList(instructions.get(0)));
+
+        Map<LocalDate, BigDecimal> expectedSettledAmount = testDataUtil.getExpectedSettleAmountForOp(Operation.BUY);
+        expectedSettledAmount.remove(LocalDate.of(2016, Month.JANUARY, 4));
+        Map<String, BigDecimal> expectedEntityRanking = testDataUtil.getExpectedEntityRankingForOp(Operation.BUY, false);
+        expectedEntityRanking.remove("foo");
+
+        assertThat(engine.getDailySettledAmount(Operation.BUY).entrySet(), equalTo(expectedSettledAmount.entrySet()));
+        assertThat(engine.getEntityRanking(Operation.BUY).entrySet(), equalTo(expectedEntityRanking.entrySet()));
+    }
+
+    @Test
+    public void amend_WithUnitsChanged_ReturnsAmountsOfAmendedInstruction() {
+        engine.submit(instructions);
+        Instruction original = instructions.get(5);
+        Instruction amended = new Instruction.Builder()
+                .entity(original.getEntity())
+                .tradeOperation(original.getTradeOperation())
+                .agreedFx(original.getAgreedFx())
+                .currency(original.getCurrency())
+                .instructionDate(original.getInstructionDate())
+                .units(original.getUnits() * 2)
+                .unitPrice(original.getUnitPrice())
+                .build();
+
+        engine.amend(original, amended);
+
+        assertThat(engine.getEntityRanking(Operation.SELL).get("mac"), equalTo(new BigDecimal("39644.64")));
+        assertThat(engine.getDailySettledAmount(Operation.SELL).get(LocalDate.of(2016, Month.OCTOBER, 17)), equalTo(new BigDecimal("39644.64")));
+    }
+
+    @Test
+    public void retract_WithInstructionNeverSubmitted_ThrowsIllegalArgExceptionAndKeepsFigures() {
+        engine.submit(instructions.subList(0, 1));
+        Map<String, BigDecimal> rankingBefore = engine.getEntityRanking(Operation.BUY);
+
+        try {
+            engine.retract(instructions.subList(0, 2));
+            fail("Retracting an instruction never submitted must be rejected");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), equalTo("Retracted instructions must have been submitted before: bar"));
+        }
+
+        assertThat(engine.getEntityRanking(Operation.BUY).entrySet(), equalTo(rankingBefore.entrySet()));
+    }
+
+    @Test
+    public void retract_WithLookAlikeInstructionNeverSubmitted_ThrowsIllegalArgExceptionAndKeepsFigures() {
+        Instruction submitted = instructions.get(0);
+        Instruction lookAlike = new Instruction.Builder()
+                .entity(submitted.getEntity())
+                .tradeOperation(submitted.getTradeOperation())
+                .agreedFx(submitted.getAgreedFx())
+                .currency(submitted.getCurrency())
+                .instructionDate(submitted.getInstructionDate())
+                .units(submitted.getUnits() + 1)
+                .unitPrice(submitted.getUnitPrice())
+                .build();
+        engine.submit(instructions);
+        Map<String, BigDecimal> rankingBefore = engine.getEntityRanking(Operation.BUY);
+        Map<LocalDate, BigDecimal> settledBefore = engine.getDailySettledAmount(Operation.BUY);
+
+        try {
+            engine.retract(Collections.singletonList(lookAlike));
+            fail("Retracting an instruction never submitted must be rejected");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), equalTo("Retracted instructions must have been submitted before: foo"));
+        }
+
+        assertThat(engine.getEntityRanking(Operation.BUY).entrySet(), equalTo(rankingBefore.entrySet()));
+        assertThat(engine.getDailySettledAmount(Operation.BUY).entrySet(), equalTo(settledBefore.entrySet()));
+    }
+
+    @Test
+    public void retract_WithSameInstructionTwice_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Retracted instructions must have been submitted before: foo");
+        engine.submit(instructions);
+
+        engine.retract(Arrays.asList(instructions.get(0), instructions.get(0)));
+    }
+
+    private Instruction withEntity(Instruction instruction, String entity) {
+        return new Instruction.Builder()
+                .entity(entity)
+                .tradeOperation(instruction.getTradeOperation())
+                .agreedFx(instruction.getAgreedFx())
+                .currency(instruction.getCurrency())
+                .instructionDate(instruction.getInstructionDate())
+                .units(instruction.getUnits())
+                .unitPrice(instruction.getUnitPrice())
+                .build();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.jpmc.reporting.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class OffHeapAmountTableTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void add_WithManyKeysGrowingTable_ReturnsSameTotalsAsDenseTable() {
+        OffHeapAmountTable offHeap = new OffHeapAmountTable(4);
+        DenseAmountTable dense = new DenseAmountTable();
+        Random random = new Random(41L);
+
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(50000) - 1000;
+            long amount = random.nextInt(1000000);
+            offHeap.add(key, amount);
+            dense.add(key, amount);
+        }
+
+        assertThat(offHeap.size(), equalTo(dense.size()));
+        for (int position = 0; position < dense.size(); position++) {
+            int key = dense.keyAt(position);
+            assertThat(offHeap.keyAt(position), equalTo(key));
+            assertThat(offHeap.get(key), equalTo(dense.get(key)));
+        }
+        assertThat(offHeap.compare(dense.keyAt(0), dense.keyAt(1)), equalTo(dense.compare(dense.keyAt(0), dense.keyAt(1))));
+    }
+
+    @Test
+    public void add_WithTotalOverflowingLong_ReturnsExactTotal() {
+        OffHeapAmountTable table = new OffHeapAmountTable();
+        table.add(7, Long.MAX_VALUE - 1);
+        table.add(7, 10L);
+        table.add(8, 5L);
+
+        assertThat(table.get(7), equalTo(FixedPoint.toBigDecimal(Long.MAX_VALUE - 1).add(new BigDecimal("0.10"))));
+        assertThat(table.compare(7, 8) > 0, equalTo(true));
+        assertThat(table.compare(8, 7) < 0, equalTo(true));
+    }
+
+    @Test
+    public void add_WithAmountNotFittingInLong_ReturnsSameTotalsAsDenseTable() {
+        OffHeapAmountTable offHeap = new OffHeapAmountTable();
+        DenseAmountTable dense = new DenseAmountTable();
+        for (AmountTable table : new AmountTable[]{offHeap, dense}) {
+            table.add(3, 250L);
+            table.add(3, new BigDecimal("1E+23"));
+            table.add(3, 5L);
+            table.add(4, new BigDecimal("1E+22"));
+        }
+
+        assertThat(offHeap.get(3), equalTo(new BigDecimal("100000000000000000000002.55")));
+        assertThat(dense.get(3), equalTo(offHeap.get(3)));
+        assertThat(dense.get(4), equalTo(offHeap.get(4)));
+        assertThat(offHeap.keyAt(1), equalTo(4));
+        assertThat(offHeap.compare(3, 4) > 0, equalTo(true));
+        assertThat(dense.compare(3, 4) > 0, equalTo(true));
+    }
+
+    @Test
+    public void add_WithKeysCollidingOnSlot_ReturnsTotalsOfEachKey() {
+        OffHeapAmountTable table = new OffHeapAmountTable(8);
+        for (int key = 0; key < 16 * 65536; key += 65536)
+            table.add(key, key / 65536 + 1);
+
+        for (int key = 0; key < 16 * 65536; key += 65536)
+            assertThat(table.get(key), equalTo(FixedPoint.toBigDecimal(key / 65536 + 1)));
+        assertThat(table.size(), equalTo(16));
+    }
+
+    @Test
+    public void constructor_WithNoExpectedKeys_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Expected number of keys must be positive for off heap amount table");
+        new OffHeapAmountTable(0);
+    }
+
+}
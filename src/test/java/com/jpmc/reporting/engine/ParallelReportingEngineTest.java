@@ -0,0 +1,77 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.stubs.InputDataProviderStub;
+import com.jpmc.reporting.stubs.ReportWriterStub;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ParallelReportingEngineTest {
+
+    private ForkJoinPool pool;
+    private ReportingEngine engine;
+    private TestDataUtil testDataUtil;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        pool = new ForkJoinPool(4);
+        engine = new ParallelReportingEngine(pool, 100);
+        testDataUtil = new TestDataUtil();
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void generateReport_WithGeneratedInstructions_ReturnsSameReportAsFusedEngine() {
+        List<Instruction> instructions = testDataUtil.generateInstructions(20000, 500,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED"), Currency.getInstance("GBP")), 42L);
+        InputDataProvider inProvider = () -> instructions;
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        new FusedReportingEngine().generateReport(inProvider, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        engine.generateReport(inProvider, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    @Test
+    public void generateReport_WithEmptyInstructions_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instructions must not be null/empty for report generation");
+        engine.generateReport(new InputDataProviderStub(), new SimpleTradeOperationsProvider(), new ReportWriterStub());
+    }
+
+    @Test
+    public void constructor_WithInvalidChunkSize_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A valid pool and chunk size are required for parallel reporting");
+        new ParallelReportingEngine(pool, 0);
+    }
+
+}
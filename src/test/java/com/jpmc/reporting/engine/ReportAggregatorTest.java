@@ -0,0 +1,97 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ReportAggregatorTest {
+
+    private TradeOperationsProvider tradeOpsProvider;
+    private ReportAggregator aggregator;
+    private TestDataUtil testDataUtil;
+    private List<Instruction> instructions;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        tradeOpsProvider = new SimpleTradeOperationsProvider();
+        aggregator = new ReportAggregator(tradeOpsProvider);
+        testDataUtil = new TestDataUtil();
+        instructions = testDataUtil.getInstructionsData();
+    }
+
+    @Test
+    public void getDailySettledAmount_WithInstructionsAndBuyFlag_ReturnsSameAsTradeOperationsProvider() {
+        instructions.forEach(aggregator::accept);
+
+        assertThat(aggregator.getDailySettledAmount(Operation.BUY).entrySet(),
+                equalTo(tradeOpsProvider.calculateDailySettledAmount(instructions, Operation.BUY).entrySet()));
+    }
+
+    @Test
+    public void getDailySettledAmount_WithInstructionsAndSellFlag_ReturnsSameAsTradeOperationsProvider() {
+        instructions.forEach(aggregator::accept);
+
+        assertThat(aggregator.getDailySettledAmount(Operation.SELL).entrySet(),
+                equalTo(tradeOpsProvider.calculateDailySettledAmount(instructions, Operation.SELL).entrySet()));
+    }
+
+    @Test
+    public void getEntityRanking_WithTwoInstructionsWithSameRankAndBuyFlag_ReturnsXyzAndBmwAsHighestInRank() {
+        testDataUtil.addInstructionToTestData("bmw", Operation.BUY, new BigDecimal("1.06"), Currency.getInstance("GBP"), LocalDate.of(2016, Month.JULY, 6), 571, new BigDecimal("110.5"));
+        instructions.forEach(aggregator::accept);
+
+        Map<String, BigDecimal> expectedTieEntityRanking = testDataUtil.getExpectedEntityRankingForOp(Operation.BUY, true);
+
+        assertThat(aggregator.getEntityRanking(Operation.BUY).entrySet(), equalTo(expectedTieEntityRanking.entrySet()));
+    }
+
+    @Test
+    public void getEntityRanking_WithInstructionsAndSellFlag_ReturnsMacAsHighestInstruction() {
+        instructions.forEach(aggregator::accept);
+
+        Map<String, BigDecimal> expectedEntityRanking = testDataUtil.getExpectedEntityRankingForOp(Operation.SELL, false);
+
+        assertThat(aggregator.getEntityRanking(Operation.SELL).entrySet(), equalTo(expectedEntityRanking.entrySet()));
+    }
+
+    @Test
+    public void combine_WithInstructionsSplitAcrossTwoAggregators_ReturnsSameAsSingleAggregator() {
+        testDataUtil.addInstructionToTestData("bmw", Operation.BUY, new BigDecimal("0.75"), Currency.getInstance("SGD"), LocalDate.of(2016, Month.JULY, 6), 342, new BigDecimal("165.7"));
+        ReportAggregator other = new ReportAggregator(tradeOpsProvider);
+        instructions.forEach(aggregator::accept);
+        instructions.subList(0, 3).forEach(other::accept);
+        ReportAggregator combined = new ReportAggregator(tradeOpsProvider);
+        instructions.subList(3, instructions.size()).forEach(combined::accept);
+        other.combine(combined);
+
+        for (Operation op : Operation.values()) {
+            assertThat(other.getDailySettledAmount(op).entrySet(), equalTo(aggregator.getDailySettledAmount(op).entrySet()));
+            assertThat(other.getEntityRanking(op).entrySet(), equalTo(aggregator.getEntityRanking(op).entrySet()));
+        }
+    }
+
+    @Test
+    public void accept_WithNullInstruction_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instruction must not be null for report aggregation");
+        aggregator.accept(null);
+    }
+
+}
@@ -9,6 +9,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
@@ -112,7 +113,7 @@ public class SimpleTradeOperationsProviderTest {
 
     @Test
     public void calculateInstructionTradeAmount_WithFirstInstruction_ReturnsCorrectAmountPerFormula() {
-        BigDecimal expectedTradeAmount = new BigDecimal("10025").setScale(2, BigDecimal.ROUND_HALF_EVEN);
+        BigDecimal expectedTradeAmount = new BigDecimal("10025").setScale(2, RoundingMode.HALF_EVEN);
         BigDecimal actualTradeAmount = tradeOpsProvider.calculateInstructionTradeAmount(instructions.get(0));
         assertEquals(actualTradeAmount, expectedTradeAmount);
 
@@ -120,7 +121,7 @@ public class SimpleTradeOperationsProviderTest {
 
     @Test
     public void calculateInstructionTradeAmount_WithSecondInstruction_ReturnsCorrectAmountPerFormula() {
-        BigDecimal expectedTradeAmount = new BigDecimal("14899.50").setScale(2, BigDecimal.ROUND_HALF_EVEN);
+        BigDecimal expectedTradeAmount = new BigDecimal("14899.50").setScale(2, RoundingMode.HALF_EVEN);
         BigDecimal actualTradeAmount = tradeOpsProvider.calculateInstructionTradeAmount(instructions.get(1));
         assertEquals(actualTradeAmount, expectedTradeAmount);
 
@@ -0,0 +1,70 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.input.SimpleInputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.stubs.InputDataProviderStub;
+import com.jpmc.reporting.stubs.ReportWriterStub;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class StreamingReportingEngineTest {
+
+    private ReportingEngine engine;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        engine = new StreamingReportingEngine();
+    }
+
+    @Test
+    public void generateReport_WithStreamOnlyProvider_ReturnsSameReportAsSimpleEngine() {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        InputDataProvider streamOnly = new InputDataProvider() {
+            @Override
+            public List<Instruction> retrieveInstructions() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Stream<Instruction> streamInstructions() {
+                return new SimpleInputDataProvider().retrieveInstructions().stream().onClose(() -> closed.set(true));
+            }
+        };
+
+        new SimpleReportingEngine().generateReport(new SimpleInputDataProvider(), new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        engine.generateReport(streamOnly, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+        assertThat(closed.get(), equalTo(true));
+    }
+
+    @Test
+    public void generateReport_WithEmptyInstructions_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instructions must not be null/empty for report generation");
+        engine.generateReport(new InputDataProviderStub(), new SimpleTradeOperationsProvider(), new ReportWriterStub());
+    }
+
+}
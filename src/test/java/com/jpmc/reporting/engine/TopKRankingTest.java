@@ -0,0 +1,95 @@
+package com.jpmc.reporting.engine;
+
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatch;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class TopKRankingTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void toList_WithMoreKeysThanLimit_ReturnsTopKeysWithTiesInOfferOrder() {
+        TopKRanking<Integer> ranking = new TopKRanking<>(3, Comparator.reverseOrder());
+        for (int key : new int[]{4, 9, 1, 9, 7, 3, 7})
+            ranking.offer(key);
+
+        assertThat(ranking.toList(), equalTo(Arrays.asList(9, 9, 7)));
+    }
+
+    @Test
+    public void merge_WithDisjointPartitions_ReturnsSameAsSingleRanking() {
+        TopKRanking<String> single = new TopKRanking<>(2, Comparator.comparing(String::length).reversed());
+        TopKRanking<String> left = new TopKRanking<>(2, Comparator.comparing(String::length).reversed());
+        TopKRanking<String> right = new TopKRanking<>(2, Comparator.comparing(String::length).reversed());
+        List<String> keys = Arrays.asList("ab", "abc", "x", "xyz", "pqr", "abcd");
+
+        for (int i = 0; i < keys.size(); i++) {
+            single.offer(keys.get(i), i);
+            (i % 2 == 0 ? left : right).offer(keys.get(i), i);
+        }
+
+        assertThat(right.merge(left).toList(), equalTo(single.toList()));
+        assertThat(single.toList(), equalTo(Arrays.asList("abcd", "abc")));
+    }
+
+    @Test
+    public void getEntityRanking_WithLimitOnAggregators_ReturnsHeadOfFullRanking() {
+        TradeOperationsProvider top = new SimpleTradeOperationsProvider();
+        TestDataUtil testDataUtil = new TestDataUtil();
+        List<Instruction> instructions = testDataUtil.getInstructionsData();
+        testDataUtil.addInstructionToTestData("bmw", Operation.BUY, new BigDecimal("1.06"), Currency.getInstance("GBP"), LocalDate.of(2016, Month.JULY, 6), 571, new BigDecimal("110.5"));
+        instructions.addAll(testDataUtil.generateInstructions(5000, 700, Arrays.asList(Currency.getInstance("EUR")), 9L));
+
+        ReportAggregator aggregator = new ReportAggregator(top);
+        instructions.forEach(aggregator::accept);
+        EntityDictionary entities = new EntityDictionary();
+        InstructionBatch batch = new InstructionBatch(entities);
+        InstructionBatchLoader loader = new InstructionBatchLoader(top);
+        instructions.forEach(instruction -> loader.add(batch, instruction));
+        ColumnarAggregator columnarAggregator = new ColumnarAggregator(entities);
+        columnarAggregator.accept(batch);
+
+        for (Operation op : Operation.values()) {
+            Map<String, BigDecimal> expected = aggregator.getEntityRanking(op);
+            for (ReportFigures figures : Arrays.asList(aggregator, columnarAggregator)) {
+                assertThat(figures.getEntityRanking(op, 50).entrySet(), equalTo(headOf(expected, 50).entrySet()));
+                assertThat(figures.getEntityRanking(op, 1).entrySet(), equalTo(headOf(expected, 1).entrySet()));
+                assertThat(figures.getEntityRanking(op, ReportFigures.FULL_RANKING).entrySet(), equalTo(expected.entrySet()));
+            }
+        }
+    }
+
+    @Test
+    public void constructor_WithZeroLimit_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A positive limit and a ranking order are required for top ranking");
+        new TopKRanking<Integer>(0, Comparator.naturalOrder());
+    }
+
+    private static Map<String, BigDecimal> headOf(Map<String, BigDecimal> ranking, int limit) {
+        Map<String, BigDecimal> head = new LinkedHashMap<>();
+        ranking.entrySet().stream().limit(limit).forEach(e -> head.put(e.getKey(), e.getValue()));
+        return head;
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.jpmc.reporting.fx;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class FxRateTableTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency GBP = Currency.getInstance("GBP");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    private FxRateTable rates;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        Path file = folder.newFile("rates.csv").toPath();
+        Files.write(file, Arrays.asList(
+                "# date,base,quote,rate",
+                "2016-01-04,EUR,USD,1.0850",
+                "2016-01-04,GBP,USD,1.4700",
+                "2016-01-04,USD,JPY,119.50",
+                "",
+                "2016-01-08,EUR,USD,1.1000"), StandardCharsets.UTF_8);
+        rates = FxRateTable.load(file);
+    }
+
+    @Test
+    public void rate_WithCurrencyAgainstUsd_ReturnsLoadedRate() {
+        LocalDate date = LocalDate.of(2016, Month.JANUARY, 4);
+
+        assertThat(rates.rate(date, EUR, USD), equalTo(new BigDecimal("1.0850000000")));
+        assertThat(rates.rate(date, USD, JPY), equalTo(new BigDecimal("119.5000000000")));
+        assertThat(rates.rate(date, USD, USD), equalTo(new BigDecimal("1.0000000000")));
+    }
+
+    @Test
+    public void rate_WithCrossCurrencies_ReturnsRateTriangulatedThroughUsd() {
+        LocalDate date = LocalDate.of(2016, Month.JANUARY, 4);
+        BigDecimal expected = new BigDecimal("1.0850").multiply(BigDecimal.ONE.divide(new BigDecimal("1.4700"), 10, RoundingMode.HALF_EVEN));
+
+        assertThat(rates.rate(date, EUR, GBP), equalTo(expected.setScale(10, RoundingMode.HALF_EVEN)));
+        assertThat(rates.rate(date, EUR, JPY), equalTo(new BigDecimal("129.6575000000")));
+    }
+
+    @Test
+    public void rate_WithDatesWithoutRates_ReturnsLatestKnownRates() {
+        assertThat(rates.rate(LocalDate.of(2016, Month.JANUARY, 7), EUR, USD), equalTo(new BigDecimal("1.0850000000")));
+        assertThat(rates.rate(LocalDate.of(2016, Month.JANUARY, 8), EUR, USD), equalTo(new BigDecimal("1.1000000000")));
+        assertThat(rates.rate(LocalDate.of(2016, Month.JANUARY, 8), GBP, USD), equalTo(new BigDecimal("1.4700000000")));
+        assertThat(rates.rate(LocalDate.of(2017, Month.JUNE, 1), EUR, USD), equalTo(new BigDecimal("1.1000000000")));
+    }
+
+    @Test
+    public void convertFromUsd_WithRandomAmounts_ReturnsAmountRoundedLikeBigDecimal() {
+        LocalDate date = LocalDate.of(2016, Month.JANUARY, 5);
+        BigDecimal eurPerUsd = rates.rate(date, USD, EUR);
+        Random random = new Random(23L);
+
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 2);
+            assertThat(rates.convertFromUsd(amount, date, EUR), equalTo(amount.multiply(eurPerUsd).setScale(2, RoundingMode.HALF_EVEN)));
+        }
+    }
+
+    @Test
+    public void convertFromUsd_WithDateBeforeFirstRates_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("No FX rates are known before 2016-01-04: 2016-01-01");
+        rates.convertFromUsd(BigDecimal.TEN, LocalDate.of(2016, Month.JANUARY, 1), EUR);
+    }
+
+    @Test
+    public void convertFromUsd_WithUnknownCurrency_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("No FX rate of CHF is known on 2016-01-05");
+        rates.convertFromUsd(BigDecimal.TEN, LocalDate.of(2016, Month.JANUARY, 5), Currency.getInstance("CHF"));
+    }
+
+    @Test
+    public void load_WithRateNotAgainstUsd_ThrowsIllegalArgException() throws IOException {
+        Path file = folder.newFile("cross.csv").toPath();
+        Files.write(file, Arrays.asList("2016-01-04,EUR,USD,1.0850", "2016-01-04,EUR,GBP,0.7400"), StandardCharsets.UTF_8);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Malformed FX rate at line 2 of " + file + ": A date and a positive rate of a currency against USD are required for FX rates");
+        FxRateTable.load(file);
+    }
+
+}
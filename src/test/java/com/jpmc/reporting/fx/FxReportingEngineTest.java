@@ -0,0 +1,136 @@
+package com.jpmc.reporting.fx;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.ReportAggregator;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.input.InputDataProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.output.ReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class FxReportingEngineTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private List<Instruction> instructions;
+    private TradeOperationsProvider top;
+    private FxRateTable rates;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        instructions = new TestDataUtil().generateInstructions(5000, 50,
+                Arrays.asList(Currency.getInstance("SGD"), Currency.getInstance("AED"), EUR), 24L);
+        top = new SimpleTradeOperationsProvider();
+
+        Random random = new Random(24L);
+        FxRateTable.Builder builder = new FxRateTable.Builder();
+        for (LocalDate date = LocalDate.of(2016, Month.JANUARY, 1); date.getYear() == 2016; date = date.plusDays(7)) {
+            builder.rate(date, EUR, USD, BigDecimal.valueOf(10500 + random.nextInt(1000), 4));
+            builder.rate(date, USD, GBP, BigDecimal.valueOf(6500 + random.nextInt(1000), 4));
+        }
+        rates = builder.build();
+    }
+
+    @Test
+    public void generateReport_WithUsdReportingCurrency_ReturnsSameReportAsFusedEngine() {
+        assertThat(report(out -> new FxReportingEngine(rates, USD).generateReport(() -> instructions, top, out)),
+                equalTo(report(out -> new FusedReportingEngine().generateReport(() -> instructions, top, out))));
+    }
+
+    @Test
+    public void generateReport_WithEurReportingCurrency_ReturnsAmountsConvertedAtSettlementDateRate() {
+        ReportAggregator expected = new ReportAggregator(top);
+        for (Instruction instruction : instructions) {
+            LocalDate settlementDate = top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+            BigDecimal eurAmount = top.calculateInstructionTradeAmount(instruction).multiply(rates.rate(settlementDate, USD, EUR))
+                    .setScale(2, RoundingMode.HALF_EVEN);
+            expected.add(instruction.getTradeOperation(), settlementDate, instruction.getEntity(), eurAmount);
+        }
+
+        assertThat(report(out -> new FxReportingEngine(rates, EUR).generateReport(() -> instructions, top, out)),
+                equalTo(report(out -> expected.writeReport(out, EUR))));
+    }
+
+    @Test
+    public void generateReports_WithSeveralCurrencies_ReturnsSameReportsAsSeparateRunsFromOnePass() {
+        AtomicInteger passes = new AtomicInteger();
+        InputDataProvider countingProvider = new InputDataProvider() {
+            @Override
+            public List<Instruction> retrieveInstructions() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Stream<Instruction> streamInstructions() {
+                passes.incrementAndGet();
+                return instructions.stream();
+            }
+        };
+        Map<Currency, ByteArrayOutputStream> contents = new LinkedHashMap<>();
+        Map<Currency, ReportWriter> outs = new LinkedHashMap<>();
+        for (Currency currency : Arrays.asList(EUR, GBP, USD)) {
+            contents.put(currency, new ByteArrayOutputStream());
+            outs.put(currency, new ConsoleReportWriter(new PrintWriter(contents.get(currency), true), Locale.UK));
+        }
+
+        new FxReportingEngine(rates, USD).generateReports(countingProvider, top, outs);
+
+        assertThat(passes.get(), equalTo(1));
+        for (Currency currency : outs.keySet())
+            assertThat(contents.get(currency).toString(),
+                    equalTo(report(out -> new FxReportingEngine(rates, currency).generateReport(() -> instructions, top, out))));
+    }
+
+    @Test
+    public void generateReport_WithNoInstructions_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Instructions must not be null/empty for report generation");
+        new FxReportingEngine(rates, EUR).generateReport(() -> Arrays.asList(), top,
+                new ConsoleReportWriter(new PrintWriter(new ByteArrayOutputStream()), Locale.UK));
+    }
+
+    @Test
+    public void constructor_WithNullReportingCurrency_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("FX rates, a reporting currency and a positive ranking limit are required for FX reporting");
+        new FxReportingEngine(rates, null);
+    }
+
+    private static String report(Consumer<ReportWriter> generator) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        generator.accept(new ConsoleReportWriter(new PrintWriter(content, true), Locale.UK));
+        return content.toString();
+    }
+
+}
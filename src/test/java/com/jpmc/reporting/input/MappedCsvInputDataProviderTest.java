@@ -0,0 +1,235 @@
+package com.jpmc.reporting.input;
+
+import com.jpmc.reporting.model.CurrencyDictionary;
+import com.jpmc.reporting.model.EntityDictionary;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.InstructionBatchValidator;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.model.RawInstructionBatch;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class MappedCsvInputDataProviderTest {
+
+    private static final String HEADER = "entity,operation,agreedFx,currency,instructionDate,settlementDate,units,unitPrice\n";
+
+    private Path csvFile;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        csvFile = folder.newFile("instructions.csv").toPath();
+    }
+
+    @Test
+    public void retrieveInstructions_WithSampleFile_ReturnsAllFieldsParsed() throws IOException {
+        write(HEADER +
+                "foo,B,0.50,SGD,2016-01-01,2016-01-02,200,100.25\n" +
+                "bar,SELL,0.22,AED,2016-04-08,,450,150.5\r\n");
+
+        List<Instruction> instructions = new MappedCsvInputDataProvider(csvFile).retrieveInstructions();
+
+        assertThat(instructions.size(), equalTo(2));
+        Instruction first = instructions.get(0);
+        assertThat(first.getEntity(), equalTo("foo"));
+        assertThat(first.getTradeOperation(), equalTo(Operation.BUY));
+        assertThat(first.getAgreedFx(), equalTo(new BigDecimal("0.50")));
+        assertThat(first.getCurrency(), equalTo(Currency.getInstance("SGD")));
+        assertThat(first.getInstructionDate(), equalTo(LocalDate.of(2016, Month.JANUARY, 1)));
+        assertThat(first.getSettlementDate(), equalTo(LocalDate.of(2016, Month.JANUARY, 2)));
+        assertThat(first.getUnits(), equalTo(200));
+        assertThat(first.getUnitPrice(), equalTo(new BigDecimal("100.25")));
+
+        Instruction second = instructions.get(1);
+        assertThat(second.getTradeOperation(), equalTo(Operation.SELL));
+        assertThat(second.getSettlementDate(), nullValue());
+        assertThat(second.getUnitPrice(), equalTo(new BigDecimal("150.5")));
+    }
+
+    @Test
+    public void retrieveInstructions_WithLinesAcrossSmallRegions_ReturnsEveryLineAndSharesEntityNames() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            content.append(i % 2 == 0 ? "foo" : "bar").append(",S,1.5,EUR,2016-10-15,,").append(i + 1).append(",10.1\n");
+        write(content.toString());
+
+        List<Instruction> instructions = new MappedCsvInputDataProvider(csvFile, false, 64).retrieveInstructions();
+
+        assertThat(instructions.size(), equalTo(100));
+        assertThat(instructions.get(99).getUnits(), equalTo(100));
+        assertThat(instructions.get(98).getEntity(), sameInstance(instructions.get(0).getEntity()));
+    }
+
+    @Test
+    public void retrieveInstructions_WithSharedDictionary_ReturnsEntitiesEncodedOnIngest() throws IOException {
+        write(HEADER + "foo,B,0.50,SGD,2016-01-01,,200,100.25\nbar,S,1,EUR,2016-01-01,,1,1\nfoo,S,1,EUR,2016-01-01,,1,1\n");
+        EntityDictionary entities = new EntityDictionary();
+        entities.idOf("bar");
+
+        List<Instruction> instructions = new MappedCsvInputDataProvider(csvFile, entities).retrieveInstructions();
+
+        assertThat(entities.size(), equalTo(2));
+        assertThat(entities.idOf("foo"), equalTo(1));
+        assertThat(instructions.get(0).getEntity(), sameInstance(entities.nameOf(1)));
+        assertThat(instructions.get(1).getEntity(), sameInstance(entities.nameOf(0)));
+    }
+
+    @Test
+    public void retrieveInstructions_WithLastLineWithoutNewLine_ReturnsLastInstruction() throws IOException {
+        write("foo,B,0.50,SGD,2016-01-01,,200,100.25\nbar,S,1,EUR,2016-01-01,,1,1");
+
+        List<Instruction> instructions = new MappedCsvInputDataProvider(csvFile, false, 16 * 1024).retrieveInstructions();
+
+        assertThat(instructions.size(), equalTo(2));
+        assertThat(instructions.get(1).getEntity(), equalTo("bar"));
+    }
+
+    @Test
+    public void retrieveInstructions_WithMissingField_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Malformed instruction at line 2");
+        write(HEADER + "foo,B,0.50,SGD,2016-01-01,200,100.25\n");
+
+        new MappedCsvInputDataProvider(csvFile).retrieveInstructions();
+    }
+
+    @Test
+    public void retrieveInstructions_WithDayOutOfRangeAfterCachedDate_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Malformed instruction at line 3");
+        write(HEADER +
+                "foo,B,0.50,SGD,2016-01-01,,200,100.25\n" +
+                "foo,B,0.50,SGD,2016-01-33,,200,100.25\n");
+
+        new MappedCsvInputDataProvider(csvFile).retrieveInstructions();
+    }
+
+    @Test
+    public void retrieveInstructions_WithNonExistentDate_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Malformed instruction at line 2");
+        write(HEADER + "foo,B,0.50,SGD,2016-02-30,,200,100.25\n");
+
+        new MappedCsvInputDataProvider(csvFile).retrieveInstructions();
+    }
+
+    @Test
+    public void retrieveInstructions_WithNegativeUnits_ThrowsIllegalArgException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Some mandatory fields on instruction were not set to correct values");
+        write(HEADER + "foo,B,0.50,SGD,2016-01-01,,-200,100.25\n");
+
+        new MappedCsvInputDataProvider(csvFile).retrieveInstructions();
+    }
+
+    @Test
+    public void readBatches_WithMalformedLines_RecordsBadFieldsAndKeepsReading() throws IOException {
+        write(HEADER +
+                "foo,B,0.50,SGD,2016-01-01,2016-01-02,200,100.25\n" +
+                ",X,abc,XYZ,2016-13-01,bad,-3,\n" +
+                "too,few,fields\n" +
+                "bar,S,0.22,AED,2016-04-08,,450,-150.5\n");
+        EntityDictionary entities = new EntityDictionary();
+        RawInstructionBatch batch = new RawInstructionBatch(entities);
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> units = new ArrayList<>();
+
+        long rows = new MappedCsvInputDataProvider(csvFile).readBatches(batch, 3, raw -> {
+            sizes.add(raw.size());
+            for (int row = 0; row < raw.size(); row++)
+                units.add(raw.units(row));
+        });
+
+        assertThat(rows, equalTo(4L));
+        assertThat(sizes, equalTo(Arrays.asList(3, 1)));
+        assertThat(units, equalTo(Arrays.asList(200, -3, RawInstructionBatch.INVALID_UNITS, 450)));
+        assertThat(batch.size(), equalTo(0));
+        assertThat(entities.size(), equalTo(2));
+    }
+
+    @Test
+    public void readBatches_WithSampleFile_ParsesColumns() throws IOException {
+        write(HEADER +
+                "foo,B,0.50,SGD,2016-01-01,2016-01-02,200,100.25\n" +
+                ",X,abc,A[A,2016-13-01,bad,-3,\n");
+        RawInstructionBatch batch = new RawInstructionBatch(new EntityDictionary());
+        List<String> rows = new ArrayList<>();
+
+        new MappedCsvInputDataProvider(csvFile).readBatches(batch, 10, raw -> {
+            for (int row = 0; row < raw.size(); row++)
+                rows.add(raw.entityId(row) + "," + raw.operation(row) + "," + raw.agreedFxUnscaled(row) + "/" + raw.agreedFxScale(row)
+                        + "," + raw.currencyId(row) + "," + raw.instructionDay(row) + "," + raw.settlementDay(row)
+                        + "," + raw.units(row) + "," + raw.unitPriceUnscaled(row) + "/" + raw.unitPriceScale(row));
+        });
+
+        assertThat(rows.get(0), equalTo("0,0,50/2," + CurrencyDictionary.idOf(Currency.getInstance("SGD")) + ","
+                + LocalDate.of(2016, Month.JANUARY, 1).toEpochDay() + "," + LocalDate.of(2016, Month.JANUARY, 2).toEpochDay() + ",200,10025/2"));
+        assertThat(rows.get(1), equalTo("-1,-1," + Long.MIN_VALUE + "/0,-1," + Integer.MIN_VALUE + "," + Integer.MIN_VALUE + ",-3," + Long.MIN_VALUE + "/0"));
+    }
+
+    @Test
+    public void readBatches_WithDecimalsLongerThanLong_KeepsExactValuesAsRowPathDoes() throws IOException {
+        write(HEADER + "foo,B,0.5000000000000000001,SGD,2016-01-01,,200,123456789012345678.25\n");
+        Instruction instruction = new MappedCsvInputDataProvider(csvFile).retrieveInstructions().get(0);
+        RawInstructionBatch batch = new RawInstructionBatch(new EntityDictionary());
+        List<String> rows = new ArrayList<>();
+
+        new MappedCsvInputDataProvider(csvFile).readBatches(batch, 10, raw -> {
+            assertThat(new InstructionBatchValidator().validate(raw).getValidCount(), equalTo(1));
+            rows.add(raw.agreedFx(0) + "," + raw.unitPrice(0));
+        });
+
+        assertThat(rows.get(0), equalTo(instruction.getAgreedFx() + "," + instruction.getUnitPrice()));
+        assertThat(rows.get(0), equalTo("0.5000000000000000001,123456789012345678.25"));
+    }
+
+    @Test
+    public void readBatches_WithInvalidCalendarDates_RecordsThemMissing() throws IOException {
+        write(HEADER +
+                "foo,B,0.50,SGD,2016-01-01,,200,100.25\n" +
+                "foo,B,0.50,SGD,2016-01-33,2016-02-30,200,100.25\n" +
+                "foo,B,0.50,SGD,2016-02-29,,2147483648,100.25\n");
+        RawInstructionBatch batch = new RawInstructionBatch(new EntityDictionary());
+        List<String> rows = new ArrayList<>();
+
+        new MappedCsvInputDataProvider(csvFile).readBatches(batch, 10, raw -> {
+            for (int row = 0; row < raw.size(); row++)
+                rows.add(raw.instructionDay(row) + "," + raw.settlementDay(row) + "," + raw.units(row));
+        });
+
+        assertThat(rows, equalTo(Arrays.asList(
+                LocalDate.of(2016, Month.JANUARY, 1).toEpochDay() + "," + Integer.MIN_VALUE + ",200",
+                Integer.MIN_VALUE + "," + Integer.MIN_VALUE + ",200",
+                LocalDate.of(2016, Month.FEBRUARY, 29).toEpochDay() + "," + Integer.MIN_VALUE + "," + RawInstructionBatch.INVALID_UNITS)));
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(csvFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.jpmc.reporting.log;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.IncrementalReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class InstructionLogTest {
+
+    private static final int SEGMENT_SIZE = 1 << 16;
+
+    private List<Instruction> instructions;
+    private Path directory;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        instructions = new TestDataUtil().generateInstructions(5000, 100,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED"), Currency.getInstance("USD")), 21L);
+        directory = folder.newFolder("log").toPath();
+    }
+
+    @Test
+    public void retrieveInstructions_WithManySegments_ReturnsAppendedInstructionsInOrder() {
+        appendAll(instructions);
+
+        assertThat(LogFormat.baseOffsets(directory).length > 1, equalTo(true));
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions)));
+            assertThat(provider.position(), equalTo(5000L));
+        }
+    }
+
+    @Test
+    public void retrieveInstructions_WithRecordsAppendedBetweenCalls_ReturnsOnlyNewInstructions() {
+        try (InstructionLog log = new InstructionLog(directory, SEGMENT_SIZE);
+             InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+
+            assertThat(provider.retrieveInstructions().isEmpty(), equalTo(true));
+            for (int i = 0; i < 3000; i++)
+                log.append(instructions.get(i));
+            assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions.subList(0, 3000))));
+
+            for (int i = 3000; i < 5000; i++)
+                log.append(instructions.get(i));
+            assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions.subList(3000, 5000))));
+            assertThat(provider.retrieveInstructions().isEmpty(), equalTo(true));
+        }
+    }
+
+    @Test
+    public void constructor_WithCommittedOffset_ResumesFromCommittedOffset() {
+        appendAll(instructions);
+
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            provider.streamInstructions().limit(2500).forEach(instruction -> { });
+            provider.commit();
+        }
+
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report");
+             InstructionLogProvider other = new InstructionLogProvider(directory, "audit")) {
+            assertThat(provider.committedOffset(), equalTo(2500L));
+            assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions.subList(2500, 5000))));
+            assertThat(other.position(), equalTo(0L));
+        }
+    }
+
+    @Test
+    public void seek_WithOffsetsAcrossIndexEntries_ReturnsInstructionsFromOffset() {
+        appendAll(instructions);
+
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            for (long offset : new long[]{0, 1, 1023, 1024, 1025, 2049, 4999, 5000}) {
+                provider.seek(offset);
+                assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions.subList((int) offset, 5000))));
+            }
+        }
+    }
+
+    @Test
+    public void seek_WithOffsetBeyondEnd_ThrowsIllegalArgException() {
+        appendAll(instructions.subList(0, 10));
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Offset 11 is beyond the end of instruction log " + directory);
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            provider.seek(11);
+        }
+    }
+
+    @Test
+    public void constructor_WithTornLastRecord_ResumesAfterLastCompleteRecord() throws IOException {
+        appendAll(instructions.subList(0, 2000));
+        tearLastRecord();
+
+        try (InstructionLog log = new InstructionLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.nextOffset(), equalTo(1999L));
+            for (int i = 1999; i < 5000; i++)
+                log.append(instructions.get(i));
+        }
+
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            assertThat(toStrings(provider.retrieveInstructions()), equalTo(toStrings(instructions)));
+        }
+    }
+
+    @Test
+    public void append_WithSettlementDateAndLargeDecimals_ReturnsSameInstruction() {
+        Instruction instruction = new Instruction.Builder()
+                .entity("entité")
+                .tradeOperation(Operation.SELL)
+                .agreedFx(new BigDecimal("0.123456789012345678901234567890"))
+                .currency(Currency.getInstance("SGD"))
+                .instructionDate(LocalDate.of(2016, Month.MARCH, 4))
+                .settlementDate(LocalDate.of(2016, Month.MARCH, 7))
+                .units(7)
+                .unitPrice(new BigDecimal("5E+3"))
+                .build();
+        appendAll(Arrays.asList(instruction));
+
+        try (InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            assertThat(provider.retrieveInstructions().get(0).toString(), equalTo(instruction.toString()));
+        }
+    }
+
+    @Test
+    public void retrieveInstructions_WithIncrementalEngine_ReturnsSameReportAsFullEngine() {
+        TradeOperationsProvider top = new SimpleTradeOperationsProvider();
+        IncrementalReportingEngine engine = new IncrementalReportingEngine(top);
+
+        try (InstructionLog log = new InstructionLog(directory, SEGMENT_SIZE);
+             InstructionLogProvider provider = new InstructionLogProvider(directory, "report")) {
+            for (int batch = 0; batch < 5; batch++) {
+                for (int i = batch * 1000; i < (batch + 1) * 1000; i++)
+                    log.append(instructions.get(i));
+                engine.submit(provider.retrieveInstructions());
+            }
+        }
+
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+        new FusedReportingEngine().generateReport(() -> instructions, top, new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        engine.writeReport(new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    @Test
+    public void constructor_WithInvalidConsumer_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A directory and a valid consumer name are required for instruction log input");
+        new InstructionLogProvider(directory, "../report");
+    }
+
+    @Test
+    public void constructor_WithTooSmallSegment_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A directory and a segment size of at least 4096 bytes are required for instruction log");
+        new InstructionLog(directory, 1024);
+    }
+
+    private void appendAll(List<Instruction> appended) {
+        try (InstructionLog log = new InstructionLog(directory, SEGMENT_SIZE)) {
+            appended.forEach(log::append);
+        }
+    }
+
+    private void tearLastRecord() throws IOException {
+        long[] baseOffsets = LogFormat.baseOffsets(directory);
+        try (FileChannel channel = FileChannel.open(LogFormat.segmentFile(directory, baseOffsets[baseOffsets.length - 1]),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            CRC32 crc = new CRC32();
+            int position = 0;
+            int lastPosition = 0;
+            int length;
+            while ((length = LogFormat.recordLength(segment, position, crc)) > 0) {
+                lastPosition = position;
+                position += LogFormat.RECORD_HEADER_SIZE + length;
+            }
+            segment.put(lastPosition + LogFormat.RECORD_HEADER_SIZE + 1, (byte) ~segment.get(lastPosition + LogFormat.RECORD_HEADER_SIZE + 1));
+        }
+    }
+
+    private static List<String> toStrings(List<Instruction> list) {
+        return list.stream().map(Instruction::toString).collect(toList());
+    }
+
+}
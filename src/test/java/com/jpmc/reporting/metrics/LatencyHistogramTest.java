@@ -0,0 +1,62 @@
+package com.jpmc.reporting.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentile_WithUniformLatencies_ReturnsValuesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100000; nanos++)
+            histogram.record(nanos);
+
+        assertThat(histogram.count(), equalTo(100000L));
+        assertWithinRelativeError(histogram.percentile(50), 50000);
+        assertWithinRelativeError(histogram.percentile(99), 99000);
+        assertWithinRelativeError(histogram.percentile(100), 100000);
+    }
+
+    @Test
+    public void record_WithRandomValues_ReturnsBucketHoldingEveryValue() {
+        Random random = new Random(3L);
+        for (int i = 0; i < 100000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(value <= LatencyHistogram.highestValueOf(bucket), equalTo(true));
+            assertThat(bucket == 0 || value > LatencyHistogram.highestValueOf(bucket - 1), equalTo(true));
+        }
+        assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentile_WithSmallValues_ReturnsExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+
+        assertThat(histogram.percentile(0), equalTo(0L));
+        assertThat(histogram.percentile(50), equalTo(3L));
+        assertThat(histogram.percentile(100), equalTo(7L));
+    }
+
+    @Test
+    public void reset_WithRecordedValues_ReturnsEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+
+        assertThat(histogram.count(), equalTo(0L));
+        assertThat(histogram.percentile(99), equalTo(0L));
+    }
+
+    private static void assertWithinRelativeError(long actual, long expected) {
+        assertThat(actual + " vs " + expected, Math.abs(actual - expected) <= expected / 16, equalTo(true));
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.jpmc.reporting.metrics;
+
+import com.jpmc.reporting.engine.ColumnarReportingEngine;
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.ReportingEngine;
+import com.jpmc.reporting.engine.SimpleReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ChannelReportWriter;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class MeteredReportingEngineTest {
+
+    private List<Instruction> instructions;
+    private RecordingMetricsSink sink;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        instructions = new TestDataUtil().generateInstructions(10000, 200,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 43L);
+        sink = new RecordingMetricsSink(true);
+    }
+
+    @After
+    public void cleanup() {
+        sink.unregister("test");
+    }
+
+    @Test
+    public void generateReport_WithRecordingSink_ReturnsSameReportAndRecordsEveryStage() {
+        assertSameReportAsEngine(new FusedReportingEngine());
+
+        assertThat(sink.getStatistics(Stage.REPORT).getExecutions(), equalTo(1L));
+        assertThat(sink.getStatistics(Stage.INGEST).getItems(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.SETTLEMENT_DATE).getExecutions(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.TRADE_AMOUNT).getExecutions(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.AGGREGATION).getExecutions(), equalTo(1L));
+        assertThat(sink.getStatistics(Stage.SETTLED_AMOUNT).getExecutions(), equalTo(2L));
+        assertThat(sink.getStatistics(Stage.RANKING).getItems(), equalTo(400L));
+        assertThat(sink.getStatistics(Stage.WRITE).getExecutions(), equalTo(6L));
+        assertThat(sink.getStatistics(Stage.REPORT).getAllocatedBytes() > 0, equalTo(sink.isAllocationMeasured()));
+    }
+
+    @Test
+    public void generateReport_WithSimpleEngine_RecordsSectionsBuiltByTradeOperations() {
+        assertSameReportAsEngine(new SimpleReportingEngine());
+
+        assertThat(sink.getStatistics(Stage.REPORT).getExecutions(), equalTo(1L));
+        assertThat(sink.getStatistics(Stage.INGEST).getItems(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.SETTLEMENT_DATE).getExecutions(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.AGGREGATION).getExecutions(), equalTo(1L));
+        assertThat(sink.getStatistics(Stage.SETTLED_AMOUNT).getExecutions(), equalTo(2L));
+        assertThat(sink.getStatistics(Stage.SETTLED_AMOUNT).getItems(),
+                equalTo((long) new SimpleTradeOperationsProvider().calculateDailySettledAmount(instructions, Operation.BUY).size()
+                        + new SimpleTradeOperationsProvider().calculateDailySettledAmount(instructions, Operation.SELL).size()));
+        assertThat(sink.getStatistics(Stage.RANKING).getExecutions(), equalTo(2L));
+        assertThat(sink.getStatistics(Stage.RANKING).getItems(), equalTo(400L));
+        assertThat(sink.getStatistics(Stage.WRITE).getExecutions(), equalTo(6L));
+    }
+
+    @Test
+    public void generateReport_WithStreamingEngineAndMeteredChannel_RecordsIngestAndBytes() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ReportingEngine engine = new MeteredReportingEngine(new ColumnarReportingEngine(1000), sink);
+
+        engine.generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                new ChannelReportWriter(new MeteredByteChannel(Channels.newChannel(content), sink), Locale.US));
+
+        assertThat(sink.getStatistics(Stage.INGEST).getItems(), equalTo(10000L));
+        assertThat(sink.getStatistics(Stage.INGEST).getExecutions(), equalTo(3L));
+        assertThat(sink.getStatistics(Stage.WRITE_BYTES).getItems(), equalTo((long) content.size()));
+    }
+
+    @Test
+    public void generateReport_WithDisabledSink_ReturnsSameReport() {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        new SimpleReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        new MeteredReportingEngine(new SimpleReportingEngine(), MetricsSink.NONE).generateReport(() -> instructions,
+                new SimpleTradeOperationsProvider(), new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    @Test
+    public void register_WithRecordedReport_ExposesStagesThroughJmx() throws Exception {
+        assertSameReportAsEngine(new SimpleReportingEngine());
+        ObjectName name = sink.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        CompositeData[] stages = (CompositeData[]) server.getAttribute(name, "Stages");
+
+        assertThat(stages.length, equalTo(sink.getStages().size()));
+        assertThat(stages[0].get("stage"), equalTo("REPORT"));
+        assertThat(stages[0].get("executions"), equalTo(1L));
+
+        server.invoke(name, "reset", null, null);
+        assertThat(sink.getStages().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void register_WithNameAlreadyRegistered_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Report metrics are already registered with name test");
+        sink.register("test");
+        new RecordingMetricsSink().register("test");
+    }
+
+    @Test
+    public void constructor_WithNullDelegate_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A delegate and a metrics sink are required for metered components");
+        new MeteredReportingEngine(null, sink);
+    }
+
+    private void assertSameReportAsEngine(ReportingEngine engine) {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        engine.generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        new MeteredReportingEngine(engine, sink).generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+}
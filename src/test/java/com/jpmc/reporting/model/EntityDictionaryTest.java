@@ -0,0 +1,66 @@
+package com.jpmc.reporting.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class EntityDictionaryTest {
+
+    private EntityDictionary entities;
+
+    @Before
+    public void setup() {
+        entities = new EntityDictionary();
+    }
+
+    @Test
+    public void idOf_WithRepeatedNames_ReturnsIdsInFirstSeenOrder() {
+        assertThat(entities.idOf("foo"), equalTo(0));
+        assertThat(entities.idOf("bar"), equalTo(1));
+        assertThat(entities.idOf("foo"), equalTo(0));
+        assertThat(entities.size(), equalTo(2));
+        assertThat(entities.nameOf(1), equalTo("bar"));
+    }
+
+    @Test
+    public void idOf_WithNameBytes_ReturnsSameIdAsName() {
+        ByteBuffer buffer = ByteBuffer.wrap("x,foo,bär,".getBytes(StandardCharsets.UTF_8));
+        int barId = entities.idOf("bär");
+
+        assertThat(entities.idOf(buffer, 2, 5), equalTo(1));
+        assertThat(entities.idOf(buffer, 6, buffer.limit() - 1), equalTo(barId));
+        assertThat(entities.idOf("foo"), equalTo(1));
+        assertThat(entities.size(), equalTo(2));
+    }
+
+    @Test
+    public void idOf_WithRepeatedNameBytes_ReturnsSharedNameInstance() {
+        ByteBuffer buffer = ByteBuffer.wrap("foo,foo".getBytes(StandardCharsets.UTF_8));
+
+        int first = entities.idOf(buffer, 0, 3);
+        String name = entities.nameOf(first);
+
+        assertThat(entities.idOf(buffer, 4, 7), equalTo(first));
+        assertThat(entities.nameOf(entities.idOf(buffer, 4, 7)), sameInstance(name));
+    }
+
+    @Test
+    public void idOf_WithManyDistinctNameBytes_ReturnsStableIds() {
+        for (int i = 0; i < 5000; i++) {
+            byte[] name = ("entity" + i).getBytes(StandardCharsets.UTF_8);
+            assertThat(entities.idOf(ByteBuffer.wrap(name), 0, name.length), equalTo(i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            byte[] name = ("entity" + i).getBytes(StandardCharsets.UTF_8);
+            assertThat(entities.idOf(ByteBuffer.wrap(name), 0, name.length), equalTo(i));
+        }
+        assertThat(entities.size(), equalTo(5000));
+    }
+
+}
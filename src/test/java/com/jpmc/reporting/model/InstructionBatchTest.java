@@ -0,0 +1,47 @@
+package com.jpmc.reporting.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Currency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class InstructionBatchTest {
+
+    private EntityDictionary entities;
+    private InstructionBatch batch;
+
+    @Before
+    public void setup() {
+        entities = new EntityDictionary();
+        batch = new InstructionBatch(entities, 2);
+    }
+
+    @Test
+    public void add_WithMoreRowsThanCapacity_ReturnsEveryRow() {
+        for (int i = 0; i < 5; i++)
+            batch.add(entities.idOf("entity" + (i % 2)), i % 2 == 0 ? Operation.BUY : Operation.SELL,
+                    CurrencyDictionary.idOf(Currency.getInstance("EUR")), 16800 + i, 16801 + i, 1000L * i);
+
+        assertThat(batch.size(), equalTo(5));
+        assertThat(entities.size(), equalTo(2));
+        assertThat(batch.entityId(4), equalTo(0));
+        assertThat(batch.operation(3), equalTo((byte) Operation.SELL.ordinal()));
+        assertThat(CurrencyDictionary.currencyOf(batch.currencyId(2)), equalTo(Currency.getInstance("EUR")));
+        assertThat(batch.instructionDay(4), equalTo(16804));
+        assertThat(batch.settlementDay(4), equalTo(16805));
+        assertThat(batch.amount(4), equalTo(4000L));
+    }
+
+    @Test
+    public void clear_WithRows_ReturnsEmptyBatchKeepingDictionary() {
+        batch.add(entities.idOf("foo"), Operation.BUY, CurrencyDictionary.idOf(Currency.getInstance("EUR")), 1, 2, 3L);
+        batch.clear();
+
+        assertThat(batch.size(), equalTo(0));
+        assertThat(entities.nameOf(0), equalTo("foo"));
+    }
+
+}
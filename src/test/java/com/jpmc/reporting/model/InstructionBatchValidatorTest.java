@@ -0,0 +1,213 @@
+package com.jpmc.reporting.model;
+
+import com.jpmc.reporting.engine.ColumnarAggregator;
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.InstructionBatchLoader;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class InstructionBatchValidatorTest {
+
+    private static final short EUR = CurrencyDictionary.idOf(Currency.getInstance("EUR"));
+
+    private InstructionBatchValidator validator;
+    private RawInstructionBatch batch;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        validator = new InstructionBatchValidator();
+        batch = new RawInstructionBatch(new EntityDictionary());
+    }
+
+    @Test
+    public void validate_WithValidRows_SetsEveryBitAndReportsNoReject() {
+        for (int row = 0; row < 130; row++)
+            addValidRow();
+
+        ValidationResult result = validator.validate(batch);
+
+        assertThat(result.getValidCount(), equalTo(130));
+        assertThat(result.getRejects().isEmpty(), equalTo(true));
+        assertThat(result.getValidity().length, equalTo(3));
+        assertThat(result.getValidity()[2], equalTo(3L));
+    }
+
+    @Test
+    public void validate_WithOneBadFieldPerRow_RejectsEachField() {
+        addValidRow();
+        batch.add(RawInstructionBatch.NO_ENTITY, (byte) 0, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 10, 100, 0);
+        batch.add(0, (byte) 2, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 10, 100, 0);
+        batch.add(0, (byte) 0, -50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 10, 100, 0);
+        batch.add(0, (byte) 0, 50, 2, RawInstructionBatch.NO_CURRENCY, 16800, RawInstructionBatch.NO_DAY, 10, 100, 0);
+        batch.add(0, (byte) 0, 50, 2, EUR, RawInstructionBatch.NO_DAY, RawInstructionBatch.NO_DAY, 10, 100, 0);
+        batch.add(0, (byte) 0, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 0, 100, 0);
+        batch.add(0, (byte) 0, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 10, RawInstructionBatch.INVALID_DECIMAL, 0);
+        addValidRow();
+
+        ValidationResult result = validator.validate(batch);
+
+        assertThat(result.getValidity()[0], equalTo(1L | 1L << 8));
+        assertThat(result.getValidCount(), equalTo(2));
+        List<String> rejects = new ArrayList<>();
+        result.getRejects().forEach(reject -> rejects.add(reject.toString()));
+        assertThat(rejects, equalTo(Arrays.asList(
+                "Row 1 ENTITY: entity is missing",
+                "Row 2 OPERATION: unknown operation 2",
+                "Row 3 AGREED_FX: agreed fx must not be negative",
+                "Row 4 CURRENCY: currency is missing or unknown",
+                "Row 5 INSTRUCTION_DATE: instruction date is missing or malformed",
+                "Row 6 UNITS: units must be positive",
+                "Row 7 UNIT_PRICE: unit price is missing or malformed")));
+    }
+
+    @Test
+    public void validate_WithSeveralBadFieldsInRow_RejectsEveryField() {
+        batch.add(RawInstructionBatch.NO_ENTITY, RawInstructionBatch.NO_OPERATION, RawInstructionBatch.INVALID_DECIMAL, 0,
+                (short) CurrencyDictionary.size(), RawInstructionBatch.NO_DAY, RawInstructionBatch.NO_DAY, Integer.MIN_VALUE, -1, 0);
+
+        ValidationResult result = validator.validate(batch);
+
+        assertThat(result.isValid(0), equalTo(false));
+        assertThat(result.getRejects().size(), equalTo(InstructionField.values().length));
+        assertThat(result.getRejects().get(InstructionField.CURRENCY.ordinal()).getReason(), equalTo("unknown currency id " + CurrencyDictionary.size()));
+    }
+
+    @Test
+    public void validate_WithLongDecimals_AcceptsPositiveAndRejectsNegativeValues() {
+        addValidRow();
+        addValidRow();
+        batch.setLongDecimals(0, new BigDecimal("0.5000000000000000001"), null);
+        batch.setLongDecimals(1, null, new BigDecimal("-12345678901234567890.5"));
+
+        ValidationResult result = validator.validate(batch);
+
+        assertThat(result.isValid(0), equalTo(true));
+        assertThat(batch.agreedFx(0), equalTo(new BigDecimal("0.5000000000000000001")));
+        assertThat(result.getRejects().size(), equalTo(1));
+        assertThat(result.getRejects().get(0).toString(), equalTo("Row 1 UNIT_PRICE: unit price must not be negative"));
+
+        InstructionBatch loaded = new InstructionBatch(batch.getEntities());
+        new InstructionBatchLoader(new SimpleTradeOperationsProvider()).add(loaded, batch, result);
+        assertThat(loaded.size(), equalTo(1));
+        assertThat(loaded.amount(0), equalTo(50000L));
+    }
+
+    @Test
+    public void add_WithValidRowAmountNotFittingInLong_KeepsDecimalAmount() {
+        addValidRow();
+        batch.add(0, (byte) 0, 100, 0, EUR, 16800, RawInstructionBatch.NO_DAY, 1000000, 1000000000000000L, 0);
+
+        InstructionBatch loaded = new InstructionBatch(batch.getEntities());
+        new InstructionBatchLoader(new SimpleTradeOperationsProvider()).add(loaded, batch, validator.validate(batch));
+
+        assertThat(loaded.size(), equalTo(2));
+        assertThat(loaded.amount(0), equalTo(50000L));
+        assertThat(loaded.amount(1), equalTo(InstructionBatch.LONG_AMOUNT));
+        assertThat(loaded.longAmount(1), equalTo(new BigDecimal("1E+23").setScale(2)));
+    }
+
+    @Test
+    public void validate_WithMalformedUnits_RejectsWithMalformedReason() {
+        batch.add(0, (byte) 0, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, RawInstructionBatch.INVALID_UNITS, 100, 0);
+
+        ValidationResult result = validator.validate(batch);
+
+        assertThat(result.getRejects().get(0).toString(), equalTo("Row 0 UNITS: units are missing or malformed"));
+    }
+
+    @Test
+    public void validate_WithRandomRows_AgreesWithInstructionBuilder() {
+        Random random = new Random(7L);
+        List<Boolean> expected = new ArrayList<>();
+        for (int row = 0; row < 5000; row++) {
+            int entityId = random.nextInt(10) == 0 ? RawInstructionBatch.NO_ENTITY : 0;
+            byte op = (byte) (random.nextInt(20) - 1);
+            long agreedFx = random.nextInt(10) == 0 ? -random.nextInt(100) : random.nextInt(100);
+            short currency = random.nextInt(10) == 0 ? RawInstructionBatch.NO_CURRENCY : EUR;
+            int day = random.nextInt(10) == 0 ? RawInstructionBatch.NO_DAY : 16800;
+            int units = random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(1000);
+            long unitPrice = random.nextInt(10) == 0 ? RawInstructionBatch.INVALID_DECIMAL : random.nextInt(1000);
+            batch.add(entityId, op, agreedFx, 2, currency, day, RawInstructionBatch.NO_DAY, units, unitPrice, 2);
+            expected.add(entityId >= 0 && op >= 0 && op < 2 && agreedFx >= 0 && currency >= 0 && day != RawInstructionBatch.NO_DAY
+                    && units > 0 && unitPrice >= 0);
+        }
+
+        ValidationResult result = validator.validate(batch);
+
+        for (int row = 0; row < batch.size(); row++)
+            assertThat("row " + row, result.isValid(row), equalTo(expected.get(row)));
+        assertThat(validator.validate(batch).getValidCount(), equalTo(result.getValidCount()));
+    }
+
+    @Test
+    public void add_WithValidatedRows_AggregatesSameReportAsFusedEngineOverValidInstructions() {
+        List<Instruction> instructions = new TestDataUtil().generateInstructions(3000, 40,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 17L);
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction instruction = instructions.get(i);
+            batch.add(batch.getEntities().idOf(instruction.getEntity()),
+                    (byte) instruction.getTradeOperation().ordinal(),
+                    instruction.getAgreedFx().unscaledValue().longValueExact(),
+                    instruction.getAgreedFx().scale(),
+                    CurrencyDictionary.idOf(instruction.getCurrency()),
+                    (int) instruction.getInstructionDate().toEpochDay(),
+                    RawInstructionBatch.NO_DAY,
+                    i % 7 == 0 ? -instruction.getUnits() : instruction.getUnits(),
+                    instruction.getUnitPrice().unscaledValue().longValueExact(),
+                    instruction.getUnitPrice().scale());
+        }
+        List<Instruction> valid = new ArrayList<>();
+        for (int i = 0; i < instructions.size(); i++) {
+            if (i % 7 != 0)
+                valid.add(instructions.get(i));
+        }
+
+        InstructionBatch loaded = new InstructionBatch(batch.getEntities());
+        new InstructionBatchLoader(new SimpleTradeOperationsProvider()).add(loaded, batch, validator.validate(batch));
+        ColumnarAggregator aggregator = new ColumnarAggregator(batch.getEntities());
+        aggregator.accept(loaded);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new FusedReportingEngine().generateReport(() -> valid, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expected, true), Locale.US));
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        aggregator.writeReport(new ConsoleReportWriter(new PrintWriter(actual, true), Locale.US), Currency.getInstance("USD"));
+
+        assertThat(loaded.size(), equalTo(valid.size()));
+        assertThat(actual.toString(), equalTo(expected.toString()));
+    }
+
+    @Test
+    public void isValid_WithRowNotValidated_ThrowsIllegalArgumentException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Row 1 was not validated");
+        addValidRow();
+
+        validator.validate(batch).isValid(1);
+    }
+
+    private void addValidRow() {
+        batch.add(0, (byte) 0, 50, 2, EUR, 16800, RawInstructionBatch.NO_DAY, 10, 100, 0);
+    }
+}
@@ -0,0 +1,115 @@
+package com.jpmc.reporting.output;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class AmountFormatterTest {
+
+    private static final List<Locale> REPORT_LOCALES = Arrays.asList(Locale.US, Locale.UK, Locale.GERMANY, Locale.JAPAN, Locale.FRANCE);
+    private static final List<String> GOLDEN_AMOUNTS = Arrays.asList("0", "0.004", "0.005", "0.015", "0.5", "1.5", "2.5",
+            "-0.001", "-0.5", "-1", "999.995", "1000", "1234567.891", "-1234567.891", "100000000000000000",
+            "123456789012345678.99", "-99999999999999999999.999", "10.1", "1.005");
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void format_WithGoldenAmounts_ReturnsSameTextAsNumberFormat() {
+        for (Locale locale : REPORT_LOCALES) {
+            AmountFormatter formatter = new AmountFormatter(locale);
+            for (String amount : GOLDEN_AMOUNTS)
+                assertThat(locale + " " + amount, formatter.format(new BigDecimal(amount)),
+                        equalTo(NumberFormat.getCurrencyInstance(locale).format(new BigDecimal(amount))));
+        }
+    }
+
+    @Test
+    public void format_WithRandomAmounts_ReturnsSameTextAsNumberFormat() {
+        Random random = new Random(17L);
+        for (Locale locale : REPORT_LOCALES) {
+            AmountFormatter formatter = new AmountFormatter(locale);
+            NumberFormat expected = NumberFormat.getCurrencyInstance(locale);
+            for (int i = 0; i < 10000; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(6));
+                assertThat(locale + " " + amount, formatter.format(amount), equalTo(expected.format(amount)));
+            }
+        }
+    }
+
+    @Test
+    public void format_WithUnscaledAmounts_ReturnsSameTextAsNumberFormat() {
+        Random random = new Random(23L);
+        for (Locale locale : REPORT_LOCALES) {
+            AmountFormatter formatter = new AmountFormatter(locale);
+            NumberFormat expected = NumberFormat.getCurrencyInstance(locale);
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < 10000; i++) {
+                long unscaled = random.nextLong() >> random.nextInt(64);
+                int scale = random.nextInt(4);
+                out.setLength(0);
+                assertThat(locale + " " + unscaled, formatter.format(unscaled, scale, out).toString(),
+                        equalTo(expected.format(BigDecimal.valueOf(unscaled, scale))));
+            }
+            out.setLength(0);
+            assertThat(formatter.format(Long.MIN_VALUE, 2, out).toString(),
+                    equalTo(expected.format(BigDecimal.valueOf(Long.MIN_VALUE, 2))));
+        }
+    }
+
+    @Test
+    public void format_WithBufferHoldingText_AppendsAmount() {
+        StringBuilder out = new StringBuilder("Amount: ");
+        new AmountFormatter(Locale.US).format(new BigDecimal("1234.5"), out);
+        assertThat(out.toString(), equalTo("Amount: $1,234.50"));
+    }
+
+    @Test
+    public void format_WithLocaleNotGroupingByThree_ReturnsSameTextAsNumberFormat() {
+        Locale india = new Locale("en", "IN");
+        BigDecimal amount = new BigDecimal("123456789.25");
+        assertThat(new AmountFormatter(india).format(amount), equalTo(NumberFormat.getCurrencyInstance(india).format(amount)));
+    }
+
+    @Test
+    public void format_FromConcurrentThreads_ReturnsSameTextAsNumberFormat() throws InterruptedException {
+        AmountFormatter formatter = new AmountFormatter(Locale.GERMANY);
+        boolean[] mismatch = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                NumberFormat expected = NumberFormat.getCurrencyInstance(Locale.GERMANY);
+                for (int i = 0; i < 20000; i++) {
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(), 2);
+                    if (!formatter.format(amount).equals(expected.format(amount)))
+                        mismatch[0] = true;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertThat(mismatch[0], equalTo(false));
+    }
+
+    @Test
+    public void constructor_WithNullLocale_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A locale is required for amount formatting");
+        new AmountFormatter(null);
+    }
+
+}
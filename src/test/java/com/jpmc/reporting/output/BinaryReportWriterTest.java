@@ -0,0 +1,178 @@
+package com.jpmc.reporting.output;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.stubs.ReportWriterStub;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class BinaryReportWriterTest {
+
+    private ByteArrayOutputStream outContent;
+    private BinaryReportWriter reportWriter;
+    private TestDataUtil testDataUtil;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setup() {
+        outContent = new ByteArrayOutputStream();
+        reportWriter = new BinaryReportWriter(Channels.newChannel(outContent));
+        testDataUtil = new TestDataUtil();
+    }
+
+    @Test
+    public void writeReport_WithSettledAndRankingData_ReturnsSectionsReadBack() {
+        reportWriter.writeReportHeader();
+        reportWriter.writeReport(testDataUtil.getExpectedSettleAmountForOp(Operation.BUY), Currency.getInstance("USD"), "amountSettled", Operation.BUY);
+        reportWriter.writeReport(testDataUtil.getExpectedEntityRankingForOp(Operation.SELL, false), Currency.getInstance("USD"), "ranking", Operation.SELL);
+        reportWriter.writeReportFooter();
+
+        BinaryReportReader reader = new BinaryReportReader(ByteBuffer.wrap(outContent.toByteArray()));
+
+        assertThat(reader.nextSection(), equalTo(true));
+        assertThat(reader.sectionType(), equalTo(BinaryReportFormat.AMOUNT_SETTLED));
+        assertThat(reader.operation(), equalTo(Operation.BUY));
+        assertThat(reader.currency(), equalTo(Currency.getInstance("USD")));
+        assertThat(readSettledAmount(reader), equalTo(scaled(testDataUtil.getExpectedSettleAmountForOp(Operation.BUY))));
+
+        assertThat(reader.nextSection(), equalTo(true));
+        assertThat(reader.sectionType(), equalTo(BinaryReportFormat.RANKING));
+        assertThat(reader.operation(), equalTo(Operation.SELL));
+        assertThat(readRanking(reader), equalTo(scaled(testDataUtil.getExpectedEntityRankingForOp(Operation.SELL, false))));
+
+        assertThat(reader.nextSection(), equalTo(false));
+    }
+
+    @Test
+    public void generateReport_WithMappedReportFile_ReturnsSameFiguresAsConsoleReport() throws IOException {
+        List<Instruction> instructions = testDataUtil.generateInstructions(5000, 300,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 29L);
+        Path file = folder.newFile("report.bin").toPath();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            new FusedReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                    new BinaryReportWriter(channel, 70000));
+        }
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        new FusedReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+        ConsoleReportWriter console = new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US);
+        BinaryReportReader reader = BinaryReportReader.open(file);
+        console.writeReportHeader();
+        while (reader.nextSection()) {
+            String reportType = reader.reportType();
+            Operation op = reader.operation();
+            Currency currency = reader.currency();
+            console.writeReport(reader.sectionType() == BinaryReportFormat.RANKING ? readRanking(reader) : readSettledAmount(reader),
+                    currency, reportType, op);
+        }
+        console.writeReportFooter();
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    @Test
+    public void writeReport_WithEntitiesRepeatedAcrossRankings_ReturnsNamesSentOnce() {
+        Map<String, BigDecimal> buyRanking = new LinkedHashMap<>();
+        buyRanking.put("foo", new BigDecimal("10.005"));
+        buyRanking.put("bär", new BigDecimal("1"));
+        Map<String, BigDecimal> sellRanking = new LinkedHashMap<>();
+        sellRanking.put("bär", new BigDecimal("2"));
+        sellRanking.put("foo", new BigDecimal("1"));
+
+        reportWriter.writeReport(buyRanking, Currency.getInstance("USD"), "ranking", Operation.BUY);
+        reportWriter.flush();
+        int firstRankingSize = outContent.size();
+        reportWriter.writeReport(sellRanking, Currency.getInstance("USD"), "ranking", Operation.SELL);
+        reportWriter.writeReportFooter();
+
+        assertThat(outContent.size() - firstRankingSize, equalTo(BinaryReportFormat.SECTION_SIZE * 2 + 2 * 14));
+        BinaryReportReader reader = new BinaryReportReader(ByteBuffer.wrap(outContent.toByteArray()));
+        reader.nextSection();
+        reader.nextSection();
+        assertThat(readRanking(reader).keySet().toString(), equalTo("[bär, foo]"));
+    }
+
+    @Test
+    public void writeReport_WithEmptyRankingData_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Valid report data, report  type and operation are required for report output");
+
+        reportWriter.writeReport(new LinkedHashMap<>(), Currency.getInstance("USD"), "ranking", Operation.BUY);
+    }
+
+    @Test
+    public void constructor_WithBufferNotHoldingData_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Buffer does not hold a binary report of a supported version");
+
+        new BinaryReportReader(ByteBuffer.wrap(new byte[16]));
+    }
+
+    @Test
+    public void nextSection_WithTruncatedReport_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Binary report is truncated");
+        reportWriter.writeReport(testDataUtil.getExpectedSettleAmountForOp(Operation.BUY), Currency.getInstance("USD"), "amountSettled", Operation.BUY);
+        reportWriter.flush();
+
+        BinaryReportReader reader = new BinaryReportReader(ByteBuffer.wrap(Arrays.copyOf(outContent.toByteArray(), outContent.size() - 3)));
+        reader.nextSection();
+        reader.nextSection();
+    }
+
+    private static Map<LocalDate, BigDecimal> readSettledAmount(BinaryReportReader reader) {
+        Map<LocalDate, BigDecimal> settled = new LinkedHashMap<>();
+        while (reader.nextRow())
+            settled.put(LocalDate.ofEpochDay(reader.key()), reader.amountValue());
+        return settled;
+    }
+
+    private static Map<String, BigDecimal> readRanking(BinaryReportReader reader) {
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        while (reader.nextRow())
+            ranking.put(reader.entityName(reader.key()), reader.amountValue());
+        return ranking;
+    }
+
+    private static <K> Map<K, BigDecimal> scaled(Map<K, BigDecimal> amounts) {
+        Map<K, BigDecimal> scaled = new LinkedHashMap<>();
+        amounts.forEach((k, v) -> scaled.put(k, v.setScale(2, RoundingMode.HALF_EVEN)));
+        return scaled;
+    }
+
+}
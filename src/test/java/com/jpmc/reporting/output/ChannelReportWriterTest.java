@@ -0,0 +1,126 @@
+package com.jpmc.reporting.output;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ChannelReportWriterTest {
+
+    private ByteArrayOutputStream outContent;
+    private ChannelReportWriter reportWriter;
+    private TestDataUtil testDataUtil;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        outContent = new ByteArrayOutputStream();
+        reportWriter = new ChannelReportWriter(Channels.newChannel(outContent), Locale.US);
+        testDataUtil = new TestDataUtil();
+    }
+
+    @Test
+    public void writeReportHeader_WithNoArguments_ReturnsDailyReportHeaderOnFlush() {
+        reportWriter.writeReportHeader();
+        assertThat(outContent.size(), equalTo(0));
+
+        reportWriter.flush();
+        String expectedOutput = "\n-------  JP Morgan Chase  -------\n" +
+                "-------  Daily Forex Trading Report  -------\n";
+        assertThat(outContent.toString(), equalTo(expectedOutput));
+    }
+
+    @Test
+    public void writeReportFooter_WithNoArguments_ReturnsDailyReportFooter() {
+        reportWriter.writeReportFooter();
+        String expectedOutput = "\n-------  End Report  -------\n" +
+                "-------  JP Morgan Chase Copyright © 2018  -------\n";
+        assertThat(outContent.toString(), equalTo(expectedOutput));
+    }
+
+    @Test
+    public void writeReport_WithSettledDataForBuyOp_ReturnsReportWithDataProperlyFormatted() {
+        reportWriter.writeReport(testDataUtil.getExpectedSettleAmountForOp(Operation.BUY), Currency.getInstance("USD"), "amountSettled", Operation.BUY);
+        reportWriter.flush();
+        assertThat(outContent.toString(), equalTo(testDataUtil.getExpectedReportForSettledAmountAndOp(Operation.BUY)));
+    }
+
+    @Test
+    public void writeReport_WithRankingForSellOp_ReturnsReportWithDataProperlyFormatted() {
+        reportWriter.writeReport(testDataUtil.getExpectedEntityRankingForOp(Operation.SELL, false), Currency.getInstance("USD"), "ranking", Operation.SELL);
+        reportWriter.flush();
+        assertThat(outContent.toString(), equalTo(testDataUtil.getExpectedReportForRankingByOp(Operation.SELL)));
+    }
+
+    @Test
+    public void generateReport_WithSmallBlocksAndManyLocales_ReturnsSameBytesAsConsoleWriter() {
+        List<Instruction> instructions = testDataUtil.generateInstructions(3000, 200,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED")), 13L);
+
+        for (Locale locale : Arrays.asList(Locale.US, Locale.UK, Locale.GERMANY, Locale.JAPAN, Locale.FRANCE)) {
+            ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+            ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+            new FusedReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                    new ConsoleReportWriter(new PrintWriter(expectedContent, true), locale));
+            new FusedReportingEngine().generateReport(() -> instructions, new SimpleTradeOperationsProvider(),
+                    new ChannelReportWriter(Channels.newChannel(actualContent), locale, Charset.defaultCharset(), 100));
+
+            assertThat(Arrays.equals(actualContent.toByteArray(), expectedContent.toByteArray()), equalTo(true));
+        }
+    }
+
+    @Test
+    public void writeReport_WithNonAsciiEntityNames_ReturnsSameBytesAsConsoleWriter() {
+        Map<String, BigDecimal> ranking = new LinkedHashMap<>();
+        ranking.put("Société Générale", new BigDecimal("1234.5"));
+        ranking.put("中国银行", new BigDecimal("99.99"));
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+
+        new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US)
+                .writeReport(ranking, Currency.getInstance("USD"), "ranking", Operation.BUY);
+        reportWriter.writeReport(ranking, Currency.getInstance("USD"), "ranking", Operation.BUY);
+        reportWriter.flush();
+
+        assertThat(Arrays.equals(outContent.toByteArray(), expectedContent.toByteArray()), equalTo(true));
+    }
+
+    @Test
+    public void writeReport_WithEmptyRankingData_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Valid report data, report  type and operation are required for report output");
+
+        reportWriter.writeReport(new LinkedHashMap<>(), Currency.getInstance("USD"), "ranking", Operation.BUY);
+    }
+
+    @Test
+    public void constructor_WithNullChannel_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A valid channel, locale, charset and block size are required for report output");
+
+        new ChannelReportWriter(null, Locale.US);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.jpmc.reporting.rollup;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.ReportAggregator;
+import com.jpmc.reporting.engine.ReportFigures;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.model.Operation;
+import com.jpmc.reporting.output.ConsoleReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class DailyRollupStoreTest {
+
+    private DailyRollupStore store;
+    private TradeOperationsProvider top;
+    private List<Instruction> instructions;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() throws IOException {
+        store = new DailyRollupStore(folder.newFolder("rollups").toPath());
+        top = new SimpleTradeOperationsProvider();
+        instructions = new TestDataUtil().generateInstructions(20000, 400,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("AED"), Currency.getInstance("SGD")), 37L);
+        store.add(() -> instructions.subList(0, 12000), top);
+        store.add(() -> instructions.subList(12000, instructions.size()), top);
+    }
+
+    @Test
+    public void getFigures_WithWeekRange_ReturnsSameReportAsFullRecompute() {
+        assertSameReportAsFullRecompute(LocalDate.of(2016, Month.MARCH, 14), LocalDate.of(2016, Month.MARCH, 20));
+    }
+
+    @Test
+    public void getFigures_WithMonthRange_ReturnsSameReportAsFullRecompute() {
+        assertSameReportAsFullRecompute(LocalDate.of(2016, Month.JUNE, 1), LocalDate.of(2016, Month.JUNE, 30));
+    }
+
+    @Test
+    public void getFigures_WithStoreReopened_ReturnsSameFigures() {
+        LocalDate from = LocalDate.of(2016, Month.JANUARY, 1);
+        LocalDate to = LocalDate.of(2016, Month.DECEMBER, 31);
+        DailyRollupStore reopened = new DailyRollupStore(folder.getRoot().toPath().resolve("rollups"));
+
+        assertThat(reopened.getSettlementDates(), equalTo(store.getSettlementDates()));
+        assertThat(reopened.getFigures(from, to).getEntityRanking(Operation.BUY),
+                equalTo(store.getFigures(from, to).getEntityRanking(Operation.BUY)));
+    }
+
+    @Test
+    public void getFigures_WithCurrency_ReturnsAmountsOfThatCurrencyOnly() {
+        LocalDate from = LocalDate.of(2016, Month.APRIL, 1);
+        LocalDate to = LocalDate.of(2016, Month.APRIL, 30);
+        Currency aed = Currency.getInstance("AED");
+
+        Map<String, BigDecimal> ranking = store.getFigures(from, to, aed).getEntityRanking(Operation.SELL, 10);
+
+        ReportFigures expected = recompute(from, to, aed);
+        assertThat(ranking, equalTo(expected.getEntityRanking(Operation.SELL, 10)));
+    }
+
+    @Test
+    public void getFigures_WithTiedEntitiesAddedOutOfDateOrder_RanksThemInInstructionOrder() throws IOException {
+        DailyRollupStore tieStore = new DailyRollupStore(folder.newFolder("ties").toPath());
+        Currency eur = Currency.getInstance("EUR");
+        List<Instruction> tied = Arrays.asList(
+                buy("late", eur, LocalDate.of(2016, Month.MARCH, 14)),
+                buy("early", eur, LocalDate.of(2016, Month.MARCH, 7)),
+                buy("other", eur, LocalDate.of(2016, Month.MARCH, 8)));
+        tieStore.add(() -> tied.subList(0, 1), top);
+        tieStore.add(() -> tied.subList(1, tied.size()), top);
+
+        ReportFigures figures = tieStore.getFigures(LocalDate.of(2016, Month.MARCH, 1), LocalDate.of(2016, Month.MARCH, 31));
+
+        ReportAggregator expected = new ReportAggregator(top);
+        tied.forEach(expected::accept);
+        assertThat(figures.getEntityRanking(Operation.BUY), equalTo(expected.getEntityRanking(Operation.BUY)));
+        assertThat(figures.getEntityRanking(Operation.BUY).keySet().iterator().next(), equalTo("late"));
+        assertThat(figures.getEntityRanking(Operation.BUY, 2), equalTo(expected.getEntityRanking(Operation.BUY, 2)));
+    }
+
+    @Test
+    public void getFigures_WithOpenEndedRange_ReturnsSameReportAsFullRecompute() {
+        assertSameReportAsFullRecompute(LocalDate.of(2016, Month.DECEMBER, 1), LocalDate.MAX);
+    }
+
+    @Test
+    public void getFigures_WithInvertedRange_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A valid date range is required for rollup figures");
+
+        store.getFigures(LocalDate.of(2016, Month.MAY, 2), LocalDate.of(2016, Month.MAY, 1));
+    }
+
+    private void assertSameReportAsFullRecompute(LocalDate from, LocalDate to) {
+        ByteArrayOutputStream expectedContent = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        new FusedReportingEngine().generateReport(() -> settlingBetween(from, to, null), top,
+                new ConsoleReportWriter(new PrintWriter(expectedContent, true), Locale.US));
+        store.getFigures(from, to).writeReport(new ConsoleReportWriter(new PrintWriter(actualContent, true), Locale.US),
+                Currency.getInstance("USD"));
+
+        assertThat(actualContent.toString(), equalTo(expectedContent.toString()));
+    }
+
+    private Instruction buy(String entity, Currency currency, LocalDate date) {
+        return new Instruction.Builder()
+                .entity(entity)
+                .tradeOperation(Operation.BUY)
+                .agreedFx(BigDecimal.ONE)
+                .currency(currency)
+                .instructionDate(date)
+                .settlementDate(date)
+                .units(10)
+                .unitPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private ReportFigures recompute(LocalDate from, LocalDate to, Currency currency) {
+        ReportAggregator aggregator = new ReportAggregator(top);
+        settlingBetween(from, to, currency).forEach(aggregator::accept);
+        return aggregator;
+    }
+
+    private List<Instruction> settlingBetween(LocalDate from, LocalDate to, Currency currency) {
+        return instructions.stream()
+                .filter(i -> currency == null || currency.equals(i.getCurrency()))
+                .filter(i -> {
+                    LocalDate settlementDate = top.calculateSettlementDate(i.getInstructionDate(), i.getCurrency());
+                    return !settlementDate.isBefore(from) && !settlementDate.isAfter(to);
+                })
+                .collect(toList());
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.jpmc.reporting.service;
+
+import com.jpmc.reporting.engine.FusedReportingEngine;
+import com.jpmc.reporting.engine.SimpleTradeOperationsProvider;
+import com.jpmc.reporting.engine.TradeOperationsProvider;
+import com.jpmc.reporting.metrics.RecordingMetricsSink;
+import com.jpmc.reporting.metrics.Stage;
+import com.jpmc.reporting.model.Instruction;
+import com.jpmc.reporting.output.ChannelReportWriter;
+import com.jpmc.reporting.util.TestDataUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class ReportServiceTest {
+
+    private List<Instruction> instructions;
+    private TradeOperationsProvider top;
+    private ReportService service;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        instructions = new TestDataUtil().generateInstructions(2000, 50,
+                Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("SAR")), 20L);
+        top = new SimpleTradeOperationsProvider();
+        service = new ReportService(() -> instructions, top);
+    }
+
+    @After
+    public void cleanup() {
+        service.close();
+    }
+
+    @Test
+    public void submit_WithManyConcurrentRequests_ReturnsIsolatedReports() throws Exception {
+        Locale[] locales = {Locale.US, Locale.UK, Locale.GERMANY, Locale.FRANCE};
+        List<ByteArrayOutputStream> contents = new ArrayList<>();
+        List<CompletableFuture<Void>> reports = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            contents.add(content);
+            reports.add(service.submit(new ReportRequest.Builder()
+                    .out(Channels.newChannel(content))
+                    .locale(locales[i % locales.length])
+                    .build()));
+        }
+        CompletableFuture.allOf(reports.toArray(new CompletableFuture<?>[0])).get();
+
+        for (int i = 0; i < contents.size(); i++)
+            assertThat(contents.get(i).toString(), equalTo(expectedReport(instructions, locales[i % locales.length])));
+    }
+
+    @Test
+    public void submit_WithDateRangeAndEntities_ReturnsReportOfMatchingInstructions() throws Exception {
+        LocalDate from = LocalDate.of(2016, Month.MARCH, 1);
+        LocalDate to = LocalDate.of(2016, Month.MARCH, 31);
+        Set<String> entities = new HashSet<>(Arrays.asList("entity1", "entity7", "entity30"));
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        service.submit(new ReportRequest.Builder()
+                .out(Channels.newChannel(content))
+                .from(from)
+                .to(to)
+                .entities(entities)
+                .build()).get();
+
+        List<Instruction> expected = instructions.stream()
+                .filter(instruction -> entities.contains(instruction.getEntity()))
+                .filter(instruction -> {
+                    LocalDate settlementDate = top.calculateSettlementDate(instruction.getInstructionDate(), instruction.getCurrency());
+                    return !settlementDate.isBefore(from) && !settlementDate.isAfter(to);
+                })
+                .collect(toList());
+        assertThat(content.toString(), equalTo(expectedReport(expected, Locale.US)));
+    }
+
+    @Test
+    public void submit_WithRecordingSink_RecordsEveryReport() throws Exception {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        ReportService meteredService = new ReportService(() -> instructions, top, FusedReportingEngine::new, 4, sink);
+        List<CompletableFuture<Void>> reports = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++)
+            reports.add(meteredService.submit(new ReportRequest.Builder().out(Channels.newChannel(new ByteArrayOutputStream())).build()));
+        meteredService.close();
+
+        for (CompletableFuture<Void> report : reports)
+            assertThat(report.isDone() && !report.isCompletedExceptionally(), equalTo(true));
+        assertThat(sink.getStatistics(Stage.REPORT).getExecutions(), equalTo(20L));
+    }
+
+    @Test
+    public void close_WithInterruptedThread_ReturnsAndKeepsInterruptStatus() {
+        service.submit(new ReportRequest.Builder().out(Channels.newChannel(new ByteArrayOutputStream())).build());
+
+        Thread.currentThread().interrupt();
+        try {
+            service.close();
+            assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void submit_WithNoMatchingInstruction_CompletesExceptionally() throws Exception {
+        CompletableFuture<Void> report = service.submit(new ReportRequest.Builder()
+                .out(Channels.newChannel(new ByteArrayOutputStream()))
+                .entities(new HashSet<>(Arrays.asList("unknown")))
+                .build());
+
+        thrown.expect(ExecutionException.class);
+        thrown.expectCause(instanceOf(IllegalArgumentException.class));
+        report.get();
+    }
+
+    @Test
+    public void build_WithInvertedDateRange_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A channel, locale and valid settlement date range are required for report request");
+        new ReportRequest.Builder()
+                .out(Channels.newChannel(new ByteArrayOutputStream()))
+                .from(LocalDate.of(2016, Month.MARCH, 2))
+                .to(LocalDate.of(2016, Month.MARCH, 1))
+                .build();
+    }
+
+    @Test
+    public void constructor_WithNonPositiveConcurrency_ThrowsIllegalArgException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A source, trade operations, engine factory, metrics sink and positive concurrency are required for report service");
+        new ReportService(() -> instructions, top, FusedReportingEngine::new, 0, new RecordingMetricsSink());
+    }
+
+    private String expectedReport(List<Instruction> reported, Locale locale) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        new FusedReportingEngine().generateReport(() -> reported, top, new ChannelReportWriter(Channels.newChannel(content), locale));
+        return content.toString();
+    }
+
+}
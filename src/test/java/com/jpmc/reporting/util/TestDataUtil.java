@@ -46,6 +46,25 @@ public class TestDataUtil {
         instructions.add(instruction);
     }
 
+    public List<Instruction> generateInstructions(int count, int entityCount, List<Currency> currencies, long seed) {
+        Random random = new Random(seed);
+        LocalDate firstDate = LocalDate.of(2016, Month.JANUARY, 1);
+        List<Instruction> generated = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            generated.add(new Instruction.Builder()
+                    .entity("entity" + random.nextInt(entityCount))
+                    .tradeOperation(random.nextBoolean() ? Operation.BUY : Operation.SELL)
+                    .agreedFx(BigDecimal.valueOf(1 + random.nextInt(20000), 4))
+                    .currency(currencies.get(random.nextInt(currencies.size())))
+                    .instructionDate(firstDate.plusDays(random.nextInt(366)))
+                    .units(1 + random.nextInt(1000))
+                    .unitPrice(BigDecimal.valueOf(random.nextInt(1000000), 2))
+                    .build());
+        }
+        return generated;
+    }
+
     public Map<LocalDate, BigDecimal> getExpectedSettleAmountForOp(Operation op) {
         if (op.equals(Operation.BUY)) {
 